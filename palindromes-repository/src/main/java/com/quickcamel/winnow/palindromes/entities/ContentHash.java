@@ -0,0 +1,54 @@
+package com.quickcamel.winnow.palindromes.entities;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * A 128 bit hash of a text, to find tasks for the same text, taken from the start of the text's SHA-256 digest,
+ * so a digest already taken of the text to tell it apart from others gives its hash without reading it again.
+ * <p>
+ * Tasks found by it should still have their texts compared, as a hash of any length may be shared.
+ */
+public final class ContentHash {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final int HASH_BYTES = 16;
+
+    private ContentHash() {
+    }
+
+    public static String of(CharSequence text) {
+        return of(digest(text));
+    }
+
+    // the hash within a digest of the text
+    public static String of(byte[] digest) {
+        char[] hash = new char[HASH_BYTES * 2];
+        for (int i = 0; i < HASH_BYTES; i++) {
+            hash[2 * i] = HEX[(digest[i] >> 4) & 0xF];
+            hash[2 * i + 1] = HEX[digest[i] & 0xF];
+        }
+        return new String(hash);
+    }
+
+    // the SHA-256 digest of every char of the text, two bytes each, so no two texts share the bytes digested
+    public static byte[] digest(CharSequence text) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] buffer = new byte[8192];
+        for (int i = 0; i < text.length(); ) {
+            int bytes = 0;
+            for (; bytes < buffer.length && i < text.length(); i++) {
+                char c = text.charAt(i);
+                buffer[bytes++] = (byte) (c >>> 8);
+                buffer[bytes++] = (byte) c;
+            }
+            digest.update(buffer, 0, bytes);
+        }
+        return digest.digest();
+    }
+}
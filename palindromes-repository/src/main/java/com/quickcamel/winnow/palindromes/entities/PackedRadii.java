@@ -0,0 +1,83 @@
+package com.quickcamel.winnow.palindromes.entities;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Packs palindrome radii about each centre of a text, as found by Manacher's algorithm, into few bytes.
+ * <p>
+ * Centres alternate between the gaps around chars and the chars themselves, so the radius about the centre at
+ * position i is 2r + (i & 1) for some r, and only r is kept, as a varint. Most palindromes are short,
+ * so most take a byte, and the bytes are then deflated.
+ */
+public final class PackedRadii {
+
+    private PackedRadii() {
+    }
+
+    public static byte[] pack(int[] radii) {
+        ByteArrayOutputStream varints = new ByteArrayOutputStream(radii.length + 5);
+        writeVarint(varints, radii.length);
+        for (int radius : radii) {
+            writeVarint(varints, radius >>> 1);
+        }
+        Deflater deflater = new Deflater();
+        deflater.setInput(varints.toByteArray());
+        deflater.finish();
+        ByteArrayOutputStream packed = new ByteArrayOutputStream(radii.length / 4 + 64);
+        byte[] buffer = new byte[8192];
+        while (!deflater.finished()) {
+            packed.write(buffer, 0, deflater.deflate(buffer));
+        }
+        deflater.end();
+        return packed.toByteArray();
+    }
+
+    public static int[] unpack(byte[] packed) {
+        Inflater inflater = new Inflater();
+        inflater.setInput(packed);
+        ByteArrayOutputStream varints = new ByteArrayOutputStream(packed.length * 4);
+        byte[] buffer = new byte[8192];
+        try {
+            while (!inflater.finished()) {
+                int inflated = inflater.inflate(buffer);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalArgumentException("Truncated palindrome radii");
+                }
+                varints.write(buffer, 0, inflated);
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Corrupt palindrome radii", e);
+        } finally {
+            inflater.end();
+        }
+        byte[] bytes = varints.toByteArray();
+        int[] offset = {0};
+        int[] radii = new int[readVarint(bytes, offset)];
+        for (int i = 0; i < radii.length; i++) {
+            radii[i] = 2 * readVarint(bytes, offset) + (i & 1);
+        }
+        return radii;
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write(value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarint(byte[] bytes, int[] offset) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = bytes[offset[0]++];
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+}
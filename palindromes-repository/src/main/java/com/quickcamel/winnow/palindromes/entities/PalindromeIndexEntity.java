@@ -0,0 +1,85 @@
+package com.quickcamel.winnow.palindromes.entities;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.*;
+
+/**
+ * The palindromes about every centre of a completed task's text, kept to answer questions of the text
+ * without parsing it again.
+ */
+@DynamoDBTable(tableName = "palindrome_index")
+public class PalindromeIndexEntity {
+
+    @DynamoDBHashKey
+    private String task;
+
+    @DynamoDBAttribute
+    private Long created;
+    // the length of the text indexed, in chars
+    @DynamoDBAttribute
+    private Integer length;
+    // the radius of the longest palindrome about each centre, as packed by PackedRadii
+    @DynamoDBAttribute
+    private byte[] radii;
+
+    public String getTask() {
+        return task;
+    }
+
+    public void setTask(String task) {
+        this.task = task;
+    }
+
+    public Long getCreated() {
+        return created;
+    }
+
+    public void setCreated(Long created) {
+        this.created = created;
+    }
+
+    public Integer getLength() {
+        return length;
+    }
+
+    public void setLength(Integer length) {
+        this.length = length;
+    }
+
+    public byte[] getRadii() {
+        return radii;
+    }
+
+    public void setRadii(byte[] radii) {
+        this.radii = radii;
+    }
+
+    public PalindromeIndexEntity withTask(final String task) {
+        this.task = task;
+        return this;
+    }
+
+    public PalindromeIndexEntity withCreated(final Long created) {
+        this.created = created;
+        return this;
+    }
+
+    public PalindromeIndexEntity withLength(final Integer length) {
+        this.length = length;
+        return this;
+    }
+
+    public PalindromeIndexEntity withRadii(final byte[] radii) {
+        this.radii = radii;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "PalindromeIndex{" +
+                "task='" + task + '\'' +
+                ", created=" + created +
+                ", length=" + length +
+                ", radii=" + (radii != null ? radii.length + " bytes" : null) +
+                '}';
+    }
+}
@@ -0,0 +1,84 @@
+package com.quickcamel.winnow.palindromes.entities;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.*;
+
+/**
+ * The state an appendable task's parse was saved in, kept apart from the task so the task's own item,
+ * text and all, stays within DynamoDB's 400KB limit as the state grows with the text.
+ */
+@DynamoDBTable(tableName = "palindrome_state")
+public class PalindromeStateEntity {
+
+    @DynamoDBHashKey
+    private String task;
+
+    @DynamoDBAttribute
+    private Long created;
+    // the length of the text parsed when the state was saved, in chars
+    @DynamoDBAttribute
+    private Integer length;
+    @DynamoDBAttribute
+    private byte[] state;
+
+    public String getTask() {
+        return task;
+    }
+
+    public void setTask(String task) {
+        this.task = task;
+    }
+
+    public Long getCreated() {
+        return created;
+    }
+
+    public void setCreated(Long created) {
+        this.created = created;
+    }
+
+    public Integer getLength() {
+        return length;
+    }
+
+    public void setLength(Integer length) {
+        this.length = length;
+    }
+
+    public byte[] getState() {
+        return state;
+    }
+
+    public void setState(byte[] state) {
+        this.state = state;
+    }
+
+    public PalindromeStateEntity withTask(final String task) {
+        this.task = task;
+        return this;
+    }
+
+    public PalindromeStateEntity withCreated(final Long created) {
+        this.created = created;
+        return this;
+    }
+
+    public PalindromeStateEntity withLength(final Integer length) {
+        this.length = length;
+        return this;
+    }
+
+    public PalindromeStateEntity withState(final byte[] state) {
+        this.state = state;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "PalindromeState{" +
+                "task='" + task + '\'' +
+                ", created=" + created +
+                ", length=" + length +
+                ", state=" + (state != null ? state.length + " bytes" : null) +
+                '}';
+    }
+}
@@ -2,15 +2,202 @@ package com.quickcamel.winnow.palindromes.entities;
 
 import com.amazonaws.services.dynamodbv2.datamodeling.*;
 
+import java.util.List;
+import java.util.Set;
+
 @DynamoDBTable(tableName = "palindrome_task")
 public class PalindromeTaskEntity {
 
+    public static final String CONTENT_HASH_INDEX = "contentHash-index";
+
     public enum Status {
         SUBMITTED,
         STARTED,
         COMPLETED
     }
 
+    public enum Mode {
+        LONGEST,
+        DISTINCT,
+        MAXIMAL,
+        WORDS
+    }
+
+    public enum Normalization {
+        CASE,
+        PUNCTUATION,
+        WHITESPACE,
+        DIACRITICS
+    }
+
+    @DynamoDBDocument
+    public static class DistinctPalindrome {
+
+        private String palindrome;
+        private Integer occurrences;
+
+        public String getPalindrome() {
+            return palindrome;
+        }
+
+        public void setPalindrome(String palindrome) {
+            this.palindrome = palindrome;
+        }
+
+        public Integer getOccurrences() {
+            return occurrences;
+        }
+
+        public void setOccurrences(Integer occurrences) {
+            this.occurrences = occurrences;
+        }
+
+        public DistinctPalindrome withPalindrome(final String palindrome) {
+            this.palindrome = palindrome;
+            return this;
+        }
+
+        public DistinctPalindrome withOccurrences(final Integer occurrences) {
+            this.occurrences = occurrences;
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return "DistinctPalindrome{" +
+                    "palindrome='" + palindrome + '\'' +
+                    ", occurrences=" + occurrences +
+                    '}';
+        }
+    }
+
+    @DynamoDBDocument
+    public static class MaximalPalindrome {
+
+        private String palindrome;
+        private Long start;
+        private Long end;
+
+        public String getPalindrome() {
+            return palindrome;
+        }
+
+        public void setPalindrome(String palindrome) {
+            this.palindrome = palindrome;
+        }
+
+        public Long getStart() {
+            return start;
+        }
+
+        public void setStart(Long start) {
+            this.start = start;
+        }
+
+        public Long getEnd() {
+            return end;
+        }
+
+        public void setEnd(Long end) {
+            this.end = end;
+        }
+
+        public MaximalPalindrome withPalindrome(final String palindrome) {
+            this.palindrome = palindrome;
+            return this;
+        }
+
+        public MaximalPalindrome withStart(final Long start) {
+            this.start = start;
+            return this;
+        }
+
+        public MaximalPalindrome withEnd(final Long end) {
+            this.end = end;
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return "MaximalPalindrome{" +
+                    "palindrome='" + palindrome + '\'' +
+                    ", start=" + start +
+                    ", end=" + end +
+                    '}';
+        }
+    }
+
+    @DynamoDBDocument
+    public static class Statistics {
+
+        private Long palindromes;
+        private List<Long> lengthHistogram;
+        private Integer regionLength;
+        private List<Double> densities;
+
+        public Long getPalindromes() {
+            return palindromes;
+        }
+
+        public void setPalindromes(Long palindromes) {
+            this.palindromes = palindromes;
+        }
+
+        public List<Long> getLengthHistogram() {
+            return lengthHistogram;
+        }
+
+        public void setLengthHistogram(List<Long> lengthHistogram) {
+            this.lengthHistogram = lengthHistogram;
+        }
+
+        public Integer getRegionLength() {
+            return regionLength;
+        }
+
+        public void setRegionLength(Integer regionLength) {
+            this.regionLength = regionLength;
+        }
+
+        public List<Double> getDensities() {
+            return densities;
+        }
+
+        public void setDensities(List<Double> densities) {
+            this.densities = densities;
+        }
+
+        public Statistics withPalindromes(final Long palindromes) {
+            this.palindromes = palindromes;
+            return this;
+        }
+
+        public Statistics withLengthHistogram(final List<Long> lengthHistogram) {
+            this.lengthHistogram = lengthHistogram;
+            return this;
+        }
+
+        public Statistics withRegionLength(final Integer regionLength) {
+            this.regionLength = regionLength;
+            return this;
+        }
+
+        public Statistics withDensities(final List<Double> densities) {
+            this.densities = densities;
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return "Statistics{" +
+                    "palindromes=" + palindromes +
+                    ", lengthHistogram=" + lengthHistogram +
+                    ", regionLength=" + regionLength +
+                    ", densities=" + densities +
+                    '}';
+        }
+    }
+
     @DynamoDBHashKey
     @DynamoDBAutoGeneratedKey
     private String task;
@@ -28,11 +215,57 @@ public class PalindromeTaskEntity {
 
     @DynamoDBAttribute
     private String text;
+    // the ContentHash of the text, indexed to find tasks for the same text, set only on tasks whose solutions
+    // may be reused, so the index stays sparse, and projecting only keys, so it stays small
+    @DynamoDBIndexHashKey(globalSecondaryIndexName = CONTENT_HASH_INDEX)
+    private String contentHash;
+
+    @DynamoDBTypeConvertedEnum
+    @DynamoDBAttribute
+    private Mode mode;
+    @DynamoDBAttribute
+    private Integer minLength;
+    @DynamoDBAttribute
+    private Integer resultLimit;
+    @DynamoDBAttribute
+    private Boolean nonOverlapping;
+    // names of the normalizations to apply
+    @DynamoDBAttribute
+    private Set<String> normalizations;
+    @DynamoDBAttribute
+    private Boolean appendable;
+    // whether to count every palindromic substring of the text
+    @DynamoDBAttribute
+    private Boolean statistics;
 
     @DynamoDBAttribute
     private Integer largestPalindromeLength;
     @DynamoDBAttribute
     private String largestPalindrome;
+    @DynamoDBAttribute
+    private Long largestPalindromeStart;
+    @DynamoDBAttribute
+    private Long largestPalindromeEnd;
+    // whether parsing stopped at its time limit, before the end of the text
+    @DynamoDBAttribute
+    private Boolean partial;
+    @DynamoDBAttribute
+    private List<DistinctPalindrome> distinctPalindromes;
+    @DynamoDBAttribute
+    private List<MaximalPalindrome> maximalPalindromes;
+    @DynamoDBAttribute
+    private Statistics palindromeStatistics;
+    // the parser version and options the solution was found with, for it to be reused for the same text
+    @DynamoDBAttribute
+    private String resultKey;
+    // the completed task for the same text and options whose solution this task shares, rather than being parsed
+    @DynamoDBAttribute
+    private String solutionTask;
+    // the share of the text scanned so far by a parse in progress, and when that was reported
+    @DynamoDBAttribute
+    private Double progress;
+    @DynamoDBAttribute
+    private Long progressed;
 
     public String getTask() {
         return task;
@@ -98,6 +331,150 @@ public class PalindromeTaskEntity {
         this.largestPalindrome = largestPalindrome;
     }
 
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    public Integer getMinLength() {
+        return minLength;
+    }
+
+    public void setMinLength(Integer minLength) {
+        this.minLength = minLength;
+    }
+
+    public Integer getResultLimit() {
+        return resultLimit;
+    }
+
+    public void setResultLimit(Integer resultLimit) {
+        this.resultLimit = resultLimit;
+    }
+
+    public Boolean getNonOverlapping() {
+        return nonOverlapping;
+    }
+
+    public void setNonOverlapping(Boolean nonOverlapping) {
+        this.nonOverlapping = nonOverlapping;
+    }
+
+    public Set<String> getNormalizations() {
+        return normalizations;
+    }
+
+    public void setNormalizations(Set<String> normalizations) {
+        this.normalizations = normalizations;
+    }
+
+    public Boolean getAppendable() {
+        return appendable;
+    }
+
+    public void setAppendable(Boolean appendable) {
+        this.appendable = appendable;
+    }
+
+    public Long getLargestPalindromeStart() {
+        return largestPalindromeStart;
+    }
+
+    public void setLargestPalindromeStart(Long largestPalindromeStart) {
+        this.largestPalindromeStart = largestPalindromeStart;
+    }
+
+    public Long getLargestPalindromeEnd() {
+        return largestPalindromeEnd;
+    }
+
+    public void setLargestPalindromeEnd(Long largestPalindromeEnd) {
+        this.largestPalindromeEnd = largestPalindromeEnd;
+    }
+
+    public Boolean getPartial() {
+        return partial;
+    }
+
+    public void setPartial(Boolean partial) {
+        this.partial = partial;
+    }
+
+    public List<DistinctPalindrome> getDistinctPalindromes() {
+        return distinctPalindromes;
+    }
+
+    public void setDistinctPalindromes(List<DistinctPalindrome> distinctPalindromes) {
+        this.distinctPalindromes = distinctPalindromes;
+    }
+
+    public List<MaximalPalindrome> getMaximalPalindromes() {
+        return maximalPalindromes;
+    }
+
+    public void setMaximalPalindromes(List<MaximalPalindrome> maximalPalindromes) {
+        this.maximalPalindromes = maximalPalindromes;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public String getResultKey() {
+        return resultKey;
+    }
+
+    public void setResultKey(String resultKey) {
+        this.resultKey = resultKey;
+    }
+
+    public String getSolutionTask() {
+        return solutionTask;
+    }
+
+    public void setSolutionTask(String solutionTask) {
+        this.solutionTask = solutionTask;
+    }
+
+    public Double getProgress() {
+        return progress;
+    }
+
+    public void setProgress(Double progress) {
+        this.progress = progress;
+    }
+
+    public Long getProgressed() {
+        return progressed;
+    }
+
+    public void setProgressed(Long progressed) {
+        this.progressed = progressed;
+    }
+
+    public Boolean getStatistics() {
+        return statistics;
+    }
+
+    public void setStatistics(Boolean statistics) {
+        this.statistics = statistics;
+    }
+
+    public Statistics getPalindromeStatistics() {
+        return palindromeStatistics;
+    }
+
+    public void setPalindromeStatistics(Statistics palindromeStatistics) {
+        this.palindromeStatistics = palindromeStatistics;
+    }
+
     public PalindromeTaskEntity withTask(final String task) {
         this.task = task;
         return this;
@@ -138,6 +515,96 @@ public class PalindromeTaskEntity {
         return this;
     }
 
+    public PalindromeTaskEntity withMode(final Mode mode) {
+        this.mode = mode;
+        return this;
+    }
+
+    public PalindromeTaskEntity withMinLength(final Integer minLength) {
+        this.minLength = minLength;
+        return this;
+    }
+
+    public PalindromeTaskEntity withResultLimit(final Integer resultLimit) {
+        this.resultLimit = resultLimit;
+        return this;
+    }
+
+    public PalindromeTaskEntity withNonOverlapping(final Boolean nonOverlapping) {
+        this.nonOverlapping = nonOverlapping;
+        return this;
+    }
+
+    public PalindromeTaskEntity withNormalizations(final Set<String> normalizations) {
+        this.normalizations = normalizations;
+        return this;
+    }
+
+    public PalindromeTaskEntity withAppendable(final Boolean appendable) {
+        this.appendable = appendable;
+        return this;
+    }
+
+    public PalindromeTaskEntity withLargestPalindromeStart(final Long largestPalindromeStart) {
+        this.largestPalindromeStart = largestPalindromeStart;
+        return this;
+    }
+
+    public PalindromeTaskEntity withLargestPalindromeEnd(final Long largestPalindromeEnd) {
+        this.largestPalindromeEnd = largestPalindromeEnd;
+        return this;
+    }
+
+    public PalindromeTaskEntity withPartial(final Boolean partial) {
+        this.partial = partial;
+        return this;
+    }
+
+    public PalindromeTaskEntity withDistinctPalindromes(final List<DistinctPalindrome> distinctPalindromes) {
+        this.distinctPalindromes = distinctPalindromes;
+        return this;
+    }
+
+    public PalindromeTaskEntity withMaximalPalindromes(final List<MaximalPalindrome> maximalPalindromes) {
+        this.maximalPalindromes = maximalPalindromes;
+        return this;
+    }
+
+    public PalindromeTaskEntity withContentHash(final String contentHash) {
+        this.contentHash = contentHash;
+        return this;
+    }
+
+    public PalindromeTaskEntity withResultKey(final String resultKey) {
+        this.resultKey = resultKey;
+        return this;
+    }
+
+    public PalindromeTaskEntity withSolutionTask(final String solutionTask) {
+        this.solutionTask = solutionTask;
+        return this;
+    }
+
+    public PalindromeTaskEntity withProgress(final Double progress) {
+        this.progress = progress;
+        return this;
+    }
+
+    public PalindromeTaskEntity withProgressed(final Long progressed) {
+        this.progressed = progressed;
+        return this;
+    }
+
+    public PalindromeTaskEntity withStatistics(final Boolean statistics) {
+        this.statistics = statistics;
+        return this;
+    }
+
+    public PalindromeTaskEntity withPalindromeStatistics(final Statistics palindromeStatistics) {
+        this.palindromeStatistics = palindromeStatistics;
+        return this;
+    }
+
 
     @Override
     public String toString() {
@@ -148,8 +615,26 @@ public class PalindromeTaskEntity {
                 ", started=" + started +
                 ", completed=" + completed +
                 ", text='" + text + '\'' +
+                ", contentHash='" + contentHash + '\'' +
+                ", mode=" + mode +
+                ", minLength=" + minLength +
+                ", resultLimit=" + resultLimit +
+                ", nonOverlapping=" + nonOverlapping +
+                ", normalizations=" + normalizations +
+                ", appendable=" + appendable +
+                ", statistics=" + statistics +
                 ", largestPalindromeLength=" + largestPalindromeLength +
                 ", largestPalindrome='" + largestPalindrome + '\'' +
+                ", largestPalindromeStart=" + largestPalindromeStart +
+                ", largestPalindromeEnd=" + largestPalindromeEnd +
+                ", partial=" + partial +
+                ", distinctPalindromes=" + distinctPalindromes +
+                ", maximalPalindromes=" + maximalPalindromes +
+                ", palindromeStatistics=" + palindromeStatistics +
+                ", resultKey='" + resultKey + '\'' +
+                ", solutionTask='" + solutionTask + '\'' +
+                ", progress=" + progress +
+                ", progressed=" + progressed +
                 '}';
     }
 }
@@ -0,0 +1,7 @@
+package com.quickcamel.winnow.palindromes.repositories;
+
+import com.quickcamel.winnow.palindromes.entities.PalindromeIndexEntity;
+import org.springframework.data.repository.CrudRepository;
+
+public interface PalindromeIndexRepository extends CrudRepository<PalindromeIndexEntity, String> {
+}
@@ -0,0 +1,7 @@
+package com.quickcamel.winnow.palindromes.repositories;
+
+import com.quickcamel.winnow.palindromes.entities.PalindromeStateEntity;
+import org.springframework.data.repository.CrudRepository;
+
+public interface PalindromeStateRepository extends CrudRepository<PalindromeStateEntity, String> {
+}
@@ -0,0 +1,15 @@
+package com.quickcamel.winnow.palindromes.repositories;
+
+import com.quickcamel.winnow.palindromes.entities.PalindromeTaskEntity;
+
+import java.util.List;
+
+/**
+ * Finds tasks by the content hash index, which holds only the keys of tasks whose solutions may be reused,
+ * so a text submitted many times costs no more to look up than one submitted once.
+ */
+public interface PalindromeTaskLookups {
+
+    // loads at most limit tasks indexed under the content hash, in no particular order
+    List<PalindromeTaskEntity> findByContentHash(String contentHash, int limit);
+}
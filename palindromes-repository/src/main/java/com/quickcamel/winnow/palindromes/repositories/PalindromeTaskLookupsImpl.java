@@ -0,0 +1,38 @@
+package com.quickcamel.winnow.palindromes.repositories;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBQueryExpression;
+import com.quickcamel.winnow.palindromes.entities.PalindromeTaskEntity;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+// found by Spring Data as the implementation of PalindromeTaskRepository's lookups, by its name
+public class PalindromeTaskLookupsImpl implements PalindromeTaskLookups {
+
+    private final DynamoDBMapper mapper;
+
+    public PalindromeTaskLookupsImpl(AmazonDynamoDB amazonDynamoDB) {
+        this.mapper = new DynamoDBMapper(amazonDynamoDB);
+    }
+
+    // a single page of keys from the index, then the tasks themselves in one batch
+    @Override
+    public List<PalindromeTaskEntity> findByContentHash(String contentHash, int limit) {
+        List<PalindromeTaskEntity> keys = mapper.queryPage(PalindromeTaskEntity.class,
+                new DynamoDBQueryExpression<PalindromeTaskEntity>()
+                        .withIndexName(PalindromeTaskEntity.CONTENT_HASH_INDEX)
+                        .withHashKeyValues(new PalindromeTaskEntity().withContentHash(contentHash))
+                        .withConsistentRead(false)
+                        .withLimit(limit))
+                .getResults();
+        if (keys.isEmpty()) {
+            return List.of();
+        }
+        return mapper.batchLoad(keys).values().stream()
+                .flatMap(List::stream)
+                .map(PalindromeTaskEntity.class::cast)
+                .collect(Collectors.toList());
+    }
+}
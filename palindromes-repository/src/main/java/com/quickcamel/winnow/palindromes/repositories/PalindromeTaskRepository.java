@@ -5,5 +5,6 @@ import org.socialsignin.spring.data.dynamodb.repository.EnableScan;
 import org.springframework.data.repository.CrudRepository;
 
 @EnableScan
-public interface PalindromeTaskRepository extends CrudRepository<PalindromeTaskEntity, String> {
+public interface PalindromeTaskRepository extends CrudRepository<PalindromeTaskEntity, String>,
+        PalindromeTaskTransitions, PalindromeTaskLookups {
 }
@@ -0,0 +1,25 @@
+package com.quickcamel.winnow.palindromes.repositories;
+
+import com.quickcamel.winnow.palindromes.entities.PalindromeTaskEntity;
+
+/**
+ * Moves a task on from one status to the next with a single conditional update, writing only what changes,
+ * rather than reading the whole task, text and all, to check its status before saving it whole again.
+ */
+public interface PalindromeTaskTransitions {
+
+    // starts the task if still submitted, returning whether it was
+    boolean start(String taskId, long started);
+
+    // completes the task with the attributes set on the completion, which is keyed by the task,
+    // if its status is still that expected, returning whether it was
+    boolean complete(PalindromeTaskEntity completion, PalindromeTaskEntity.Status expected);
+
+    // records the attributes set on the progress, which is keyed by the task, leaving its status as it is,
+    // if that is still the status expected, returning whether it was
+    boolean progress(PalindromeTaskEntity progress, PalindromeTaskEntity.Status expected);
+
+    // saves the task whole, its text appended to and resubmitted, if it is still as it was read, as told by when it
+    // was last submitted and its status, returning whether it was
+    boolean append(PalindromeTaskEntity appended, Long submitted, PalindromeTaskEntity.Status status);
+}
@@ -0,0 +1,70 @@
+package com.quickcamel.winnow.palindromes.repositories;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBSaveExpression;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.ExpectedAttributeValue;
+import com.quickcamel.winnow.palindromes.entities.PalindromeTaskEntity;
+
+// found by Spring Data as the implementation of PalindromeTaskRepository's transitions, by its name
+public class PalindromeTaskTransitionsImpl implements PalindromeTaskTransitions {
+
+    // an UpdateItem of the attributes set, leaving the rest, the text among them, untouched
+    private static final DynamoDBMapperConfig UPDATE_SET_ATTRIBUTES = DynamoDBMapperConfig.builder()
+            .withSaveBehavior(DynamoDBMapperConfig.SaveBehavior.UPDATE_SKIP_NULL_ATTRIBUTES)
+            .build();
+
+    private final DynamoDBMapper mapper;
+
+    public PalindromeTaskTransitionsImpl(AmazonDynamoDB amazonDynamoDB) {
+        this.mapper = new DynamoDBMapper(amazonDynamoDB);
+    }
+
+    @Override
+    public boolean start(String taskId, long started) {
+        return update(new PalindromeTaskEntity()
+                        .withTask(taskId)
+                        .withStatus(PalindromeTaskEntity.Status.STARTED)
+                        .withStarted(started),
+                PalindromeTaskEntity.Status.SUBMITTED);
+    }
+
+    @Override
+    public boolean complete(PalindromeTaskEntity completion, PalindromeTaskEntity.Status expected) {
+        return update(completion.withStatus(PalindromeTaskEntity.Status.COMPLETED), expected);
+    }
+
+    @Override
+    public boolean progress(PalindromeTaskEntity progress, PalindromeTaskEntity.Status expected) {
+        return update(progress.withStatus(null), expected);
+    }
+
+    // every append and transition changes one or other, so an append made since, or a parse started or completed,
+    // fails the check rather than being overwritten
+    @Override
+    public boolean append(PalindromeTaskEntity appended, Long submitted, PalindromeTaskEntity.Status status) {
+        try {
+            mapper.save(appended, new DynamoDBSaveExpression()
+                    .withExpectedEntry("submitted", submitted != null
+                            ? new ExpectedAttributeValue(new AttributeValue().withN(submitted.toString()))
+                            : new ExpectedAttributeValue(false))
+                    .withExpectedEntry("status", new ExpectedAttributeValue(new AttributeValue(status.name()))));
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            return false;
+        }
+    }
+
+    private boolean update(PalindromeTaskEntity changes, PalindromeTaskEntity.Status expected) {
+        try {
+            mapper.save(changes, new DynamoDBSaveExpression().withExpectedEntry("status",
+                    new ExpectedAttributeValue(new AttributeValue(expected.name()))), UPDATE_SET_ATTRIBUTES);
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            return false;
+        }
+    }
+}
@@ -1,9 +1,14 @@
 package com.quickcamel.winnow.palindromes.rest.controller;
 
 import com.quickcamel.winnow.palindromes.rest.dto.PalindromeTaskOutput;
+import com.quickcamel.winnow.palindromes.rest.task.ConflictException;
+import com.quickcamel.winnow.palindromes.rest.task.InvalidProblemException;
 import com.quickcamel.winnow.palindromes.rest.task.NotFoundException;
+import com.quickcamel.winnow.palindromes.rest.task.NotIndexedException;
 import com.quickcamel.winnow.palindromes.rest.task.PalindromeTaskManager;
 import com.quickcamel.winnow.palindromes.rest.dto.PalindromeTaskSubmission;
+import com.quickcamel.winnow.palindromes.rest.dto.RangeSolution;
+import com.quickcamel.winnow.palindromes.rest.dto.TextAppend;
 import org.springframework.context.support.MessageSourceAccessor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -28,7 +33,14 @@ public class PalindromeController {
 
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
     public ResponseEntity<PalindromeTaskOutput> createPalindromeTask(@RequestBody PalindromeTaskSubmission submission) {
-        PalindromeTaskOutput taskOutput = palindromeTaskManager.submit(submission.getProblem());
+        PalindromeTaskOutput taskOutput;
+        try {
+            taskOutput = palindromeTaskManager.submit(submission.getProblem());
+        }
+        catch (InvalidProblemException e) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST, messageSourceAccessor.getMessage("problem.invalid"));
+        }
 
         return ResponseEntity
                 // return location to better meet RESTful expectations,
@@ -56,4 +68,46 @@ public class PalindromeController {
 
         }
     }
+
+    @PostMapping(path = "/{task}/append", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public PalindromeTaskOutput appendToPalindromeTask(@PathVariable(name = "task") String taskId,
+                                                       @RequestBody TextAppend textAppend) {
+        try {
+            return palindromeTaskManager.append(taskId, textAppend.getText());
+        }
+        catch (NotFoundException e) {
+            throw new ResponseStatusException(
+                    HttpStatus.NOT_FOUND, messageSourceAccessor.getMessage("task.not.found", new Object[] {taskId}));
+        }
+        catch (InvalidProblemException e) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST, messageSourceAccessor.getMessage("task.not.appendable", new Object[] {taskId}));
+        }
+        catch (ConflictException e) {
+            throw new ResponseStatusException(
+                    HttpStatus.CONFLICT, messageSourceAccessor.getMessage("task.append.conflict", new Object[] {taskId}));
+        }
+    }
+
+    @GetMapping(path = "/{task}/range", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public RangeSolution getPalindromeTaskRange(@PathVariable(name = "task") String taskId,
+                                                @RequestParam(name = "from") int from,
+                                                @RequestParam(name = "to") int to) {
+        try {
+            return palindromeTaskManager.range(taskId, from, to);
+        }
+        catch (NotIndexedException e) {
+            throw new ResponseStatusException(
+                    HttpStatus.NOT_FOUND, messageSourceAccessor.getMessage("task.not.indexed", new Object[] {taskId}));
+        }
+        catch (NotFoundException e) {
+            throw new ResponseStatusException(
+                    HttpStatus.NOT_FOUND, messageSourceAccessor.getMessage("task.not.found", new Object[] {taskId}));
+        }
+        catch (InvalidProblemException e) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST, messageSourceAccessor.getMessage("range.invalid", new Object[] {String.valueOf(from), String.valueOf(to)}));
+        }
+    }
 }
@@ -0,0 +1,33 @@
+package com.quickcamel.winnow.palindromes.rest.dto;
+
+public class DistinctPalindrome {
+
+    private String palindrome;
+    private Integer occurrences;
+
+    public String getPalindrome() {
+        return palindrome;
+    }
+
+    public Integer getOccurrences() {
+        return occurrences;
+    }
+
+    public DistinctPalindrome withPalindrome(final String palindrome) {
+        this.palindrome = palindrome;
+        return this;
+    }
+
+    public DistinctPalindrome withOccurrences(final Integer occurrences) {
+        this.occurrences = occurrences;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "DistinctPalindrome{" +
+                "palindrome='" + palindrome + '\'' +
+                ", occurrences=" + occurrences +
+                '}';
+    }
+}
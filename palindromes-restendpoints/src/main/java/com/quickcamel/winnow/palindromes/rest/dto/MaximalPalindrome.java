@@ -0,0 +1,44 @@
+package com.quickcamel.winnow.palindromes.rest.dto;
+
+public class MaximalPalindrome {
+
+    private String palindrome;
+    private Long start;
+    private Long end;
+
+    public String getPalindrome() {
+        return palindrome;
+    }
+
+    public Long getStart() {
+        return start;
+    }
+
+    public Long getEnd() {
+        return end;
+    }
+
+    public MaximalPalindrome withPalindrome(final String palindrome) {
+        this.palindrome = palindrome;
+        return this;
+    }
+
+    public MaximalPalindrome withStart(final Long start) {
+        this.start = start;
+        return this;
+    }
+
+    public MaximalPalindrome withEnd(final Long end) {
+        this.end = end;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "MaximalPalindrome{" +
+                "palindrome='" + palindrome + '\'' +
+                ", start=" + start +
+                ", end=" + end +
+                '}';
+    }
+}
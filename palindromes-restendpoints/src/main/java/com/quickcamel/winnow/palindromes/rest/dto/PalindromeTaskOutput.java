@@ -9,6 +9,10 @@ public class PalindromeTaskOutput {
     private Timestamps timestamps;
     private Problem problem;
     private Solution solution;
+    private Statistics statistics;
+    // the share of the text parsed, and when the parse is expected to complete, in epoch milliseconds
+    private Double progress;
+    private Long estimatedCompletion;
 
     public String getTask() {
         return task;
@@ -30,6 +34,18 @@ public class PalindromeTaskOutput {
         return solution;
     }
 
+    public Statistics getStatistics() {
+        return statistics;
+    }
+
+    public Double getProgress() {
+        return progress;
+    }
+
+    public Long getEstimatedCompletion() {
+        return estimatedCompletion;
+    }
+
     public PalindromeTaskOutput withTask(final String task) {
         this.task = task;
         return this;
@@ -55,6 +71,20 @@ public class PalindromeTaskOutput {
         return this;
     }
 
+    public PalindromeTaskOutput withStatistics(final Statistics statistics) {
+        this.statistics = statistics;
+        return this;
+    }
+
+    public PalindromeTaskOutput withProgress(final Double progress) {
+        this.progress = progress;
+        return this;
+    }
+
+    public PalindromeTaskOutput withEstimatedCompletion(final Long estimatedCompletion) {
+        this.estimatedCompletion = estimatedCompletion;
+        return this;
+    }
 
     @Override
     public String toString() {
@@ -64,6 +94,9 @@ public class PalindromeTaskOutput {
                 ", timestamps=" + timestamps +
                 ", problem=" + problem +
                 ", solution=" + solution +
+                ", statistics=" + statistics +
+                ", progress=" + progress +
+                ", estimatedCompletion=" + estimatedCompletion +
                 '}';
     }
 }
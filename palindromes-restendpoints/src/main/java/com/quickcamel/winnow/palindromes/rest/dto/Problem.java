@@ -1,22 +1,101 @@
 package com.quickcamel.winnow.palindromes.rest.dto;
 
+import java.util.List;
+
 public class Problem {
 
     private String text;
+    private String mode;
+    private Integer minLength;
+    private Integer limit;
+    private Boolean nonOverlapping;
+    private List<String> normalizations;
+    private Boolean appendable;
+    private Boolean statistics;
 
     public String getText() {
         return text;
     }
 
+    public String getMode() {
+        return mode;
+    }
+
+    public Integer getMinLength() {
+        return minLength;
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public Boolean getNonOverlapping() {
+        return nonOverlapping;
+    }
+
+    public List<String> getNormalizations() {
+        return normalizations;
+    }
+
+    public Boolean getAppendable() {
+        return appendable;
+    }
+
+    public Boolean getStatistics() {
+        return statistics;
+    }
+
     public Problem withText(final String text) {
         this.text = text;
         return this;
     }
 
+    public Problem withMode(final String mode) {
+        this.mode = mode;
+        return this;
+    }
+
+    public Problem withMinLength(final Integer minLength) {
+        this.minLength = minLength;
+        return this;
+    }
+
+    public Problem withLimit(final Integer limit) {
+        this.limit = limit;
+        return this;
+    }
+
+    public Problem withNonOverlapping(final Boolean nonOverlapping) {
+        this.nonOverlapping = nonOverlapping;
+        return this;
+    }
+
+    public Problem withNormalizations(final List<String> normalizations) {
+        this.normalizations = normalizations;
+        return this;
+    }
+
+    public Problem withAppendable(final Boolean appendable) {
+        this.appendable = appendable;
+        return this;
+    }
+
+    public Problem withStatistics(final Boolean statistics) {
+        this.statistics = statistics;
+        return this;
+    }
+
     @Override
     public String toString() {
         return "Problem{" +
                 "text='" + text + '\'' +
+                ", mode='" + mode + '\'' +
+                ", minLength=" + minLength +
+                ", limit=" + limit +
+                ", nonOverlapping=" + nonOverlapping +
+                ", normalizations=" + normalizations +
+                ", appendable=" + appendable +
+                ", statistics=" + statistics +
                 '}';
     }
 }
@@ -0,0 +1,77 @@
+package com.quickcamel.winnow.palindromes.rest.dto;
+
+public class RangeSolution {
+
+    private Long from;
+    private Long to;
+    private Integer largestPalindromeLength;
+    private String largestPalindrome;
+    private Long start;
+    private Long end;
+
+    public Long getFrom() {
+        return from;
+    }
+
+    public Long getTo() {
+        return to;
+    }
+
+    public Integer getLargestPalindromeLength() {
+        return largestPalindromeLength;
+    }
+
+    public String getLargestPalindrome() {
+        return largestPalindrome;
+    }
+
+    public Long getStart() {
+        return start;
+    }
+
+    public Long getEnd() {
+        return end;
+    }
+
+    public RangeSolution withFrom(final Long from) {
+        this.from = from;
+        return this;
+    }
+
+    public RangeSolution withTo(final Long to) {
+        this.to = to;
+        return this;
+    }
+
+    public RangeSolution withLargestPalindromeLength(final Integer largestPalindromeLength) {
+        this.largestPalindromeLength = largestPalindromeLength;
+        return this;
+    }
+
+    public RangeSolution withLargestPalindrome(final String largestPalindrome) {
+        this.largestPalindrome = largestPalindrome;
+        return this;
+    }
+
+    public RangeSolution withStart(final Long start) {
+        this.start = start;
+        return this;
+    }
+
+    public RangeSolution withEnd(final Long end) {
+        this.end = end;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "RangeSolution{" +
+                "from=" + from +
+                ", to=" + to +
+                ", largestPalindromeLength=" + largestPalindromeLength +
+                ", largestPalindrome='" + largestPalindrome + '\'' +
+                ", start=" + start +
+                ", end=" + end +
+                '}';
+    }
+}
@@ -1,9 +1,16 @@
 package com.quickcamel.winnow.palindromes.rest.dto;
 
+import java.util.List;
+
 public class Solution {
 
     private Integer largestPalindromeLength;
     private String largestPalindrome;
+    private Long start;
+    private Long end;
+    private Boolean partial;
+    private List<DistinctPalindrome> palindromes;
+    private List<MaximalPalindrome> maximalPalindromes;
 
     public Integer getLargestPalindromeLength() {
         return largestPalindromeLength;
@@ -13,6 +20,26 @@ public class Solution {
         return largestPalindrome;
     }
 
+    public Long getStart() {
+        return start;
+    }
+
+    public Long getEnd() {
+        return end;
+    }
+
+    public Boolean getPartial() {
+        return partial;
+    }
+
+    public List<DistinctPalindrome> getPalindromes() {
+        return palindromes;
+    }
+
+    public List<MaximalPalindrome> getMaximalPalindromes() {
+        return maximalPalindromes;
+    }
+
     public Solution withLargestPalindromeLength(final Integer largestPalindromeLength) {
         this.largestPalindromeLength = largestPalindromeLength;
         return this;
@@ -23,11 +50,41 @@ public class Solution {
         return this;
     }
 
+    public Solution withStart(final Long start) {
+        this.start = start;
+        return this;
+    }
+
+    public Solution withEnd(final Long end) {
+        this.end = end;
+        return this;
+    }
+
+    public Solution withPartial(final Boolean partial) {
+        this.partial = partial;
+        return this;
+    }
+
+    public Solution withPalindromes(final List<DistinctPalindrome> palindromes) {
+        this.palindromes = palindromes;
+        return this;
+    }
+
+    public Solution withMaximalPalindromes(final List<MaximalPalindrome> maximalPalindromes) {
+        this.maximalPalindromes = maximalPalindromes;
+        return this;
+    }
+
     @Override
     public String toString() {
         return "Solution{" +
                 "largestPalindromeLength=" + largestPalindromeLength +
                 ", largestPalindrome='" + largestPalindrome + '\'' +
+                ", start=" + start +
+                ", end=" + end +
+                ", partial=" + partial +
+                ", palindromes=" + palindromes +
+                ", maximalPalindromes=" + maximalPalindromes +
                 '}';
     }
 }
@@ -0,0 +1,61 @@
+package com.quickcamel.winnow.palindromes.rest.dto;
+
+import java.util.List;
+
+public class Statistics {
+
+    // palindromic substrings, counting each occurrence and single characters
+    private Long palindromes;
+    // palindromic substrings of 1, 2-3, 4-7, ... characters
+    private List<Long> lengthHistogram;
+    // characters in each region of the text
+    private Integer regionLength;
+    // palindromic substrings of two or more characters centred in each region, per character
+    private List<Double> densities;
+
+    public Long getPalindromes() {
+        return palindromes;
+    }
+
+    public List<Long> getLengthHistogram() {
+        return lengthHistogram;
+    }
+
+    public Integer getRegionLength() {
+        return regionLength;
+    }
+
+    public List<Double> getDensities() {
+        return densities;
+    }
+
+    public Statistics withPalindromes(final Long palindromes) {
+        this.palindromes = palindromes;
+        return this;
+    }
+
+    public Statistics withLengthHistogram(final List<Long> lengthHistogram) {
+        this.lengthHistogram = lengthHistogram;
+        return this;
+    }
+
+    public Statistics withRegionLength(final Integer regionLength) {
+        this.regionLength = regionLength;
+        return this;
+    }
+
+    public Statistics withDensities(final List<Double> densities) {
+        this.densities = densities;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "Statistics{" +
+                "palindromes=" + palindromes +
+                ", lengthHistogram=" + lengthHistogram +
+                ", regionLength=" + regionLength +
+                ", densities=" + densities +
+                '}';
+    }
+}
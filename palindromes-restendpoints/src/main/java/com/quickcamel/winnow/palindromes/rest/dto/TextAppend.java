@@ -0,0 +1,15 @@
+package com.quickcamel.winnow.palindromes.rest.dto;
+
+public class TextAppend {
+
+    private String text;
+
+    public String getText() {
+        return text;
+    }
+
+    public TextAppend withText(final String text) {
+        this.text = text;
+        return this;
+    }
+}
@@ -0,0 +1,91 @@
+package com.quickcamel.winnow.palindromes.rest.index;
+
+/**
+ * Answers which is the longest palindrome within any range of a text, from the radius of the longest palindrome
+ * about each of its centres, where centres alternate between the gaps around chars and the chars themselves.
+ * <p>
+ * A palindrome of length L lies within the range if some centre at least L from either end of the range has
+ * a radius of at least L, and so do palindromes of every shorter length, so the longest is found by binary search.
+ * The centre with the largest radius in a span of centres is found by scanning blocks of centres at its ends,
+ * and from a sparse table of the largest radius in each run of a power of two blocks in between.
+ */
+public class PalindromeIndex {
+
+    private static final int BLOCK_SHIFT = 6;
+    private static final int BLOCK = 1 << BLOCK_SHIFT;
+
+    private final int[] radii;
+    // table[k][b] is the centre with the largest radius in the 2^k blocks from block b
+    private final int[][] table;
+
+    public PalindromeIndex(int[] radii) {
+        this.radii = radii;
+        int blocks = (radii.length + BLOCK - 1) >> BLOCK_SHIFT;
+        int levels = 32 - Integer.numberOfLeadingZeros(Math.max(blocks, 1));
+        table = new int[levels][];
+        table[0] = new int[blocks];
+        for (int b = 0; b < blocks; b++) {
+            table[0][b] = scan(b << BLOCK_SHIFT, Math.min((b + 1) << BLOCK_SHIFT, radii.length) - 1);
+        }
+        for (int k = 1; k < levels; k++) {
+            table[k] = new int[blocks - (1 << k) + 1];
+            for (int b = 0; b < table[k].length; b++) {
+                table[k][b] = larger(table[k - 1][b], table[k - 1][b + (1 << k - 1)]);
+            }
+        }
+    }
+
+    // the length of the text indexed
+    public int length() {
+        return radii.length / 2;
+    }
+
+    /**
+     * The start and end, exclusive, of the longest palindrome within the chars from start to end, exclusive.
+     */
+    public int[] longestWithin(int from, int to) {
+        int low = 1, high = to - from;
+        int length = 0, centre = 2 * from;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int candidate = largest(2 * from + mid, 2 * to - mid);
+            if (radii[candidate] >= mid) {
+                length = mid;
+                centre = candidate;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return new int[]{(centre - length) / 2, (centre + length) / 2};
+    }
+
+    // the centre with the largest radius from first to last, inclusive
+    int largest(int first, int last) {
+        int firstBlock = first >> BLOCK_SHIFT;
+        int lastBlock = last >> BLOCK_SHIFT;
+        if (lastBlock - firstBlock < 2) {
+            return scan(first, last);
+        }
+        int blocks = lastBlock - firstBlock - 1;
+        int k = 31 - Integer.numberOfLeadingZeros(blocks);
+        int between = larger(table[k][firstBlock + 1], table[k][lastBlock - (1 << k)]);
+        return larger(larger(scan(first, ((firstBlock + 1) << BLOCK_SHIFT) - 1), between),
+                scan(lastBlock << BLOCK_SHIFT, last));
+    }
+
+    private int scan(int first, int last) {
+        int centre = first;
+        for (int i = first + 1; i <= last; i++) {
+            if (radii[i] > radii[centre]) {
+                centre = i;
+            }
+        }
+        return centre;
+    }
+
+    // the first of two centres unless the second has a larger radius
+    private int larger(int a, int b) {
+        return radii[b] > radii[a] ? b : a;
+    }
+}
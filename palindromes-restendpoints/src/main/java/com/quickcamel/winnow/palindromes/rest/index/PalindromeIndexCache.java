@@ -0,0 +1,60 @@
+package com.quickcamel.winnow.palindromes.rest.index;
+
+import com.quickcamel.winnow.palindromes.entities.PackedRadii;
+import com.quickcamel.winnow.palindromes.repositories.PalindromeIndexRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The indexes of the tasks most recently queried, saving loading and building them for each query.
+ * <p>
+ * An appendable task is indexed again once its appended text is parsed, so an index is only answered from
+ * while it covers the whole of the task's text as read for the query, being loaded again otherwise.
+ */
+@Component
+public class PalindromeIndexCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(PalindromeIndexCache.class);
+
+    private final PalindromeIndexRepository repository;
+    private final Map<String, PalindromeIndex> indexes;
+
+    public PalindromeIndexCache(PalindromeIndexRepository repository,
+                                @Value("${palindrome.index.cache.entries:16}") int entries) {
+        this.repository = repository;
+        this.indexes = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PalindromeIndex> eldest) {
+                return size() > entries;
+            }
+        };
+    }
+
+    // the index of the task's text of the length given, unless only an index of an earlier, shorter text is saved
+    public Optional<PalindromeIndex> get(String taskId, int length) {
+        synchronized (indexes) {
+            PalindromeIndex index = indexes.get(taskId);
+            if (index != null && index.length() == length) {
+                return Optional.of(index);
+            }
+        }
+        // loaded outside the lock, so another query may load it too
+        return repository.findById(taskId).map(entity -> {
+            PalindromeIndex index = new PalindromeIndex(PackedRadii.unpack(entity.getRadii()));
+            logger.debug("Loaded {}", entity);
+            synchronized (indexes) {
+                PalindromeIndex cached = indexes.get(taskId);
+                if (cached == null || cached.length() < index.length()) {
+                    indexes.put(taskId, index);
+                }
+            }
+            return index;
+        }).filter(index -> index.length() == length);
+    }
+}
@@ -23,9 +23,11 @@ public class PalindromesRESTEndpointsContext {
         this.messagingTemplate = new NotificationMessagingTemplate(amazonSNS);
     }
 
+    // each lane is published to a destination of its own, suffixed with the lane's name
     @Bean
     SubmissionObserver newTaskNotifier(@Value("${palindrome.newtask.notification.destination:palindrome-submitted}") String destination) {
-        return payload -> messagingTemplate.convertAndSend(destination, payload.getTask());
+        return (payload, lane) -> messagingTemplate.convertAndSend(
+                lane != null ? destination + "-" + lane : destination, payload.getTask());
     }
 
     @Bean
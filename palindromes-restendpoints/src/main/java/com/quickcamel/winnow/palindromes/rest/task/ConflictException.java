@@ -0,0 +1,8 @@
+package com.quickcamel.winnow.palindromes.rest.task;
+
+public class ConflictException extends Exception {
+
+    public ConflictException() {
+        super();
+    }
+}
@@ -0,0 +1,12 @@
+package com.quickcamel.winnow.palindromes.rest.task;
+
+public class InvalidProblemException extends Exception {
+
+    public InvalidProblemException() {
+        super();
+    }
+
+    public InvalidProblemException(Exception sourceException) {
+        super(sourceException);
+    }
+}
@@ -0,0 +1,8 @@
+package com.quickcamel.winnow.palindromes.rest.task;
+
+public class NotIndexedException extends NotFoundException {
+
+    public NotIndexedException() {
+        super();
+    }
+}
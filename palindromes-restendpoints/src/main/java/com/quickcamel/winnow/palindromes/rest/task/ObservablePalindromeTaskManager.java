@@ -1,53 +1,194 @@
 package com.quickcamel.winnow.palindromes.rest.task;
 
+import com.quickcamel.winnow.palindromes.entities.ContentHash;
 import com.quickcamel.winnow.palindromes.entities.PalindromeTaskEntity;
 import com.quickcamel.winnow.palindromes.repositories.PalindromeTaskRepository;
+import com.quickcamel.winnow.palindromes.rest.dto.DistinctPalindrome;
+import com.quickcamel.winnow.palindromes.rest.dto.MaximalPalindrome;
 import com.quickcamel.winnow.palindromes.rest.dto.PalindromeTaskOutput;
 import com.quickcamel.winnow.palindromes.rest.dto.Problem;
+import com.quickcamel.winnow.palindromes.rest.dto.RangeSolution;
 import com.quickcamel.winnow.palindromes.rest.dto.Solution;
+import com.quickcamel.winnow.palindromes.rest.dto.Statistics;
 import com.quickcamel.winnow.palindromes.rest.dto.Timestamps;
+import com.quickcamel.winnow.palindromes.rest.index.PalindromeIndex;
+import com.quickcamel.winnow.palindromes.rest.index.PalindromeIndexCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
 
 @Service
 public class ObservablePalindromeTaskManager implements PalindromeTaskManager {
 
     private static final Logger logger = LoggerFactory.getLogger(ObservablePalindromeTaskManager.class);
 
+    // tasks for the same text looked at, each solved with different options
+    private static final int SOLVED_CANDIDATES = 10;
+
     private Collection<SubmissionObserver> submissionObservers;
     private PalindromeTaskRepository palindromeTaskRepository;
+    private PalindromeIndexCache palindromeIndexCache;
+    private TaskLanes taskLanes;
+    private boolean dedupe;
 
     ObservablePalindromeTaskManager(Collection<SubmissionObserver> submissionObservers,
-                                    PalindromeTaskRepository palindromeTaskRepository) {
+                                    PalindromeTaskRepository palindromeTaskRepository,
+                                    PalindromeIndexCache palindromeIndexCache,
+                                    TaskLanes taskLanes,
+                                    @Value("${palindrome.task.dedupe:false}") boolean dedupe) {
         this.submissionObservers = submissionObservers;
         this.palindromeTaskRepository = palindromeTaskRepository;
+        this.palindromeIndexCache = palindromeIndexCache;
+        this.taskLanes = taskLanes;
+        this.dedupe = dedupe;
     }
 
     @Override
-    public PalindromeTaskOutput submit(Problem problem) {
+    public PalindromeTaskOutput submit(Problem problem) throws InvalidProblemException {
         logger.debug("Submitted {}", problem);
 
-        PalindromeTaskEntity persistedTask = persistPalindromeTask(problem);
+        PalindromeTaskEntity task = adaptProblemToEntity(problem);
+        Optional<PalindromeTaskEntity> solved = dedupe ? findSolved(task) : Optional.empty();
+        if (solved.isPresent()) {
+            // completed at once, sharing the solution already found, so never sent to be parsed
+            PalindromeTaskEntity persistedTask = persistSolvedTask(task, solved.get());
+            return adaptEntityToDTO(persistedTask, solved.get());
+        }
+
+        PalindromeTaskEntity persistedTask = persistPalindromeTask(task);
+
+        notifySubmitted(persistedTask);
 
-        submissionObservers.forEach(submissionObserver -> submissionObserver.newTaskPersisted(persistedTask));
+        return adaptEntityToDTO(persistedTask, persistedTask);
+    }
 
-        return adaptEntityToDTO(persistedTask);
+    // classified by the text as submitted, or appended to, so a long text never holds up the short ones queued
+    private void notifySubmitted(PalindromeTaskEntity persistedTask) {
+        String lane = taskLanes.lane(persistedTask.getText());
+        logger.debug("Task {} submitted to lane {}", persistedTask.getTask(), lane);
+        submissionObservers.forEach(submissionObserver -> submissionObserver.newTaskPersisted(persistedTask, lane));
     }
 
-    private PalindromeTaskEntity persistPalindromeTask(Problem problem) {
-        PalindromeTaskEntity task = new PalindromeTaskEntity()
+    private PalindromeTaskEntity adaptProblemToEntity(Problem problem) throws InvalidProblemException {
+        return validateStatistics(validateAppendable(new PalindromeTaskEntity()
                 .withText(problem.getText())
-                .withSubmitted(System.currentTimeMillis())
+                .withMode(adaptMode(problem.getMode()))
+                .withMinLength(requirePositive(problem.getMinLength()))
+                .withResultLimit(requirePositive(problem.getLimit()))
+                .withNonOverlapping(problem.getNonOverlapping())
+                .withNormalizations(adaptNormalizations(problem.getNormalizations()))
+                .withAppendable(problem.getAppendable())
+                .withStatistics(problem.getStatistics())));
+    }
+
+    private PalindromeTaskEntity persistPalindromeTask(PalindromeTaskEntity task) {
+        task.withSubmitted(System.currentTimeMillis())
                 .withStatus(PalindromeTaskEntity.Status.SUBMITTED);
         task = palindromeTaskRepository.save(task);
         logger.debug("Persisted the following record : {}", task);
         return task;
     }
 
-    private PalindromeTaskOutput adaptEntityToDTO(PalindromeTaskEntity taskEntity) {
+    // a task for the same text and options, completed in full with a solution the service marked reusable,
+    // and indexed by it, unlike the tasks completed here with its solution
+    private Optional<PalindromeTaskEntity> findSolved(PalindromeTaskEntity task) {
+        if (task.getText() == null || Boolean.TRUE.equals(task.getAppendable())) {
+            return Optional.empty();
+        }
+        return palindromeTaskRepository.findByContentHash(ContentHash.of(task.getText()), SOLVED_CANDIDATES).stream()
+                .filter(solved -> solved.getStatus() == PalindromeTaskEntity.Status.COMPLETED
+                        && solved.getSolutionTask() == null
+                        && solved.getResultKey() != null
+                        && !Boolean.TRUE.equals(solved.getPartial())
+                        && task.getText().equals(solved.getText())
+                        && task.getMode() == solved.getMode()
+                        && Objects.equals(task.getMinLength(), solved.getMinLength())
+                        && Objects.equals(task.getResultLimit(), solved.getResultLimit())
+                        && Objects.equals(task.getNonOverlapping(), solved.getNonOverlapping())
+                        && Objects.equals(task.getNormalizations(), solved.getNormalizations())
+                        && Objects.equals(task.getStatistics(), solved.getStatistics()))
+                .findFirst();
+    }
+
+    private PalindromeTaskEntity persistSolvedTask(PalindromeTaskEntity task, PalindromeTaskEntity solved) {
+        long now = System.currentTimeMillis();
+        task.withSubmitted(now)
+                .withStarted(now)
+                .withCompleted(now)
+                .withStatus(PalindromeTaskEntity.Status.COMPLETED)
+                .withResultKey(solved.getResultKey())
+                .withSolutionTask(solved.getTask());
+        task = palindromeTaskRepository.save(task);
+        logger.debug("Persisted the following record, solved by {} : {}", solved.getTask(), task);
+        return task;
+    }
+
+    // appended text is parsed incrementally only for the longest or distinct palindromes, without normalization
+    private PalindromeTaskEntity validateAppendable(PalindromeTaskEntity task) throws InvalidProblemException {
+        if (Boolean.TRUE.equals(task.getAppendable())
+                && (task.getNormalizations() != null
+                || task.getMode() != null && task.getMode() != PalindromeTaskEntity.Mode.LONGEST
+                && task.getMode() != PalindromeTaskEntity.Mode.DISTINCT)) {
+            throw new InvalidProblemException();
+        }
+        return task;
+    }
+
+    // palindromes are counted as the longest or maximal palindromes are found
+    private PalindromeTaskEntity validateStatistics(PalindromeTaskEntity task) throws InvalidProblemException {
+        if (Boolean.TRUE.equals(task.getStatistics())
+                && (Boolean.TRUE.equals(task.getAppendable())
+                || task.getMode() != null && task.getMode() != PalindromeTaskEntity.Mode.LONGEST
+                && task.getMode() != PalindromeTaskEntity.Mode.MAXIMAL)) {
+            throw new InvalidProblemException();
+        }
+        return task;
+    }
+
+    private PalindromeTaskEntity.Mode adaptMode(String mode) throws InvalidProblemException {
+        if (mode == null) {
+            return null;
+        }
+        try {
+            return PalindromeTaskEntity.Mode.valueOf(mode.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidProblemException(e);
+        }
+    }
+
+    private Set<String> adaptNormalizations(List<String> normalizations) throws InvalidProblemException {
+        if (normalizations == null || normalizations.isEmpty()) {
+            return null;
+        }
+        Set<String> names = new TreeSet<>();
+        for (String normalization : normalizations) {
+            try {
+                names.add(PalindromeTaskEntity.Normalization.valueOf(normalization.toUpperCase()).name());
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new InvalidProblemException(e);
+            }
+        }
+        return names;
+    }
+
+    private Integer requirePositive(Integer value) throws InvalidProblemException {
+        if (value != null && value < 1) {
+            throw new InvalidProblemException();
+        }
+        return value;
+    }
+
+    // the solution is taken from the task it was found for, which may be another task for the same text
+    private PalindromeTaskOutput adaptEntityToDTO(PalindromeTaskEntity taskEntity, PalindromeTaskEntity solutionEntity) {
         PalindromeTaskOutput taskOutput = new PalindromeTaskOutput()
                 .withTask(taskEntity.getTask())
                 .withStatus(taskEntity.getStatus().name().toLowerCase())
@@ -56,23 +197,149 @@ public class ObservablePalindromeTaskManager implements PalindromeTaskManager {
                                 .withSubmitted(taskEntity.getSubmitted())
                                 .withStarted(taskEntity.getStarted())
                                 .withCompleted(taskEntity.getCompleted()))
+                .withProgress(progress(taskEntity))
+                .withEstimatedCompletion(estimatedCompletion(taskEntity))
                 .withProblem(
                         new Problem().
-                                withText(taskEntity.getText()));
-        if (taskEntity.getLargestPalindrome() != null) {
+                                withText(taskEntity.getText())
+                                .withMode(taskEntity.getMode() != null ? taskEntity.getMode().name().toLowerCase() : null)
+                                .withMinLength(taskEntity.getMinLength())
+                                .withLimit(taskEntity.getResultLimit())
+                                .withNonOverlapping(taskEntity.getNonOverlapping())
+                                .withNormalizations(taskEntity.getNormalizations() != null
+                                        ? taskEntity.getNormalizations().stream()
+                                        .map(String::toLowerCase)
+                                        .collect(Collectors.toList())
+                                        : null)
+                                .withAppendable(taskEntity.getAppendable())
+                                .withStatistics(taskEntity.getStatistics()));
+        if (solutionEntity.getLargestPalindrome() != null || solutionEntity.getDistinctPalindromes() != null
+                || solutionEntity.getMaximalPalindromes() != null) {
             taskOutput.withSolution(
                     new Solution()
-                            .withLargestPalindromeLength(taskEntity.getLargestPalindromeLength())
-                            .withLargestPalindrome(taskEntity.getLargestPalindrome()));
+                            .withLargestPalindromeLength(solutionEntity.getLargestPalindromeLength())
+                            .withLargestPalindrome(solutionEntity.getLargestPalindrome())
+                            .withStart(solutionEntity.getLargestPalindromeStart())
+                            .withEnd(solutionEntity.getLargestPalindromeEnd())
+                            .withPartial(solutionEntity.getPartial())
+                            .withPalindromes(adaptDistinctPalindromes(solutionEntity.getDistinctPalindromes()))
+                            .withMaximalPalindromes(adaptMaximalPalindromes(solutionEntity.getMaximalPalindromes())));
+        }
+        if (solutionEntity.getPalindromeStatistics() != null) {
+            PalindromeTaskEntity.Statistics statistics = solutionEntity.getPalindromeStatistics();
+            taskOutput.withStatistics(
+                    new Statistics()
+                            .withPalindromes(statistics.getPalindromes())
+                            .withLengthHistogram(statistics.getLengthHistogram())
+                            .withRegionLength(statistics.getRegionLength())
+                            .withDensities(statistics.getDensities()));
         }
         return taskOutput;
     }
 
+    private Double progress(PalindromeTaskEntity taskEntity) {
+        if (taskEntity.getStatus() == PalindromeTaskEntity.Status.COMPLETED) {
+            return 1.0;
+        }
+        return taskEntity.getProgress() != null ? taskEntity.getProgress() : 0.0;
+    }
+
+    // extrapolated from the time taken to parse as much as the service last reported, or unknown until it has
+    private Long estimatedCompletion(PalindromeTaskEntity taskEntity) {
+        if (taskEntity.getStatus() == PalindromeTaskEntity.Status.COMPLETED) {
+            return taskEntity.getCompleted();
+        }
+        if (taskEntity.getStarted() == null || taskEntity.getProgressed() == null
+                || taskEntity.getProgress() == null || taskEntity.getProgress() <= 0) {
+            return null;
+        }
+        long elapsed = taskEntity.getProgressed() - taskEntity.getStarted();
+        return taskEntity.getStarted() + Math.round(elapsed / taskEntity.getProgress());
+    }
+
+    private List<DistinctPalindrome> adaptDistinctPalindromes(List<PalindromeTaskEntity.DistinctPalindrome> distinctPalindromes) {
+        if (distinctPalindromes == null) {
+            return null;
+        }
+        return distinctPalindromes.stream()
+                .map(distinct -> new DistinctPalindrome()
+                        .withPalindrome(distinct.getPalindrome())
+                        .withOccurrences(distinct.getOccurrences()))
+                .collect(Collectors.toList());
+    }
+
+    private List<MaximalPalindrome> adaptMaximalPalindromes(List<PalindromeTaskEntity.MaximalPalindrome> maximalPalindromes) {
+        if (maximalPalindromes == null) {
+            return null;
+        }
+        return maximalPalindromes.stream()
+                .map(maximal -> new MaximalPalindrome()
+                        .withPalindrome(maximal.getPalindrome())
+                        .withStart(maximal.getStart())
+                        .withEnd(maximal.getEnd()))
+                .collect(Collectors.toList());
+    }
+
     @Override
     public PalindromeTaskOutput status(String taskId) throws NotFoundException {
         PalindromeTaskEntity task = palindromeTaskRepository.findById(taskId)
                 .orElseThrow(NotFoundException::new);
         logger.debug("Retrieved the following record : {}", task);
-        return adaptEntityToDTO(task);
+        PalindromeTaskEntity solutionTask = task.getSolutionTask() != null
+                ? palindromeTaskRepository.findById(task.getSolutionTask()).orElse(task)
+                : task;
+        return adaptEntityToDTO(task, solutionTask);
+    }
+
+    @Override
+    public PalindromeTaskOutput append(String taskId, String text)
+            throws NotFoundException, InvalidProblemException, ConflictException {
+        PalindromeTaskEntity task = palindromeTaskRepository.findById(taskId)
+                .orElseThrow(NotFoundException::new);
+        if (!Boolean.TRUE.equals(task.getAppendable()) || text == null) {
+            throw new InvalidProblemException();
+        }
+        Long submitted = task.getSubmitted();
+        PalindromeTaskEntity.Status status = task.getStatus();
+        // resubmitted for the service to parse the appended text, resuming from the state saved with the task,
+        // always later than last submitted so the next append can tell this one happened
+        task.setText(task.getText() + text);
+        task.setStatus(PalindromeTaskEntity.Status.SUBMITTED);
+        task.setSubmitted(Math.max(System.currentTimeMillis(), submitted != null ? submitted + 1 : 0));
+        task.setStarted(null);
+        task.setCompleted(null);
+        task.setProgress(null);
+        task.setProgressed(null);
+        // the task changed since it was read, by another append or by the service, is left for the client to retry
+        if (!palindromeTaskRepository.append(task, submitted, status)) {
+            logger.debug("Task {} changed while appending to it", taskId);
+            throw new ConflictException();
+        }
+        logger.debug("Appended {} characters to the following record : {}", text.length(), task);
+
+        notifySubmitted(task);
+
+        return adaptEntityToDTO(task, task);
+    }
+
+    @Override
+    public RangeSolution range(String taskId, int from, int to) throws NotFoundException, InvalidProblemException {
+        PalindromeTaskEntity task = palindromeTaskRepository.findById(taskId)
+                .orElseThrow(NotFoundException::new);
+        // a task sharing the solution of another is answered by that task's index
+        PalindromeIndex index = palindromeIndexCache.get(task.getSolutionTask() != null ? task.getSolutionTask() : taskId,
+                task.getText().length())
+                .orElseThrow(NotIndexedException::new);
+        if (from < 0 || from > to || to > index.length()) {
+            throw new InvalidProblemException();
+        }
+        int[] longest = index.longestWithin(from, to);
+        return new RangeSolution()
+                .withFrom((long) from)
+                .withTo((long) to)
+                .withLargestPalindromeLength(longest[1] - longest[0])
+                .withLargestPalindrome(task.getText().substring(longest[0], longest[1]).toLowerCase())
+                .withStart((long) longest[0])
+                .withEnd((long) longest[1]);
     }
-}
\ No newline at end of file
+}
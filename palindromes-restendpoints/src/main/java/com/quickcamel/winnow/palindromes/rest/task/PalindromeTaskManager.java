@@ -2,10 +2,16 @@ package com.quickcamel.winnow.palindromes.rest.task;
 
 import com.quickcamel.winnow.palindromes.rest.dto.PalindromeTaskOutput;
 import com.quickcamel.winnow.palindromes.rest.dto.Problem;
+import com.quickcamel.winnow.palindromes.rest.dto.RangeSolution;
 
 public interface PalindromeTaskManager {
 
-    PalindromeTaskOutput submit(Problem submission);
+    PalindromeTaskOutput submit(Problem submission) throws InvalidProblemException;
 
     PalindromeTaskOutput status(String taskId) throws NotFoundException;
+
+    PalindromeTaskOutput append(String taskId, String text)
+            throws NotFoundException, InvalidProblemException, ConflictException;
+
+    RangeSolution range(String taskId, int from, int to) throws NotFoundException, InvalidProblemException;
 }
\ No newline at end of file
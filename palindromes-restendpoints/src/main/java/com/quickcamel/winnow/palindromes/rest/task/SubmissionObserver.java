@@ -4,5 +4,6 @@ import com.quickcamel.winnow.palindromes.entities.PalindromeTaskEntity;
 
 @FunctionalInterface
 public interface SubmissionObserver {
-    void newTaskPersisted(PalindromeTaskEntity taskEntity);
+    // the lane is that the task's text was classified into by TaskLanes, or null without lanes
+    void newTaskPersisted(PalindromeTaskEntity taskEntity, String lane);
 }
@@ -0,0 +1,40 @@
+package com.quickcamel.winnow.palindromes.rest.task;
+
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Classifies tasks by the length of their text into the lanes named by {@code palindrome.task.lanes},
+ * each published to a destination of its own, so short texts are never queued behind long ones.
+ * <p>
+ * A task goes to the first lane whose {@code palindrome.task.lane.<name>.max-length} its text fits within,
+ * a lane without one taking texts of any length. Without lanes, every task goes to the one destination.
+ */
+@Component
+public class TaskLanes {
+
+    private final List<String> names = new ArrayList<>();
+    private final List<Long> maxLengths = new ArrayList<>();
+
+    public TaskLanes(Environment environment) {
+        for (String name : environment.getProperty("palindrome.task.lanes", String[].class, new String[0])) {
+            names.add(name.trim());
+            maxLengths.add(environment.getProperty("palindrome.task.lane." + name.trim() + ".max-length",
+                    Long.class, Long.MAX_VALUE));
+        }
+    }
+
+    // the lane of a text, or null without lanes, or should the text fit none of them
+    public String lane(String text) {
+        long length = text != null ? text.length() : 0;
+        for (int i = 0; i < names.size(); i++) {
+            if (length <= maxLengths.get(i)) {
+                return names.get(i);
+            }
+        }
+        return null;
+    }
+}
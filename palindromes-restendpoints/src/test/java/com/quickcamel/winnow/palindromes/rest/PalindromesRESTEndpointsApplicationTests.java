@@ -5,6 +5,8 @@ import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDBAsyncClientBuilder;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
 import com.amazonaws.services.dynamodbv2.model.CreateTableRequest;
+import com.amazonaws.services.dynamodbv2.model.Projection;
+import com.amazonaws.services.dynamodbv2.model.ProjectionType;
 import com.amazonaws.services.dynamodbv2.model.ProvisionedThroughput;
 import com.amazonaws.services.dynamodbv2.util.TableUtils;
 import com.amazonaws.services.sns.AmazonSNS;
@@ -14,6 +16,7 @@ import com.amazonaws.services.sqs.AmazonSQSAsyncClientBuilder;
 import com.amazonaws.services.sqs.model.Message;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jayway.jsonpath.JsonPath;
+import com.quickcamel.winnow.palindromes.entities.PalindromeIndexEntity;
 import com.quickcamel.winnow.palindromes.entities.PalindromeTaskEntity;
 import com.quickcamel.winnow.palindromes.repositories.PalindromeTaskRepository;
 import org.jetbrains.annotations.NotNull;
@@ -123,8 +126,15 @@ public class PalindromesRESTEndpointsApplicationTests {
         DynamoDBMapper dynamoDBMapper = new DynamoDBMapper(dynamoDB);
         CreateTableRequest tableRequest = dynamoDBMapper.generateCreateTableRequest(PalindromeTaskEntity.class);
         tableRequest.setProvisionedThroughput(new ProvisionedThroughput(1L, 1L));
+        tableRequest.getGlobalSecondaryIndexes().forEach(index -> index
+                .withProvisionedThroughput(new ProvisionedThroughput(1L, 1L))
+                .withProjection(new Projection().withProjectionType(ProjectionType.KEYS_ONLY)));
 
         TableUtils.createTableIfNotExists(dynamoDB, tableRequest);
+
+        CreateTableRequest indexTableRequest = dynamoDBMapper.generateCreateTableRequest(PalindromeIndexEntity.class);
+        indexTableRequest.setProvisionedThroughput(new ProvisionedThroughput(1L, 1L));
+        TableUtils.createTableIfNotExists(dynamoDB, indexTableRequest);
     }
 
     @BeforeEach
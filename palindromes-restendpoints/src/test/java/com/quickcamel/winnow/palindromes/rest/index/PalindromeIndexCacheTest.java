@@ -0,0 +1,75 @@
+package com.quickcamel.winnow.palindromes.rest.index;
+
+import com.quickcamel.winnow.palindromes.entities.PackedRadii;
+import com.quickcamel.winnow.palindromes.entities.PalindromeIndexEntity;
+import com.quickcamel.winnow.palindromes.repositories.PalindromeIndexRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PalindromeIndexCacheTest {
+
+    @Mock
+    private PalindromeIndexRepository repository;
+
+    private PalindromeIndexCache cache;
+
+    @BeforeEach
+    void setup() {
+        cache = new PalindromeIndexCache(repository, 16);
+    }
+
+    // the radius of the longest palindrome about each centre, found by expanding each in turn
+    private static Optional<PalindromeIndexEntity> indexed(String s) {
+        int[] radii = new int[s.length() * 2 + 1];
+        for (int centre = 0; centre < radii.length; centre++) {
+            int radius = centre & 1;
+            while ((centre - radius) / 2 > 0 && (centre + radius) / 2 < s.length()
+                    && s.charAt((centre - radius) / 2 - 1) == s.charAt((centre + radius) / 2)) {
+                radius += 2;
+            }
+            radii[centre] = radius;
+        }
+        return Optional.of(new PalindromeIndexEntity()
+                .withTask("task")
+                .withLength(s.length())
+                .withRadii(PackedRadii.pack(radii)));
+    }
+
+    @Test
+    void shouldKeepIndexOfUnchangedText() {
+        when(repository.findById("task")).thenReturn(indexed("xabbay"));
+
+        cache.get("task", 6);
+        Optional<PalindromeIndex> index = cache.get("task", 6);
+
+        assertThat(index).map(found -> found.longestWithin(0, 6)).contains(new int[]{1, 5});
+        verify(repository, times(1)).findById("task");
+    }
+
+    @Test
+    void shouldLoadIndexAgainOnceAppendedTextIsIndexed() {
+        when(repository.findById("task")).thenReturn(indexed("xabbay"), indexed("xabbay"),
+                indexed("xabbay racecar"));
+        assertThat(cache.get("task", 6)).isPresent();
+
+        // appended to, but not yet indexed again
+        assertThat(cache.get("task", 14)).isEmpty();
+        Optional<PalindromeIndex> index = cache.get("task", 14);
+
+        assertThat(index).map(PalindromeIndex::length).contains(14);
+        assertThat(index).map(found -> found.longestWithin(6, 14)).contains(new int[]{7, 14});
+        assertThat(cache.get("task", 14).get()).isSameAs(index.get());
+        verify(repository, times(3)).findById("task");
+    }
+}
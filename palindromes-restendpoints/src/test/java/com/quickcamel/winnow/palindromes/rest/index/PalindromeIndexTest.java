@@ -0,0 +1,87 @@
+package com.quickcamel.winnow.palindromes.rest.index;
+
+import com.quickcamel.winnow.palindromes.entities.PackedRadii;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PalindromeIndexTest {
+
+    // the radius of the longest palindrome about each centre, found by expanding each in turn
+    private static int[] radii(String s) {
+        int[] radii = new int[s.length() * 2 + 1];
+        for (int centre = 0; centre < radii.length; centre++) {
+            int radius = centre & 1;
+            while ((centre - radius) / 2 > 0 && (centre + radius) / 2 < s.length()
+                    && s.charAt((centre - radius) / 2 - 1) == s.charAt((centre + radius) / 2)) {
+                radius += 2;
+            }
+            radii[centre] = radius;
+        }
+        return radii;
+    }
+
+    private static boolean isPalindrome(String s, int start, int end) {
+        for (int i = start, j = end - 1; i < j; i++, j--) {
+            if (s.charAt(i) != s.charAt(j)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int longestWithin(String s, int from, int to) {
+        for (int length = to - from; length > 0; length--) {
+            for (int start = from; start + length <= to; start++) {
+                if (isPalindrome(s, start, start + length)) {
+                    return length;
+                }
+            }
+        }
+        return 0;
+    }
+
+    @Test
+    void shouldFindLongestPalindromeWithinEveryRange() {
+        Random random = new Random(15);
+        for (int run = 0; run < 20; run++) {
+            StringBuilder text = new StringBuilder();
+            // long enough to span several blocks of the sparse table
+            for (int i = 0; i < 300; i++) {
+                text.append("ab".charAt(random.nextInt(2)));
+            }
+            String s = text.toString();
+            PalindromeIndex index = new PalindromeIndex(radii(s));
+            for (int query = 0; query < 100; query++) {
+                int from = random.nextInt(s.length() + 1);
+                int to = from + random.nextInt(s.length() - from + 1);
+
+                int[] longest = index.longestWithin(from, to);
+
+                assertThat(longest[1] - longest[0]).as("%s from %d to %d", s, from, to)
+                        .isEqualTo(longestWithin(s, from, to));
+                assertThat(longest[0]).isGreaterThanOrEqualTo(from);
+                assertThat(longest[1]).isLessThanOrEqualTo(to);
+                assertThat(isPalindrome(s, longest[0], longest[1])).isTrue();
+            }
+        }
+    }
+
+    @Test
+    void shouldFindNothingWithinEmptyRange() {
+        PalindromeIndex index = new PalindromeIndex(radii("abba"));
+
+        assertThat(index.longestWithin(2, 2)).containsExactly(2, 2);
+        assertThat(new PalindromeIndex(radii("")).longestWithin(0, 0)).containsExactly(0, 0);
+    }
+
+    @Test
+    void shouldUnpackRadiiAsPacked() {
+        int[] radii = radii("abacabadabacaba and some more text, abba");
+
+        assertThat(PackedRadii.unpack(PackedRadii.pack(radii))).containsExactly(radii);
+        assertThat(new PalindromeIndex(PackedRadii.unpack(PackedRadii.pack(radii))).length()).isEqualTo(40);
+    }
+}
@@ -1,19 +1,34 @@
 package com.quickcamel.winnow.palindromes.rest.task;
 
+import com.quickcamel.winnow.palindromes.entities.ContentHash;
 import com.quickcamel.winnow.palindromes.entities.PalindromeTaskEntity;
 import com.quickcamel.winnow.palindromes.repositories.PalindromeTaskRepository;
+import com.quickcamel.winnow.palindromes.rest.dto.PalindromeTaskOutput;
 import com.quickcamel.winnow.palindromes.rest.dto.Problem;
+import com.quickcamel.winnow.palindromes.rest.dto.RangeSolution;
+import com.quickcamel.winnow.palindromes.rest.index.PalindromeIndex;
+import com.quickcamel.winnow.palindromes.rest.index.PalindromeIndexCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.env.MockEnvironment;
 
 import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -25,18 +40,20 @@ class ObservablePalindromeTaskManagerTest {
 
     @Mock
     private PalindromeTaskRepository repository;
+    @Mock
+    private PalindromeIndexCache indexCache;
     private ObservablePalindromeTaskManager observablePalindromeTaskManager;
 
     @BeforeEach
     void setup() {
-        when(repository.save(any()))
+        lenient().when(repository.save(any()))
                 .thenReturn(new PalindromeTaskEntity().withStatus(PalindromeTaskEntity.Status.SUBMITTED));
         observablePalindromeTaskManager =
-                new ObservablePalindromeTaskManager(Collections.singletonList(submissionObserver), repository);
+                new ObservablePalindromeTaskManager(Collections.singletonList(submissionObserver), repository, indexCache, new TaskLanes(new MockEnvironment()), false);
     }
 
     @Test
-    void shouldPersistSubmittedProblem() {
+    void shouldPersistSubmittedProblem() throws InvalidProblemException {
         String text = "Can't claim to be a wordsmith and misspell palindrome in the same sentence!";
 
         assertThat(observablePalindromeTaskManager.submit(new Problem().withText(text)))
@@ -46,9 +63,280 @@ class ObservablePalindromeTaskManagerTest {
     }
 
     @Test
-    void shouldSendTaskToObservers() {
+    void shouldSendTaskToObservers() throws InvalidProblemException {
         observablePalindromeTaskManager.submit(new Problem().withText("hi"));
 
-        verify(submissionObserver).newTaskPersisted(argThat(argument -> argument.getStatus().equals(PalindromeTaskEntity.Status.SUBMITTED)));
+        verify(submissionObserver).newTaskPersisted(argThat(argument -> argument.getStatus().equals(PalindromeTaskEntity.Status.SUBMITTED)), isNull());
+    }
+
+    @Test
+    void shouldSendTaskToLaneForLengthOfItsText() throws InvalidProblemException {
+        observablePalindromeTaskManager = new ObservablePalindromeTaskManager(Collections.singletonList(submissionObserver),
+                repository, indexCache, new TaskLanes(new MockEnvironment()
+                .withProperty("palindrome.task.lanes", "small,medium,large")
+                .withProperty("palindrome.task.lane.small.max-length", "4")
+                .withProperty("palindrome.task.lane.medium.max-length", "8")), false);
+        when(repository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        observablePalindromeTaskManager.submit(new Problem().withText("abba"));
+        observablePalindromeTaskManager.submit(new Problem().withText("abbaabba"));
+        observablePalindromeTaskManager.submit(new Problem().withText("abbaabbaa"));
+
+        verify(submissionObserver).newTaskPersisted(argThat(argument -> argument.getText().equals("abba")), eq("small"));
+        verify(submissionObserver).newTaskPersisted(argThat(argument -> argument.getText().equals("abbaabba")), eq("medium"));
+        verify(submissionObserver).newTaskPersisted(argThat(argument -> argument.getText().equals("abbaabbaa")), eq("large"));
+    }
+
+    @Test
+    void shouldPersistDistinctModeOptions() throws InvalidProblemException {
+        observablePalindromeTaskManager.submit(new Problem().withText("abba").withMode("distinct").withMinLength(2).withLimit(10));
+
+        verify(repository).save(argThat(argument -> argument.getMode() == PalindromeTaskEntity.Mode.DISTINCT
+                && argument.getMinLength() == 2
+                && argument.getResultLimit() == 10));
+    }
+
+    @Test
+    void shouldRejectUnknownMode() {
+        assertThrows(InvalidProblemException.class, () ->
+                observablePalindromeTaskManager.submit(new Problem().withText("abba").withMode("shortest")));
+    }
+
+    @Test
+    void shouldPersistNormalizations() throws InvalidProblemException {
+        observablePalindromeTaskManager.submit(new Problem().withText("Step on no pets!")
+                .withNormalizations(List.of("case", "Punctuation", "whitespace")));
+
+        verify(repository).save(argThat(argument -> argument.getNormalizations()
+                .equals(Set.of("CASE", "PUNCTUATION", "WHITESPACE"))));
+    }
+
+    @Test
+    void shouldRejectUnknownNormalization() {
+        assertThrows(InvalidProblemException.class, () ->
+                observablePalindromeTaskManager.submit(new Problem().withText("abba").withNormalizations(List.of("vowels"))));
+    }
+
+    @Test
+    void shouldRejectAppendableMaximalMode() {
+        assertThrows(InvalidProblemException.class, () ->
+                observablePalindromeTaskManager.submit(new Problem().withText("abba").withMode("maximal").withAppendable(true)));
+    }
+
+    @Test
+    void shouldResubmitTaskWithAppendedText() throws NotFoundException, InvalidProblemException, ConflictException {
+        when(repository.findById("task")).thenReturn(Optional.of(appendableTask()));
+        when(repository.append(any(), eq(1L), eq(PalindromeTaskEntity.Status.COMPLETED))).thenReturn(true);
+
+        PalindromeTaskOutput output = observablePalindromeTaskManager.append("task", " or a cat I saw");
+
+        assertThat(output.getStatus()).isEqualTo("submitted");
+        verify(repository).append(argThat(argument -> argument.getText().equals("Was it a car or a cat I saw")
+                && argument.getStatus() == PalindromeTaskEntity.Status.SUBMITTED
+                && argument.getSubmitted() > 1L
+                && argument.getStarted() == null
+                && argument.getCompleted() == null), eq(1L), eq(PalindromeTaskEntity.Status.COMPLETED));
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void shouldRejectAppendToTaskChangedSinceRead() {
+        when(repository.findById("task")).thenReturn(Optional.of(appendableTask()));
+        when(repository.append(any(), eq(1L), eq(PalindromeTaskEntity.Status.COMPLETED))).thenReturn(false);
+
+        assertThrows(ConflictException.class, () -> observablePalindromeTaskManager.append("task", " or a cat"));
+        verify(submissionObserver, never()).newTaskPersisted(any(), any());
+    }
+
+    @Test
+    void shouldNotAppendToTaskNotSubmittedAsAppendable() {
+        when(repository.findById("task")).thenReturn(Optional.of(new PalindromeTaskEntity()
+                .withTask("task")
+                .withText("Was it a car")
+                .withStatus(PalindromeTaskEntity.Status.COMPLETED)));
+
+        assertThrows(InvalidProblemException.class, () -> observablePalindromeTaskManager.append("task", " or a cat"));
+    }
+
+    private PalindromeTaskEntity appendableTask() {
+        return new PalindromeTaskEntity()
+                .withTask("task")
+                .withText("Was it a car")
+                .withAppendable(true)
+                .withStatus(PalindromeTaskEntity.Status.COMPLETED)
+                .withSubmitted(1L)
+                .withStarted(2L)
+                .withCompleted(3L);
+    }
+
+    private PalindromeTaskEntity solvedTask(String text) {
+        return new PalindromeTaskEntity()
+                .withTask("solved")
+                .withText(text)
+                .withContentHash(ContentHash.of(text))
+                .withStatus(PalindromeTaskEntity.Status.COMPLETED)
+                .withResultKey("manacher:1|LONGEST|1|100|false|[]")
+                .withLargestPalindromeLength(4)
+                .withLargestPalindrome("abba")
+                .withLargestPalindromeStart(0L)
+                .withLargestPalindromeEnd(4L);
+    }
+
+    @Test
+    void shouldCompleteTaskForTextAlreadySolvedWhenDeduplicating() throws InvalidProblemException {
+        observablePalindromeTaskManager =
+                new ObservablePalindromeTaskManager(Collections.singletonList(submissionObserver), repository, indexCache, new TaskLanes(new MockEnvironment()), true);
+        when(repository.findByContentHash(eq(ContentHash.of("abba")), anyInt())).thenReturn(List.of(solvedTask("abba")));
+        when(repository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        PalindromeTaskOutput output = observablePalindromeTaskManager.submit(new Problem().withText("abba"));
+
+        assertThat(output.getStatus()).isEqualTo("completed");
+        assertThat(output.getSolution().getLargestPalindrome()).isEqualTo("abba");
+        verify(repository).save(argThat(argument -> argument.getStatus() == PalindromeTaskEntity.Status.COMPLETED
+                && "solved".equals(argument.getSolutionTask())
+                && argument.getContentHash() == null));
+        verify(submissionObserver, never()).newTaskPersisted(any(), any());
+    }
+
+    @Test
+    void shouldSubmitTaskForTextSolvedWithOtherOptionsWhenDeduplicating() throws InvalidProblemException {
+        observablePalindromeTaskManager =
+                new ObservablePalindromeTaskManager(Collections.singletonList(submissionObserver), repository, indexCache, new TaskLanes(new MockEnvironment()), true);
+        when(repository.findByContentHash(eq(ContentHash.of("abba")), anyInt())).thenReturn(List.of(solvedTask("abba")));
+
+        observablePalindromeTaskManager.submit(new Problem().withText("abba").withMode("distinct"));
+
+        verify(submissionObserver).newTaskPersisted(any(), any());
+        verify(repository).save(argThat(argument -> argument.getContentHash() == null
+                && argument.getSolutionTask() == null));
+    }
+
+    @Test
+    void shouldReportSolutionOfTaskSharingIt() throws NotFoundException {
+        when(repository.findById("task")).thenReturn(Optional.of(new PalindromeTaskEntity()
+                .withTask("task")
+                .withText("abba")
+                .withStatus(PalindromeTaskEntity.Status.COMPLETED)
+                .withSolutionTask("solved")));
+        when(repository.findById("solved")).thenReturn(Optional.of(solvedTask("abba")));
+
+        PalindromeTaskOutput output = observablePalindromeTaskManager.status("task");
+
+        assertThat(output.getTask()).isEqualTo("task");
+        assertThat(output.getSolution().getLargestPalindrome()).isEqualTo("abba");
+    }
+
+    @Test
+    void shouldFindLongestPalindromeWithinRangeFromIndex() throws NotFoundException, InvalidProblemException {
+        when(repository.findById("task")).thenReturn(Optional.of(new PalindromeTaskEntity()
+                .withTask("task")
+                .withText("xAbax racecar")));
+        when(indexCache.get(eq("task"), anyInt())).thenReturn(Optional.of(new PalindromeIndex(radii("xAbax racecar"))));
+
+        RangeSolution range = observablePalindromeTaskManager.range("task", 0, 11);
+
+        assertThat(range.getLargestPalindrome()).isEqualTo("xabax");
+        assertThat(range.getStart()).isEqualTo(0L);
+        assertThat(range.getEnd()).isEqualTo(5L);
+        assertThat(observablePalindromeTaskManager.range("task", 3, 13).getLargestPalindrome()).isEqualTo("racecar");
+    }
+
+    @Test
+    void shouldRejectRangeBeyondText() {
+        when(repository.findById("task")).thenReturn(Optional.of(new PalindromeTaskEntity()
+                .withTask("task")
+                .withText("aba")));
+        when(indexCache.get(eq("task"), anyInt())).thenReturn(Optional.of(new PalindromeIndex(radii("aba"))));
+
+        assertThrows(InvalidProblemException.class, () -> observablePalindromeTaskManager.range("task", 1, 4));
+    }
+
+    @Test
+    void shouldNotFindRangeOfTaskNotIndexed() {
+        when(repository.findById("task")).thenReturn(Optional.of(new PalindromeTaskEntity()
+                .withTask("task")
+                .withText("aba")));
+        when(indexCache.get(eq("task"), anyInt())).thenReturn(Optional.empty());
+
+        assertThrows(NotIndexedException.class, () -> observablePalindromeTaskManager.range("task", 0, 3));
+    }
+
+    @Test
+    void shouldRejectStatisticsForDistinctMode() {
+        assertThrows(InvalidProblemException.class, () -> observablePalindromeTaskManager.submit(
+                new Problem().withText("abba").withMode("distinct").withStatistics(true)));
+    }
+
+    @Test
+    void shouldReportStatisticsOfCompletedTask() throws NotFoundException {
+        when(repository.findById("task")).thenReturn(Optional.of(new PalindromeTaskEntity()
+                .withTask("task")
+                .withText("abba")
+                .withStatistics(true)
+                .withStatus(PalindromeTaskEntity.Status.COMPLETED)
+                .withLargestPalindromeLength(4)
+                .withLargestPalindrome("abba")
+                .withPalindromeStatistics(new PalindromeTaskEntity.Statistics()
+                        .withPalindromes(6L)
+                        .withLengthHistogram(List.of(4L, 1L, 1L))
+                        .withRegionLength(1)
+                        .withDensities(List.of(0.0, 2.0, 0.0, 0.0)))));
+
+        PalindromeTaskOutput output = observablePalindromeTaskManager.status("task");
+
+        assertThat(output.getProblem().getStatistics()).isTrue();
+        assertThat(output.getStatistics().getPalindromes()).isEqualTo(6L);
+        assertThat(output.getStatistics().getLengthHistogram()).containsExactly(4L, 1L, 1L);
+    }
+
+    @Test
+    void shouldReportProgressAndEstimatedCompletionOfStartedTask() throws NotFoundException {
+        when(repository.findById("task")).thenReturn(Optional.of(new PalindromeTaskEntity()
+                .withTask("task")
+                .withText("abba")
+                .withStatus(PalindromeTaskEntity.Status.STARTED)
+                .withStarted(1000L)
+                .withProgress(0.25)
+                .withProgressed(2000L)
+                .withPartial(true)
+                .withLargestPalindromeLength(2)
+                .withLargestPalindrome("bb")));
+
+        PalindromeTaskOutput output = observablePalindromeTaskManager.status("task");
+
+        assertThat(output.getProgress()).isEqualTo(0.25);
+        assertThat(output.getEstimatedCompletion()).isEqualTo(5000L);
+        assertThat(output.getSolution().getLargestPalindrome()).isEqualTo("bb");
+        assertThat(output.getSolution().getPartial()).isTrue();
+    }
+
+    @Test
+    void shouldReportNoEstimateBeforeProgress() throws NotFoundException {
+        when(repository.findById("task")).thenReturn(Optional.of(new PalindromeTaskEntity()
+                .withTask("task")
+                .withText("abba")
+                .withStatus(PalindromeTaskEntity.Status.STARTED)
+                .withStarted(1000L)));
+
+        PalindromeTaskOutput output = observablePalindromeTaskManager.status("task");
+
+        assertThat(output.getProgress()).isEqualTo(0.0);
+        assertThat(output.getEstimatedCompletion()).isNull();
+    }
+
+    // the radius of the longest palindrome about each centre, found by expanding each in turn
+    private static int[] radii(String text) {
+        String s = text.toLowerCase();
+        int[] radii = new int[s.length() * 2 + 1];
+        for (int centre = 0; centre < radii.length; centre++) {
+            int radius = centre & 1;
+            while ((centre - radius) / 2 > 0 && (centre + radius) / 2 < s.length()
+                    && s.charAt((centre - radius) / 2 - 1) == s.charAt((centre + radius) / 2)) {
+                radius += 2;
+            }
+            radii[centre] = radius;
+        }
+        return radii;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,310 @@
+package com.quickcamel.winnow.palindromes.service.cache;
+
+import com.quickcamel.winnow.palindromes.entities.ContentHash;
+import com.quickcamel.winnow.palindromes.entities.PalindromeTaskEntity;
+import com.quickcamel.winnow.palindromes.repositories.PalindromeTaskRepository;
+import com.quickcamel.winnow.palindromes.service.parser.DistinctPalindrome;
+import com.quickcamel.winnow.palindromes.service.parser.MaximalPalindrome;
+import com.quickcamel.winnow.palindromes.service.parser.ParseOptions;
+import com.quickcamel.winnow.palindromes.service.parser.PalindromeSolution;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Solutions already found, keyed by a hash of the text, the parser and its version, and the options parsed with.
+ * <p>
+ * The most recently used solutions are held in memory up to a budget of bytes. Optionally, completed tasks
+ * for the same text are looked up too, by the content hash index. Tasks missing both for the same key at once
+ * share a single parse, and partial solutions are never kept, leaving them to be parsed in full.
+ */
+@Component
+public class SolutionCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(SolutionCache.class);
+
+    // rough sizes in bytes of a solution, and of each palindrome it lists, besides their chars
+    private static final int SOLUTION_OVERHEAD = 160;
+    private static final int PALINDROME_OVERHEAD = 72;
+    // completed tasks for the same text looked at, each solved with different options
+    private static final int PERSISTED_CANDIDATES = 10;
+
+    /**
+     * Identifies a solution, by the text it was found in and how it was found.
+     * <p>
+     * Keys are told apart by a SHA-256 digest of the text, taken once for each task, for a solution never to be
+     * reused for another text, and the content hash finding completed tasks for the text is taken from the digest.
+     */
+    public static final class Key {
+
+        private final String contentHash;
+        private final byte[] digest;
+        private final int length;
+        private final String resultKey;
+        // statistics are kept as reported, not as counted, so cannot be taken from completed tasks
+        private final boolean statistics;
+
+        private Key(String contentHash, byte[] digest, int length, String resultKey, boolean statistics) {
+            this.contentHash = contentHash;
+            this.digest = digest;
+            this.length = length;
+            this.resultKey = resultKey;
+            this.statistics = statistics;
+        }
+
+        public String getContentHash() {
+            return contentHash;
+        }
+
+        public String getResultKey() {
+            return resultKey;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return length == key.length && Arrays.equals(digest, key.digest) && resultKey.equals(key.resultKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(contentHash, length, resultKey);
+        }
+
+        @Override
+        public String toString() {
+            return contentHash + "/" + resultKey;
+        }
+    }
+
+    private static final class Entry {
+
+        private final PalindromeSolution solution;
+        private final long bytes;
+        // how long the solution took to find, saved each time it is reused
+        private final long parseNanos;
+
+        private Entry(PalindromeSolution solution, long bytes, long parseNanos) {
+            this.solution = solution;
+            this.bytes = bytes;
+            this.parseNanos = parseNanos;
+        }
+    }
+
+    private final PalindromeTaskRepository repository;
+    private final MeterRegistry meterRegistry;
+    private final String parserVersion;
+    private final long maxBytes;
+    private final boolean persisted;
+
+    // least recently used first
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+    private final Map<Key, CompletableFuture<PalindromeSolution>> inFlight = new ConcurrentHashMap<>();
+    private final Counter timeSaved;
+
+    public SolutionCache(PalindromeTaskRepository repository,
+                         MeterRegistry meterRegistry,
+                         @Value("${palindrome.service.parser:adaptive}") String parserName,
+                         @Value("${palindrome.service.cache.parser-version:1}") String parserVersion,
+                         @Value("${palindrome.service.cache.max-bytes:67108864}") long maxBytes,
+                         @Value("${palindrome.service.cache.persisted:false}") boolean persisted) {
+        this.repository = repository;
+        this.meterRegistry = meterRegistry;
+        this.parserVersion = parserName + ":" + parserVersion;
+        this.maxBytes = maxBytes;
+        this.persisted = persisted;
+        this.timeSaved = Counter.builder("palindrome.cache.time.saved")
+                .description("Parse time saved by reusing solutions")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        meterRegistry.gauge("palindrome.cache.size", this, cache -> cache.size());
+        meterRegistry.gauge("palindrome.cache.entries", this, cache -> cache.count());
+    }
+
+    public Key key(String text, ParseOptions options) {
+        byte[] digest = ContentHash.digest(text);
+        return new Key(ContentHash.of(digest), digest, text.length(), parserVersion + "|" + options.getMode()
+                + "|" + options.getMinLength()
+                + "|" + options.getLimit()
+                + "|" + options.isNonOverlapping()
+                + "|" + new TreeSet<>(options.getNormalizations())
+                + "|" + options.isStatistics(), options.isStatistics());
+    }
+
+    /**
+     * The solution for the key, found already, being found by another task, or else found by the parse given.
+     */
+    public PalindromeSolution solve(Key key, String text, Supplier<PalindromeSolution> parse) {
+        Optional<PalindromeSolution> cached = fromMemory(key);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        CompletableFuture<PalindromeSolution> flight = new CompletableFuture<>();
+        CompletableFuture<PalindromeSolution> shared = inFlight.putIfAbsent(key, flight);
+        if (shared != null) {
+            return fromFlight(key, shared).orElseGet(() -> miss(key, parse));
+        }
+        try {
+            // another task may have finished the parse between looking in memory and taking the flight
+            PalindromeSolution solution = fromMemory(key)
+                    .or(() -> persisted && !key.statistics ? fromRepository(key, text) : Optional.empty())
+                    .orElseGet(() -> miss(key, parse));
+            flight.complete(solution);
+            return solution;
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private Optional<PalindromeSolution> fromMemory(Key key) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+        }
+        if (entry == null) {
+            return Optional.empty();
+        }
+        hit("memory", entry.parseNanos);
+        return Optional.of(entry.solution);
+    }
+
+    // a solution shared by the task parsing it, unless that parse stopped short or failed
+    private Optional<PalindromeSolution> fromFlight(Key key, CompletableFuture<PalindromeSolution> flight) {
+        logger.debug("Awaiting solution {} being found by another task", key);
+        try {
+            PalindromeSolution solution = flight.join();
+            if (!solution.isPartial()) {
+                meterRegistry.counter("palindrome.cache.requests", "result", "hit", "tier", "shared").increment();
+                return Optional.of(solution);
+            }
+        } catch (CompletionException e) {
+            logger.debug("Shared parse of {} failed, parsing again", key, e.getCause());
+        }
+        return Optional.empty();
+    }
+
+    // a completed task for the same text, parsed the same way
+    private Optional<PalindromeSolution> fromRepository(Key key, String text) {
+        return repository.findByContentHash(key.getContentHash(), PERSISTED_CANDIDATES).stream()
+                .filter(entity -> entity.getStatus() == PalindromeTaskEntity.Status.COMPLETED
+                        && entity.getSolutionTask() == null
+                        && !Boolean.TRUE.equals(entity.getPartial())
+                        && key.getResultKey().equals(entity.getResultKey())
+                        && text.equals(entity.getText()))
+                .findFirst()
+                .map(entity -> {
+                    long parseNanos = entity.getStarted() != null && entity.getCompleted() != null
+                            ? (entity.getCompleted() - entity.getStarted()) * 1_000_000 : 0;
+                    PalindromeSolution solution = solution(entity);
+                    put(key, solution, parseNanos);
+                    hit("persisted", parseNanos);
+                    return solution;
+                });
+    }
+
+    private PalindromeSolution miss(Key key, Supplier<PalindromeSolution> parse) {
+        meterRegistry.counter("palindrome.cache.requests", "result", "miss", "tier", "none").increment();
+        long started = System.nanoTime();
+        PalindromeSolution solution = parse.get();
+        if (!solution.isPartial()) {
+            put(key, solution, System.nanoTime() - started);
+        }
+        return solution;
+    }
+
+    private void hit(String tier, long parseNanos) {
+        meterRegistry.counter("palindrome.cache.requests", "result", "hit", "tier", tier).increment();
+        timeSaved.increment(parseNanos / 1e9);
+    }
+
+    private synchronized void put(Key key, PalindromeSolution solution, long parseNanos) {
+        long size = bytes(solution);
+        if (size > maxBytes) {
+            return;
+        }
+        Entry replaced = entries.put(key, new Entry(solution, size, parseNanos));
+        bytes += size - (replaced != null ? replaced.bytes : 0);
+        Iterator<Entry> leastRecentlyUsed = entries.values().iterator();
+        while (bytes > maxBytes) {
+            bytes -= leastRecentlyUsed.next().bytes;
+            leastRecentlyUsed.remove();
+        }
+    }
+
+    private synchronized long size() {
+        return bytes;
+    }
+
+    private synchronized int count() {
+        return entries.size();
+    }
+
+    private static long bytes(PalindromeSolution solution) {
+        long size = SOLUTION_OVERHEAD + chars(solution.getLargestPalindrome());
+        if (solution.getDistinctPalindromes() != null) {
+            for (DistinctPalindrome distinct : solution.getDistinctPalindromes()) {
+                size += PALINDROME_OVERHEAD + chars(distinct.getPalindrome());
+            }
+        }
+        if (solution.getMaximalPalindromes() != null) {
+            for (MaximalPalindrome maximal : solution.getMaximalPalindromes()) {
+                size += PALINDROME_OVERHEAD + chars(maximal.getPalindrome());
+            }
+        }
+        if (solution.getStatistics() != null) {
+            size += SOLUTION_OVERHEAD + 8L * solution.getStatistics().getDensities().size();
+        }
+        if (solution.getPackedRadii() != null) {
+            size += solution.getPackedRadii().length;
+        }
+        return size;
+    }
+
+    private static long chars(String s) {
+        return s != null ? 2L * s.length() : 0;
+    }
+
+    private static PalindromeSolution solution(PalindromeTaskEntity entity) {
+        PalindromeSolution solution = entity.getLargestPalindromeLength() != null
+                ? new PalindromeSolution(entity.getLargestPalindromeLength(), entity.getLargestPalindrome(),
+                entity.getLargestPalindromeStart(), entity.getLargestPalindromeEnd())
+                : new PalindromeSolution(0, null);
+        if (entity.getDistinctPalindromes() != null) {
+            solution.withDistinctPalindromes(entity.getDistinctPalindromes().stream()
+                    .map(distinct -> new DistinctPalindrome(distinct.getPalindrome(), distinct.getOccurrences()))
+                    .collect(Collectors.toList()));
+        }
+        if (entity.getMaximalPalindromes() != null) {
+            solution.withMaximalPalindromes(entity.getMaximalPalindromes().stream()
+                    .map(maximal -> new MaximalPalindrome(maximal.getPalindrome(), maximal.getStart(), maximal.getEnd()))
+                    .collect(Collectors.toList()));
+        }
+        return solution;
+    }
+}
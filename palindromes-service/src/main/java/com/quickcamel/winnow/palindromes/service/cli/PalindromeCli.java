@@ -0,0 +1,174 @@
+package com.quickcamel.winnow.palindromes.service.cli;
+
+import ch.qos.logback.classic.Level;
+import com.quickcamel.winnow.palindromes.service.parser.FilePalindromeParser;
+import com.quickcamel.winnow.palindromes.service.parser.MappedManacherPalindromeParser;
+import com.quickcamel.winnow.palindromes.service.parser.ParseOptions;
+import com.quickcamel.winnow.palindromes.service.parser.PalindromeSolution;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Finds the longest palindrome in each of the files named, calling the parser directly without a Spring context,
+ * queue or table, for bulk jobs where the messaging path is pure overhead.
+ * <p>
+ * Files, or quoted globs such as {@code 'corpus/**.txt'}, are parsed in parallel across the processors available,
+ * each being written to standard output as a line of JSON as it completes.
+ * Files are mapped rather than read, by {@link MappedManacherPalindromeParser}, so may be of any size.
+ */
+public class PalindromeCli {
+
+    private static final String USAGE = "Usage: PalindromeCli [--threads n] [--temp-dir directory] file|glob...";
+    private static final String GLOB_CHARS = "*?[{";
+    private static final int MAX_PALINDROME = 16777216;
+    private static final int REGION_BITS = 30;
+
+    public static void main(String[] args) {
+        // logging defaults to debug on standard output without Spring to configure it, mixing with the results
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+        PrintStream out = new PrintStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)),
+                false, StandardCharsets.UTF_8);
+        int status = run(args, out, System.err);
+        out.flush();
+        System.exit(status);
+    }
+
+    // the exit status, 0 when every file was parsed, 1 when any failed, 2 when the arguments were not understood
+    static int run(String[] args, PrintStream out, PrintStream err) {
+        int threads = Runtime.getRuntime().availableProcessors();
+        String tempDir = System.getProperty("java.io.tmpdir");
+        List<String> patterns = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--threads")) {
+                    threads = Integer.parseInt(args[++i]);
+                } else if (args[i].equals("--temp-dir")) {
+                    tempDir = args[++i];
+                } else {
+                    patterns.add(args[i]);
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            patterns.clear();
+        }
+        if (patterns.isEmpty() || threads < 1) {
+            err.println(USAGE);
+            return 2;
+        }
+
+        List<Path> files = new ArrayList<>();
+        for (String pattern : patterns) {
+            try {
+                files.addAll(expand(pattern));
+            } catch (IOException e) {
+                err.println("Cannot list " + pattern + " : " + e);
+                return 2;
+            }
+        }
+
+        FilePalindromeParser parser = new MappedManacherPalindromeParser(tempDir, MAX_PALINDROME, REGION_BITS);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, Math.max(files.size(), 1)));
+        try {
+            List<Future<Boolean>> results = new ArrayList<>(files.size());
+            for (Path file : files) {
+                results.add(executor.submit(() -> parse(parser, file, out)));
+            }
+            boolean parsedAll = true;
+            for (Future<Boolean> result : results) {
+                parsedAll &= result.get();
+            }
+            return parsedAll ? 0 : 1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 1;
+        } catch (ExecutionException e) {
+            err.println("Parse failed : " + e.getCause());
+            return 1;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static boolean parse(FilePalindromeParser parser, Path file, PrintStream out) {
+        long started = System.nanoTime();
+        String line;
+        boolean parsed;
+        try {
+            PalindromeSolution solution = parser.parse(file, new ParseOptions());
+            line = "{\"file\":" + json(file.toString())
+                    + ",\"length\":" + (solution.getEnd() - solution.getStart())
+                    + ",\"palindrome\":" + json(solution.getLargestPalindrome())
+                    + ",\"start\":" + solution.getStart()
+                    + ",\"end\":" + solution.getEnd()
+                    + ",\"millis\":" + (System.nanoTime() - started) / 1_000_000 + "}";
+            parsed = true;
+        } catch (IOException | RuntimeException e) {
+            line = "{\"file\":" + json(file.toString()) + ",\"error\":" + json(e.toString()) + "}";
+            parsed = false;
+        }
+        synchronized (out) {
+            out.println(line);
+        }
+        return parsed;
+    }
+
+    // the file named, or those matching a glob, walking the directories below the glob's first fixed part
+    static List<Path> expand(String pattern) throws IOException {
+        int glob = -1;
+        for (int i = 0; i < pattern.length() && glob < 0; i++) {
+            if (GLOB_CHARS.indexOf(pattern.charAt(i)) >= 0) {
+                glob = i;
+            }
+        }
+        if (glob < 0) {
+            return List.of(Paths.get(pattern));
+        }
+        int separator = pattern.lastIndexOf('/', glob);
+        Path base = Paths.get(separator < 0 ? "." : separator == 0 ? "/" : pattern.substring(0, separator));
+        PathMatcher matcher = base.getFileSystem()
+                .getPathMatcher("glob:" + (separator < 0 ? pattern : pattern.substring(separator + 1)));
+        try (Stream<Path> paths = Files.walk(base)) {
+            return paths.filter(Files::isRegularFile)
+                    .filter(path -> matcher.matches(base.relativize(path)))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static String json(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder json = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        return json.append('"').toString();
+    }
+}
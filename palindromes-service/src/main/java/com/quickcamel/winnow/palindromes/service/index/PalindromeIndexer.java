@@ -0,0 +1,94 @@
+package com.quickcamel.winnow.palindromes.service.index;
+
+import com.quickcamel.winnow.palindromes.entities.PackedRadii;
+import com.quickcamel.winnow.palindromes.entities.PalindromeIndexEntity;
+import com.quickcamel.winnow.palindromes.entities.PalindromeTaskEntity;
+import com.quickcamel.winnow.palindromes.repositories.PalindromeIndexRepository;
+import com.quickcamel.winnow.palindromes.service.parser.ManacherPalindromeParser;
+import com.quickcamel.winnow.palindromes.service.parser.PalindromeSolution;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Saves the palindrome radii about every centre of a task's text as it completes,
+ * for questions of the text to be answered without parsing it again.
+ * <p>
+ * The radii are those the parse found, packed on the thread parsing the task and kept with its solution, so
+ * a solution reused for the same text brings its radii with it. Only where the parse kept none, as when it was
+ * reused from a completed task or found by a parser without Manacher's radii, is the text parsed again for them,
+ * unless the task is already indexed. Texts parsed with normalizations, or only in part, are not indexed,
+ * the index being of the whole text as it is, ignoring case.
+ */
+@Component
+public class PalindromeIndexer {
+
+    private static final Logger logger = LoggerFactory.getLogger(PalindromeIndexer.class);
+
+    private final PalindromeIndexRepository repository;
+    private final ManacherPalindromeParser manacher;
+    private final boolean enabled;
+    private final int maxBytes;
+
+    public PalindromeIndexer(PalindromeIndexRepository repository,
+                             ManacherPalindromeParser manacher,
+                             @Value("${palindrome.service.index.enabled:false}") boolean enabled,
+                             @Value("${palindrome.service.index.max-bytes:393216}") int maxBytes) {
+        this.repository = repository;
+        this.manacher = manacher;
+        this.enabled = enabled;
+        this.maxBytes = maxBytes;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // packs the radii kept by a parse in place, so the solution is kept small wherever it is reused
+    public void pack(PalindromeSolution solution) {
+        if (solution.getRadii() != null) {
+            solution.withPackedRadii(PackedRadii.pack(solution.getRadii())).withRadii(null);
+        }
+    }
+
+    /**
+     * The packed radii to index the task by, or null when it is not to be indexed.
+     */
+    public byte[] radii(PalindromeTaskEntity entity, PalindromeSolution solution) {
+        if (!enabled || entity.getText() == null) {
+            return null;
+        }
+        if (entity.getNormalizations() != null && !entity.getNormalizations().isEmpty() || solution.isPartial()) {
+            logger.debug("Not indexing task {}, parsed with normalizations or in part", entity.getTask());
+            return null;
+        }
+        byte[] radii = solution.getPackedRadii();
+        if (radii == null) {
+            // text appended to since it was indexed is indexed again
+            if (!Boolean.TRUE.equals(entity.getAppendable()) && repository.existsById(entity.getTask())) {
+                logger.debug("Task {} already indexed", entity.getTask());
+                return null;
+            }
+            radii = PackedRadii.pack(manacher.radii(entity.getText()));
+        }
+        // an item is limited to 400KB
+        if (radii.length > maxBytes) {
+            logger.info("Not indexing task {}, its {} bytes of radii exceed {}", entity.getTask(), radii.length, maxBytes);
+            return null;
+        }
+        return radii;
+    }
+
+    public void index(PalindromeTaskEntity entity, byte[] radii) {
+        if (radii == null) {
+            return;
+        }
+        repository.save(new PalindromeIndexEntity()
+                .withTask(entity.getTask())
+                .withCreated(System.currentTimeMillis())
+                .withLength(entity.getText().length())
+                .withRadii(radii));
+        logger.debug("Indexed task {} in {} bytes", entity.getTask(), radii.length);
+    }
+}
@@ -0,0 +1,169 @@
+package com.quickcamel.winnow.palindromes.service.listener;
+
+import com.amazonaws.services.sqs.AmazonSQSAsync;
+import com.amazonaws.services.sqs.model.Message;
+import com.amazonaws.services.sqs.model.ReceiveMessageRequest;
+import com.quickcamel.winnow.palindromes.service.task.PalindromeTaskProcessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.aws.core.env.ResourceIdResolver;
+import org.springframework.cloud.aws.messaging.support.destination.DynamicQueueUrlDestinationResolver;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Receives task submissions from a queue for each of the lanes named by {@code palindrome.service.lanes},
+ * in place of {@link PalindromeSubmissionListener}, each lane polled by threads of its own,
+ * so short tasks in one lane never wait on long tasks being parsed in another.
+ * <p>
+ * A lane's queue is {@code palindrome.service.queue} suffixed with the lane's name, unless
+ * {@code palindrome.service.lane.<name>.queue} is set, and is polled by {@code palindrome.service.lane.<name>.concurrency}
+ * threads, each receiving one message at a time. Messages are hidden for {@code palindrome.service.lane.<name>.visibility-timeout}
+ * seconds while their tasks are processed, or the queue's own timeout when unset, so a lane of long texts can be
+ * given longer to parse each than a lane of short ones. Each message is deleted once its task is processed.
+ * <p>
+ * Tasks are processed one at a time on each lane's threads, bypassing {@link PalindromeSubmissionPoller}'s batches
+ * and {@link PipelinedSubmissionListener}'s pipeline, which when enabled still serve only {@code palindrome.service.queue}.
+ */
+@Component
+@ConditionalOnProperty("palindrome.service.lanes")
+public class LaneSubmissionPollers implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(LaneSubmissionPollers.class);
+
+    private static final int WAIT_SECONDS = 20;
+    private static final long FAILURE_BACKOFF_MILLIS = 1000;
+
+    private final AmazonSQSAsync amazonSQS;
+    private final PalindromeTaskProcessor taskProcessor;
+    private final DynamicQueueUrlDestinationResolver destinationResolver;
+    private final List<Lane> lanes = new ArrayList<>();
+    private final List<Thread> pollers = new ArrayList<>();
+    private volatile boolean running;
+
+    public LaneSubmissionPollers(AmazonSQSAsync amazonSQS,
+                                 PalindromeTaskProcessor taskProcessor,
+                                 ObjectProvider<ResourceIdResolver> resourceIdResolver,
+                                 Environment environment,
+                                 @Value("${palindrome.service.queue:palindrome-service-queue}") String queue) {
+        this.amazonSQS = amazonSQS;
+        this.taskProcessor = taskProcessor;
+        this.destinationResolver = new DynamicQueueUrlDestinationResolver(amazonSQS,
+                resourceIdResolver.getIfAvailable());
+        for (String name : environment.getRequiredProperty("palindrome.service.lanes", String[].class)) {
+            String prefix = "palindrome.service.lane." + name.trim() + ".";
+            lanes.add(new Lane(name.trim(),
+                    environment.getProperty(prefix + "queue", queue + "-" + name.trim()),
+                    environment.getProperty(prefix + "concurrency", Integer.class, 1),
+                    environment.getProperty(prefix + "visibility-timeout", Integer.class, 0)));
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        for (Lane lane : lanes) {
+            for (int i = 1; i <= lane.concurrency; i++) {
+                Thread poller = new Thread(() -> poll(lane), "palindrome-lane-" + lane.name + "-" + i);
+                pollers.add(poller);
+                poller.start();
+            }
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        pollers.forEach(Thread::interrupt);
+        pollers.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    List<Lane> getLanes() {
+        return lanes;
+    }
+
+    private void poll(Lane lane) {
+        String queueUrl = destinationResolver.resolveDestination(lane.queue);
+        logger.info("Polling {} for tasks in lane {}", queueUrl, lane.name);
+        while (running) {
+            try {
+                receive(lane, queueUrl);
+            } catch (RuntimeException e) {
+                if (running) {
+                    logger.error("Failed to receive from {}", queueUrl, e);
+                    backOff();
+                }
+            }
+        }
+    }
+
+    // receives and processes a single task, leaving it to be redelivered should it fail
+    void receive(Lane lane, String queueUrl) {
+        ReceiveMessageRequest request = new ReceiveMessageRequest(queueUrl)
+                .withMaxNumberOfMessages(1)
+                .withWaitTimeSeconds(WAIT_SECONDS);
+        if (lane.visibilityTimeout > 0) {
+            request.setVisibilityTimeout(lane.visibilityTimeout);
+        }
+        for (Message message : amazonSQS.receiveMessage(request).getMessages()) {
+            String taskId = PalindromeSubmissionPoller.taskId(message.getBody());
+            try {
+                taskProcessor.processPalindromeTask(taskId);
+            } catch (RuntimeException e) {
+                logger.error("Task failed in lane {} : {}", lane.name, taskId, e);
+                continue;
+            }
+            amazonSQS.deleteMessage(queueUrl, message.getReceiptHandle());
+        }
+    }
+
+    private void backOff() {
+        try {
+            Thread.sleep(FAILURE_BACKOFF_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static final class Lane {
+        private final String name;
+        private final String queue;
+        private final int concurrency;
+        private final int visibilityTimeout;
+
+        Lane(String name, String queue, int concurrency, int visibilityTimeout) {
+            this.name = name;
+            this.queue = queue;
+            this.concurrency = concurrency;
+            this.visibilityTimeout = visibilityTimeout;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        String getQueue() {
+            return queue;
+        }
+
+        int getConcurrency() {
+            return concurrency;
+        }
+
+        int getVisibilityTimeout() {
+            return visibilityTimeout;
+        }
+    }
+}
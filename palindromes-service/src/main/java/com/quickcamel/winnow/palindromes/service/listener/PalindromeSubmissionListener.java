@@ -1,11 +1,16 @@
 package com.quickcamel.winnow.palindromes.service.listener;
 
 import com.quickcamel.winnow.palindromes.service.task.PalindromeTaskProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.cloud.aws.messaging.config.annotation.NotificationMessage;
 import org.springframework.cloud.aws.messaging.listener.annotation.SqsListener;
 import org.springframework.stereotype.Component;
 
+// replaced by PalindromeSubmissionPoller when tasks are processed in batches, PipelinedSubmissionListener,
+// or LaneSubmissionPollers when tasks are submitted to lanes
 @Component
+@ConditionalOnExpression("!${palindrome.service.batch.enabled:false} and !${palindrome.service.pipeline.enabled:false}"
+        + " and !${palindrome.service.virtual-threads.enabled:false} and '${palindrome.service.lanes:}' == ''")
 public class PalindromeSubmissionListener {
 
     private PalindromeTaskProcessor taskProcessor;
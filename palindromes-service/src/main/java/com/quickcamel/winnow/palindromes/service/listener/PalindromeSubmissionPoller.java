@@ -0,0 +1,145 @@
+package com.quickcamel.winnow.palindromes.service.listener;
+
+import com.amazonaws.services.sqs.AmazonSQSAsync;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchResult;
+import com.amazonaws.services.sqs.model.Message;
+import com.amazonaws.services.sqs.model.ReceiveMessageRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quickcamel.winnow.palindromes.service.task.PalindromeTaskProcessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.aws.core.env.ResourceIdResolver;
+import org.springframework.cloud.aws.messaging.support.destination.DynamicQueueUrlDestinationResolver;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Receives up to ten task submissions at a time, in place of {@link PalindromeSubmissionListener},
+ * so their tasks are loaded, parsed and saved as a batch.
+ * Each message is deleted once its own task is processed, leaving only those whose tasks failed to be redelivered.
+ */
+@Component
+@ConditionalOnProperty("palindrome.service.batch.enabled")
+public class PalindromeSubmissionPoller implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(PalindromeSubmissionPoller.class);
+
+    // the most SQS returns from one receive
+    private static final int MAX_MESSAGES = 10;
+    private static final long FAILURE_BACKOFF_MILLIS = 1000;
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final AmazonSQSAsync amazonSQS;
+    private final PalindromeTaskProcessor taskProcessor;
+    private final DynamicQueueUrlDestinationResolver destinationResolver;
+    private final String queue;
+    private final int waitSeconds;
+    private volatile boolean running;
+    private Thread poller;
+
+    public PalindromeSubmissionPoller(AmazonSQSAsync amazonSQS,
+                                      PalindromeTaskProcessor taskProcessor,
+                                      ObjectProvider<ResourceIdResolver> resourceIdResolver,
+                                      @Value("${palindrome.service.queue:palindrome-service-queue}") String queue,
+                                      @Value("${palindrome.service.batch.wait-seconds:20}") int waitSeconds) {
+        this.amazonSQS = amazonSQS;
+        this.taskProcessor = taskProcessor;
+        this.destinationResolver = new DynamicQueueUrlDestinationResolver(amazonSQS,
+                resourceIdResolver.getIfAvailable());
+        this.queue = queue;
+        this.waitSeconds = waitSeconds;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        poller = new Thread(this::poll, "palindrome-submission-poller");
+        poller.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        poller.interrupt();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void poll() {
+        String queueUrl = destinationResolver.resolveDestination(queue);
+        logger.info("Polling {} for batches of tasks", queueUrl);
+        while (running) {
+            try {
+                receive(queueUrl);
+            } catch (RuntimeException e) {
+                if (running) {
+                    logger.error("Failed to receive from {}", queueUrl, e);
+                    backOff();
+                }
+            }
+        }
+    }
+
+    // receives and processes a batch, deleting the messages of each task processed together
+    void receive(String queueUrl) {
+        List<Message> messages = amazonSQS.receiveMessage(new ReceiveMessageRequest(queueUrl)
+                .withMaxNumberOfMessages(MAX_MESSAGES)
+                .withWaitTimeSeconds(waitSeconds))
+                .getMessages();
+        if (messages.isEmpty()) {
+            return;
+        }
+        // a task may be submitted more than once, each of its messages being deleted once it is processed
+        Map<String, List<Message>> taskMessages = new LinkedHashMap<>();
+        messages.forEach(message -> taskMessages.computeIfAbsent(taskId(message.getBody()), taskId -> new ArrayList<>())
+                .add(message));
+
+        List<DeleteMessageBatchRequestEntry> processed = new ArrayList<>();
+        for (String taskId : taskProcessor.processPalindromeTasks(new ArrayList<>(taskMessages.keySet()))) {
+            for (Message message : taskMessages.get(taskId)) {
+                processed.add(new DeleteMessageBatchRequestEntry(String.valueOf(processed.size()),
+                        message.getReceiptHandle()));
+            }
+        }
+        logger.debug("Processed {} of {} messages", processed.size(), messages.size());
+        if (!processed.isEmpty()) {
+            DeleteMessageBatchResult result = amazonSQS.deleteMessageBatch(queueUrl, processed);
+            result.getFailed().forEach(failed -> logger.warn("Message not deleted : {}", failed.getMessage()));
+        }
+    }
+
+    // the task id, from within the notification carrying it when published through SNS, as @NotificationMessage
+    static String taskId(String body) {
+        try {
+            JsonNode message = OBJECT_MAPPER.readTree(body).get("Message");
+            if (message != null) {
+                return message.asText();
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.trace("Message is not a notification : {}", body);
+        }
+        return body;
+    }
+
+    private void backOff() {
+        try {
+            Thread.sleep(FAILURE_BACKOFF_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
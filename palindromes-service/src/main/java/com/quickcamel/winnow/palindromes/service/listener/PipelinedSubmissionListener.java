@@ -0,0 +1,30 @@
+package com.quickcamel.winnow.palindromes.service.listener;
+
+import com.quickcamel.winnow.palindromes.service.task.PalindromeTaskPipeline;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.cloud.aws.messaging.config.annotation.NotificationMessage;
+import org.springframework.cloud.aws.messaging.listener.Acknowledgment;
+import org.springframework.cloud.aws.messaging.listener.SqsMessageDeletionPolicy;
+import org.springframework.cloud.aws.messaging.listener.annotation.SqsListener;
+import org.springframework.stereotype.Component;
+
+// hands each task to the pipeline, deleting its message only once the pipeline has processed it,
+// while blocking when the pipeline is full holds the container back from receiving more
+@Component
+@ConditionalOnExpression("${palindrome.service.pipeline.enabled:false} or ${palindrome.service.virtual-threads.enabled:false}")
+public class PipelinedSubmissionListener {
+
+    private PalindromeTaskPipeline pipeline;
+
+    public PipelinedSubmissionListener(PalindromeTaskPipeline pipeline) {
+        this.pipeline = pipeline;
+    }
+
+    @SuppressWarnings("unused")
+    @SqsListener(value = "${palindrome.service.queue:palindrome-service-queue}",
+            deletionPolicy = SqsMessageDeletionPolicy.NEVER)
+    public void inputRetrieve(@NotificationMessage String taskId, Acknowledgment acknowledgment)
+            throws InterruptedException {
+        pipeline.submit(taskId, acknowledgment::acknowledge);
+    }
+}
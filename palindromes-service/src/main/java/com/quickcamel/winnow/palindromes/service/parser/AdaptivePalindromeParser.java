@@ -0,0 +1,127 @@
+package com.quickcamel.winnow.palindromes.service.parser;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Chooses the cheapest parser for each text from its length and the letters it is written in.
+ * <p>
+ * Short texts are expanded around each centre, sparing Manacher's setup, while texts written in few letters,
+ * with long repetitive palindromes, are left to {@link CompactManacherPalindromeParser}. Long texts are parsed
+ * in parallel where there are processors to share the work, and anything else by {@link ManacherPalindromeParser}.
+ * Of these, only {@link ManacherPalindromeParser} matches code points rather than chars, so it parses any text
+ * outside the Basic Multilingual Plane, whose surrogate pairs the others would split.
+ * Each parse is timed, tagged with the parser chosen. Batches, of texts expected to be short, are left to
+ * {@link ManacherPalindromeParser}, sharing its scratch arrays between them.
+ */
+@Component("adaptive")
+public class AdaptivePalindromeParser implements PalindromeParser {
+
+    // characters sampled from the start of the text to estimate its alphabet
+    private static final int ALPHABET_SAMPLE = 4096;
+
+    private final PalindromeParser centre;
+    private final PalindromeParser manacher;
+    private final PalindromeParser compact;
+    private final PalindromeParser forkJoin;
+    private final MeterRegistry meterRegistry;
+    private final int shortLength;
+    private final int longLength;
+    private final int smallAlphabet;
+    private final boolean parallel;
+
+    public AdaptivePalindromeParser(@Qualifier("centre") PalindromeParser centre,
+                                    @Qualifier("manacher") PalindromeParser manacher,
+                                    @Qualifier("compact") PalindromeParser compact,
+                                    @Qualifier("forkjoin") PalindromeParser forkJoin,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${palindrome.service.adaptive.short-length:16}") int shortLength,
+                                    @Value("${palindrome.service.adaptive.long-length:4194304}") int longLength,
+                                    @Value("${palindrome.service.adaptive.small-alphabet:4}") int smallAlphabet) {
+        this.centre = centre;
+        this.manacher = manacher;
+        this.compact = compact;
+        this.forkJoin = forkJoin;
+        this.meterRegistry = meterRegistry;
+        this.shortLength = shortLength;
+        this.longLength = longLength;
+        this.smallAlphabet = smallAlphabet;
+        this.parallel = Runtime.getRuntime().availableProcessors() > 1;
+    }
+
+    @Override
+    public PalindromeSolution parse(String text) {
+        return parse(text, new ParseOptions());
+    }
+
+    @Override
+    public PalindromeSolution parse(String text, ParseOptions options) {
+        String engine = engine(text);
+        PalindromeParser parser = parser(engine);
+        return meterRegistry.timer("palindrome.parse", "engine", engine).record(() -> parser.parse(text, options));
+    }
+
+    @Override
+    public PalindromeBatch parseAll(List<? extends CharSequence> texts) {
+        return meterRegistry.timer("palindrome.parse", "engine", "batch").record(() -> manacher.parseAll(texts));
+    }
+
+    String engine(String text) {
+        if (hasSurrogates(text)) {
+            return "manacher";
+        }
+        if (text.length() <= shortLength) {
+            return "centre";
+        }
+        if (alphabet(text) <= smallAlphabet) {
+            return "compact";
+        }
+        if (parallel && text.length() >= longLength) {
+            return "forkjoin";
+        }
+        return "manacher";
+    }
+
+    private PalindromeParser parser(String engine) {
+        switch (engine) {
+            case "centre":
+                return centre;
+            case "compact":
+                return compact;
+            case "forkjoin":
+                return forkJoin;
+            default:
+                return manacher;
+        }
+    }
+
+    private static boolean hasSurrogates(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (Character.isSurrogate(text.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // distinct letters among those sampled, ignoring case, or more than any small alphabet with letters beyond Latin-1
+    private int alphabet(String text) {
+        long[] seen = new long[4];
+        int distinct = 0;
+        for (int i = 0; i < Math.min(text.length(), ALPHABET_SAMPLE); i++) {
+            int c = Character.toLowerCase(text.charAt(i));
+            if (c > 0xFF) {
+                return Integer.MAX_VALUE;
+            }
+            if ((seen[c >> 6] & 1L << c) == 0) {
+                seen[c >> 6] |= 1L << c;
+                distinct++;
+            }
+        }
+        return distinct;
+    }
+}
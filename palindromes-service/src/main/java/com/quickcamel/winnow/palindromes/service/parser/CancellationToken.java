@@ -0,0 +1,17 @@
+package com.quickcamel.winnow.palindromes.service.parser;
+
+/**
+ * Asks a parse in progress to stop, returning the best palindrome found so far.
+ */
+public class CancellationToken {
+
+    private volatile boolean cancelled;
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
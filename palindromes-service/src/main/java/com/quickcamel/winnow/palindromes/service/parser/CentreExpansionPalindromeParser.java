@@ -0,0 +1,62 @@
+package com.quickcamel.winnow.palindromes.service.parser;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Expands a palindrome around each centre of the text in turn, comparing characters as they are read.
+ * <p>
+ * Quadratic in the worst case, but with nothing to allocate or prepare it is the quickest for short texts.
+ */
+@Component("centre")
+public class CentreExpansionPalindromeParser implements PalindromeParser {
+
+    // centres expanded between checks whether to stop, less one
+    private static final int STOP_CHECK_INTERVAL = 0xFFF;
+
+    @Override
+    public PalindromeSolution parse(String text) {
+        return parse(text, new ParseOptions());
+    }
+
+    @Override
+    public PalindromeSolution parse(String text, ParseOptions options) {
+        int start = 0, end = 0;
+        boolean partial = false;
+        // centres alternate between characters and the gaps after them
+        int centres = text.length() * 2 - 1;
+        for (int centre = 0; centre < centres; centre++) {
+            if ((centre & STOP_CHECK_INTERVAL) == 0) {
+                if (options.shouldStop()) {
+                    partial = true;
+                    break;
+                }
+                if (options.isProgressDue()) {
+                    options.reportProgress((double) centre / centres, solution(text, start, end).withPartial(true));
+                }
+            }
+            int left = centre / 2;
+            int right = left + (centre & 1);
+            // no palindrome about this centre could be longer than the longest so far
+            if (2 * Math.min(left + 1, text.length() - right) - 1 + (centre & 1) <= end - start) {
+                continue;
+            }
+            while (left >= 0 && right < text.length() && sameIgnoringCase(text.charAt(left), text.charAt(right))) {
+                left--;
+                right++;
+            }
+            if (right - left - 1 > end - start) {
+                start = left + 1;
+                end = right;
+            }
+        }
+        return solution(text, start, end).withPartial(partial);
+    }
+
+    private static PalindromeSolution solution(String text, int start, int end) {
+        return new PalindromeSolution(end - start, text.substring(start, end).toLowerCase(), (long) start, (long) end);
+    }
+
+    private static boolean sameIgnoringCase(char a, char b) {
+        return a == b || Character.toLowerCase(a) == Character.toLowerCase(b);
+    }
+}
@@ -0,0 +1,61 @@
+package com.quickcamel.winnow.palindromes.service.parser;
+
+import java.text.Normalizer;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Folds each code point of a text as its normalizations ask, or drops it altogether, one code point at a time.
+ */
+final class CharFolding {
+
+    // Latin letters carrying diacritics decompose to their base letter followed by combining marks
+    private static final char[] BASE_LETTERS = new char[0x250];
+
+    static {
+        for (char c = 0; c < BASE_LETTERS.length; c++) {
+            BASE_LETTERS[c] = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD).charAt(0);
+        }
+    }
+
+    static final CharFolding LOWER_CASE = new CharFolding(EnumSet.of(ParseOptions.Normalization.CASE));
+
+    private final boolean caseInsensitive;
+    private final boolean ignorePunctuation;
+    private final boolean ignoreWhitespace;
+    private final boolean ignoreDiacritics;
+
+    CharFolding(Set<ParseOptions.Normalization> normalizations) {
+        this.caseInsensitive = normalizations.contains(ParseOptions.Normalization.CASE);
+        this.ignorePunctuation = normalizations.contains(ParseOptions.Normalization.PUNCTUATION);
+        this.ignoreWhitespace = normalizations.contains(ParseOptions.Normalization.WHITESPACE);
+        this.ignoreDiacritics = normalizations.contains(ParseOptions.Normalization.DIACRITICS);
+    }
+
+    boolean ignored(int c) {
+        if (ignoreWhitespace && (Character.isWhitespace(c) || Character.isSpaceChar(c))) {
+            return true;
+        }
+        switch (Character.getType(c)) {
+            case Character.CONNECTOR_PUNCTUATION:
+            case Character.DASH_PUNCTUATION:
+            case Character.START_PUNCTUATION:
+            case Character.END_PUNCTUATION:
+            case Character.INITIAL_QUOTE_PUNCTUATION:
+            case Character.FINAL_QUOTE_PUNCTUATION:
+            case Character.OTHER_PUNCTUATION:
+                return ignorePunctuation;
+            case Character.NON_SPACING_MARK:
+                return ignoreDiacritics;
+            default:
+                return false;
+        }
+    }
+
+    int fold(int c) {
+        if (ignoreDiacritics && c < BASE_LETTERS.length) {
+            c = BASE_LETTERS[c];
+        }
+        return caseInsensitive ? Character.toLowerCase(c) : c;
+    }
+}
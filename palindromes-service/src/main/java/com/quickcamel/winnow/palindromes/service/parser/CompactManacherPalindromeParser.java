@@ -0,0 +1,89 @@
+package com.quickcamel.winnow.palindromes.service.parser;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Manacher without copying the text.
+ * <p>
+ * Characters are case folded as they are compared, the separators interleaved by
+ * {@link ManacherPalindromeParser} are implied by position rather than materialised,
+ * and radii are held in {@link CompactRadii} reused by each thread between parses.
+ * Beyond the scratch buffers, a parse allocates only the palindrome it returns.
+ */
+@Component("compact")
+public class CompactManacherPalindromeParser implements PalindromeParser {
+
+    // positions scanned between checks whether to stop, less one
+    private static final int STOP_CHECK_INTERVAL = 0xFFF;
+
+    private final ThreadLocal<CompactRadii> scratch;
+
+    public CompactManacherPalindromeParser(
+            @Value("${palindrome.service.compact.retained-capacity:4194304}") int retainedCapacity) {
+        this.scratch = ThreadLocal.withInitial(() -> new CompactRadii(Math.min(4096, retainedCapacity), retainedCapacity));
+    }
+
+    @Override
+    public PalindromeSolution parse(String text) {
+        return parse(text, new ParseOptions());
+    }
+
+    @Override
+    public PalindromeSolution parse(String text, ParseOptions options) {
+        // positions alternate separator, character, separator, ... for 2n + 1 positions,
+        // so the character at odd position i is text[i / 2]
+        int positions = text.length() * 2 + 1;
+        CompactRadii p = scratch.get();
+        p.reset(positions);
+
+        int center = 0, right = 0;
+        int longestCentre = 0, longestRadius = 0;
+        boolean partial = false;
+        for (int i = 0; i < positions; i++) {
+            if ((i & STOP_CHECK_INTERVAL) == 0) {
+                if (options.shouldStop()) {
+                    partial = true;
+                    break;
+                }
+                if (options.isProgressDue()) {
+                    options.reportProgress((double) i / positions,
+                            solution(text, longestCentre, longestRadius).withPartial(true));
+                }
+            }
+            int radius = right > i ? Math.min(right - i, p.get(2 * center - i)) : 0;
+
+            // attempt to expand palindrome centered at i, separators always match each other
+            while (i - radius > 0 && i + radius < positions - 1) {
+                int next = i + radius + 1;
+                if ((next & 1) == 1
+                        && Character.toLowerCase(text.charAt(next >> 1)) != Character.toLowerCase(text.charAt((i - radius - 1) >> 1))) {
+                    break;
+                }
+                radius++;
+            }
+            p.set(i, radius);
+
+            if (i + radius > right) {
+                center = i;
+                right = i + radius;
+            }
+            if (radius > longestRadius) {
+                longestCentre = i;
+                longestRadius = radius;
+            }
+        }
+
+        PalindromeSolution solution = solution(text, longestCentre, longestRadius).withPartial(partial);
+        if (options.isRadii() && !partial && options.getNormalizations().isEmpty()) {
+            solution.withRadii(p.toArray(positions));
+        }
+        return solution;
+    }
+
+    private static PalindromeSolution solution(String text, int centre, int radius) {
+        int start = (centre - radius) / 2;
+        int end = start + radius;
+        return new PalindromeSolution(radius, text.substring(start, end).toLowerCase(), (long) start, (long) end);
+    }
+}
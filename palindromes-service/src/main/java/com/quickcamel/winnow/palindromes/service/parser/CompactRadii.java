@@ -0,0 +1,154 @@
+package com.quickcamel.winnow.palindromes.service.parser;
+
+import java.util.Arrays;
+
+/**
+ * Palindrome radii stored a byte each, as most palindromes in real text are short.
+ * Radii too long for a byte are marked with an escape value and kept in a small open addressed table,
+ * keyed by position. Repetitive text, where long radii are common, would fill the table with entries costing more
+ * than an int per position, so once escapes pass a share of the positions every radius is widened to an int
+ * until the next parse.
+ * <p>
+ * Radii are set in order of position, as Manacher finds them. Instances are intended to be reused between parses,
+ * and are not thread safe.
+ */
+class CompactRadii {
+
+    private static final int ESCAPE = 0xFF;
+    private static final int EMPTY = -1;
+    private static final int INITIAL_ESCAPES = 16;
+    // escapes allowed per position before widening, each taking a dozen bytes or more of the table
+    private static final int WIDEN_FRACTION = 32;
+
+    private final int retainedCapacity;
+    private byte[] radii;
+    private int size;
+
+    private int[] escapedPositions;
+    private int[] escapedRadii;
+    // the slots filled, so only they are cleared between parses
+    private int[] escapedSlots;
+    private int escapedCount;
+
+    // every radius, once widened, until the next parse
+    private int[] wide;
+    private boolean widened;
+
+    CompactRadii(int initialCapacity, int retainedCapacity) {
+        this.retainedCapacity = retainedCapacity;
+        this.radii = new byte[initialCapacity];
+        allocateEscaped(INITIAL_ESCAPES);
+    }
+
+    // prepares for a parse of the given number of positions, growing only when needed
+    void reset(int size) {
+        this.size = size;
+        if (size > radii.length || radii.length > retainedCapacity && size <= retainedCapacity) {
+            // grow to fit, or release an oversized buffer left by an earlier, unusually large parse
+            radii = new byte[Math.max(size, Math.min(radii.length * 2, retainedCapacity))];
+        }
+        if (escapedPositions.length > Math.max(INITIAL_ESCAPES, 2 * retainedCapacity / WIDEN_FRACTION)) {
+            allocateEscaped(INITIAL_ESCAPES);
+        } else {
+            for (int i = 0; i < escapedCount; i++) {
+                escapedPositions[escapedSlots[i]] = EMPTY;
+            }
+        }
+        escapedCount = 0;
+        if (wide != null && wide.length > retainedCapacity) {
+            wide = null;
+        }
+        widened = false;
+    }
+
+    int get(int position) {
+        if (widened) {
+            return wide[position];
+        }
+        int radius = radii[position] & 0xFF;
+        return radius == ESCAPE ? getEscaped(position) : radius;
+    }
+
+    void set(int position, int radius) {
+        if (widened) {
+            wide[position] = radius;
+        } else if (radius < ESCAPE) {
+            radii[position] = (byte) radius;
+        } else if (escapedCount >= Math.max(INITIAL_ESCAPES, size / WIDEN_FRACTION)) {
+            widen(position);
+            wide[position] = radius;
+        } else {
+            radii[position] = (byte) ESCAPE;
+            putEscaped(position, radius);
+        }
+    }
+
+    // the radii of the first positions, escaped or not
+    int[] toArray(int size) {
+        int[] array = new int[size];
+        for (int i = 0; i < size; i++) {
+            array[i] = get(i);
+        }
+        return array;
+    }
+
+    // copies the radii of the positions before the one being set into ints, for the rest of the parse
+    private void widen(int position) {
+        if (wide == null || wide.length < size) {
+            wide = new int[size];
+        }
+        for (int i = 0; i < position; i++) {
+            wide[i] = get(i);
+        }
+        widened = true;
+    }
+
+    private int getEscaped(int position) {
+        int mask = escapedPositions.length - 1;
+        for (int slot = hash(position) & mask; ; slot = (slot + 1) & mask) {
+            if (escapedPositions[slot] == position) {
+                return escapedRadii[slot];
+            }
+        }
+    }
+
+    private void putEscaped(int position, int radius) {
+        if ((escapedCount + 1) * 2 > escapedPositions.length) {
+            growEscaped();
+        }
+        int mask = escapedPositions.length - 1;
+        int slot = hash(position) & mask;
+        while (escapedPositions[slot] != EMPTY && escapedPositions[slot] != position) {
+            slot = (slot + 1) & mask;
+        }
+        if (escapedPositions[slot] == EMPTY) {
+            escapedSlots[escapedCount++] = slot;
+        }
+        escapedPositions[slot] = position;
+        escapedRadii[slot] = radius;
+    }
+
+    private void growEscaped() {
+        int[] positions = escapedPositions;
+        int[] values = escapedRadii;
+        allocateEscaped(positions.length * 2);
+        escapedCount = 0;
+        for (int i = 0; i < positions.length; i++) {
+            if (positions[i] != EMPTY) {
+                putEscaped(positions[i], values[i]);
+            }
+        }
+    }
+
+    private void allocateEscaped(int slots) {
+        escapedPositions = new int[slots];
+        escapedRadii = new int[slots];
+        // the table is kept at most half full
+        escapedSlots = new int[slots / 2];
+        Arrays.fill(escapedPositions, EMPTY);
+    }
+
+    private static int hash(int position) {
+        return position * 0x9E3779B9 >>> 7;
+    }
+}
@@ -0,0 +1,28 @@
+package com.quickcamel.winnow.palindromes.service.parser;
+
+public class DistinctPalindrome {
+
+    private String palindrome;
+    private Integer occurrences;
+
+    public DistinctPalindrome(String palindrome, Integer occurrences) {
+        this.palindrome = palindrome;
+        this.occurrences = occurrences;
+    }
+
+    public String getPalindrome() {
+        return palindrome;
+    }
+
+    public Integer getOccurrences() {
+        return occurrences;
+    }
+
+    @Override
+    public String toString() {
+        return "DistinctPalindrome{" +
+                "palindrome='" + palindrome + '\'' +
+                ", occurrences=" + occurrences +
+                '}';
+    }
+}
@@ -2,7 +2,7 @@ package com.quickcamel.winnow.palindromes.service.parser;
 
 import org.springframework.stereotype.Component;
 
-@Component
+@Component("dummy")
 public class DummyPalindromeParser implements PalindromeParser {
 
     @Override
@@ -0,0 +1,295 @@
+package com.quickcamel.winnow.palindromes.service.parser;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * A palindromic tree, holding a node for each distinct palindrome in a text, built in linear time.
+ * See https://arxiv.org/abs/1506.04862
+ * <p>
+ * Nodes are indices into primitive arrays rather than objects. Node 0 is the imaginary root of length -1,
+ * and node 1 the empty palindrome; every other node is a palindrome of the text, created the first time it ends.
+ * Edges, from a palindrome to the palindrome formed by wrapping it in a character, are kept in an open addressed
+ * table keyed by node and character. Characters are case folded code points, so a surrogate pair is added as one,
+ * and never split between palindromes, while lengths and ends are counted in chars, as positions in the text.
+ * <p>
+ * A tree may be saved as its {@link #state()} and restored to extend the same text further,
+ * adding only the characters appended since. Saving and restoring are each linear in the nodes, up to one per
+ * character of the text, so a resumed parse still costs O(n) in the whole text, sparing only the suffix link walks
+ * of the characters added before.
+ */
+class Eertree {
+
+    static final int IMAGINARY_ROOT = 0;
+    static final int EMPTY_ROOT = 1;
+
+    private static final long NO_EDGE = -1;
+    // bits of an edge key holding the character, below the node
+    private static final int CODE_POINT_BITS = 21;
+    // code points added between checks whether to stop, less one
+    private static final int STOP_CHECK_INTERVAL = 0xFFF;
+
+    private CharSequence text;
+    private int size;
+
+    private int nodes;
+    private int[] length;
+    private int[] suffixLink;
+    // where the first occurrence of each palindrome ends, exclusive
+    private int[] end;
+    // the number of times each palindrome was the longest palindromic suffix
+    private int[] suffixOccurrences;
+    private int longestSuffix = EMPTY_ROOT;
+    private int longest = EMPTY_ROOT;
+
+    private long[] edgeKeys;
+    private int[] edgeTargets;
+    private int edges;
+
+    Eertree(int expectedLength) {
+        int capacity = Math.max(expectedLength, 14) + 2;
+        length = new int[capacity];
+        suffixLink = new int[capacity];
+        end = new int[capacity];
+        suffixOccurrences = new int[capacity];
+        edgeKeys = new long[Integer.highestOneBit(capacity) * 4];
+        edgeTargets = new int[edgeKeys.length];
+        Arrays.fill(edgeKeys, NO_EDGE);
+
+        length[IMAGINARY_ROOT] = -1;
+        suffixLink[IMAGINARY_ROOT] = IMAGINARY_ROOT;
+        length[EMPTY_ROOT] = 0;
+        suffixLink[EMPTY_ROOT] = IMAGINARY_ROOT;
+        nodes = 2;
+    }
+
+    // adds each code point of the text beyond those already added
+    void extend(CharSequence text) {
+        extend(text, position -> false);
+    }
+
+    // as above, asking at every STOP_CHECK_INTERVAL + 1 positions whether to stop there,
+    // returning whether every character was added, the tree extending from where it stopped when next extended
+    boolean extend(CharSequence text, IntPredicate stop) {
+        this.text = text;
+        for (int added = 0; size < text.length(); added++) {
+            if ((added & STOP_CHECK_INTERVAL) == 0 && stop.test(size)) {
+                return false;
+            }
+            size += add(size);
+        }
+        return true;
+    }
+
+    // adds the code point at the position, returning its chars
+    private int add(int position) {
+        int codePoint = Character.codePointAt(text, position);
+        int c = Character.toLowerCase(codePoint);
+        int parent = suffixWrappedBy(longestSuffix, position, c);
+        int node = edge(parent, c);
+        if (node < 0) {
+            node = newNode(wrappedLength(parent, c), position + Character.charCount(codePoint));
+            suffixLink[node] = parent == IMAGINARY_ROOT
+                    ? EMPTY_ROOT : edge(suffixWrappedBy(suffixLink[parent], position, c), c);
+            putEdge(parent, c, node);
+            if (length[node] > length[longest]) {
+                longest = node;
+            }
+        }
+        suffixOccurrences[node]++;
+        longestSuffix = node;
+        return Character.charCount(codePoint);
+    }
+
+    // the longest palindromic suffix, from the given one, that is preceded by c, so can be wrapped in c,
+    // the imaginary root wrapping c in itself
+    private int suffixWrappedBy(int node, int position, int c) {
+        while (node != IMAGINARY_ROOT) {
+            int start = position - length[node];
+            if (start > 0 && Character.toLowerCase(Character.codePointBefore(text, start)) == c) {
+                return node;
+            }
+            node = suffixLink[node];
+        }
+        return IMAGINARY_ROOT;
+    }
+
+    // the length, in chars, of the palindrome wrapped in c
+    private int wrappedLength(int parent, int c) {
+        return parent == IMAGINARY_ROOT ? Character.charCount(c) : length[parent] + 2 * Character.charCount(c);
+    }
+
+    // the tree as deflated varints, each node by its parent, character, suffix link, end and suffix occurrences,
+    // leaving lengths and edges to be derived from parents when restored
+    byte[] state() {
+        int[] parent = new int[nodes];
+        int[] character = new int[nodes];
+        for (int slot = 0; slot < edgeKeys.length; slot++) {
+            if (edgeKeys[slot] != NO_EDGE) {
+                parent[edgeTargets[slot]] = (int) (edgeKeys[slot] >>> CODE_POINT_BITS);
+                character[edgeTargets[slot]] = (int) (edgeKeys[slot] & (1 << CODE_POINT_BITS) - 1);
+            }
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new DeflaterOutputStream(bytes)) {
+            writeVarint(out, size);
+            writeVarint(out, nodes);
+            writeVarint(out, longestSuffix);
+            writeVarint(out, longest);
+            // parents and suffix links are earlier nodes, and ends never decrease, so each is written as a difference
+            for (int node = EMPTY_ROOT + 1; node < nodes; node++) {
+                writeVarint(out, node - parent[node]);
+                writeVarint(out, character[node]);
+                writeVarint(out, node - suffixLink[node]);
+                writeVarint(out, end[node] - end[node - 1]);
+                writeVarint(out, suffixOccurrences[node]);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static Eertree restore(byte[] state) {
+        try (InputStream in = new InflaterInputStream(new ByteArrayInputStream(state))) {
+            int size = readVarint(in);
+            int nodes = readVarint(in);
+            Eertree tree = new Eertree(Math.max(size, nodes));
+            tree.size = size;
+            tree.longestSuffix = readVarint(in);
+            tree.longest = readVarint(in);
+            for (int node = EMPTY_ROOT + 1; node < nodes; node++) {
+                int parent = node - readVarint(in);
+                int c = readVarint(in);
+                int suffixLink = node - readVarint(in);
+                tree.newNode(tree.wrappedLength(parent, c), tree.end[node - 1] + readVarint(in));
+                tree.suffixLink[node] = suffixLink;
+                tree.suffixOccurrences[node] = readVarint(in);
+                tree.putEdge(parent, c, node);
+            }
+            return tree;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeVarint(OutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.write(value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarint(InputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new IOException("Palindromic tree state ends unexpectedly");
+            }
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+
+    int nodes() {
+        return nodes;
+    }
+
+    int length(int node) {
+        return length[node];
+    }
+
+    int end(int node) {
+        return end[node];
+    }
+
+    int longest() {
+        return longest;
+    }
+
+    String palindrome(int node) {
+        return text.subSequence(end[node] - length[node], end[node]).toString().toLowerCase();
+    }
+
+    // the number of times each palindrome occurs, counting occurrences within longer palindromes
+    int[] occurrences() {
+        int[] occurrences = Arrays.copyOf(suffixOccurrences, nodes);
+        // suffix links always point to earlier nodes, so walking backwards visits each palindrome before its suffixes
+        for (int node = nodes - 1; node > EMPTY_ROOT; node--) {
+            occurrences[suffixLink[node]] += occurrences[node];
+        }
+        return occurrences;
+    }
+
+    private int newNode(int nodeLength, int nodeEnd) {
+        if (nodes == length.length) {
+            int capacity = nodes * 2;
+            length = Arrays.copyOf(length, capacity);
+            suffixLink = Arrays.copyOf(suffixLink, capacity);
+            end = Arrays.copyOf(end, capacity);
+            suffixOccurrences = Arrays.copyOf(suffixOccurrences, capacity);
+        }
+        length[nodes] = nodeLength;
+        end[nodes] = nodeEnd;
+        return nodes++;
+    }
+
+    private int edge(int node, int c) {
+        long key = edgeKey(node, c);
+        int mask = edgeKeys.length - 1;
+        for (int slot = hash(key) & mask; edgeKeys[slot] != NO_EDGE; slot = (slot + 1) & mask) {
+            if (edgeKeys[slot] == key) {
+                return edgeTargets[slot];
+            }
+        }
+        return -1;
+    }
+
+    private void putEdge(int node, int c, int target) {
+        if ((edges + 1) * 2 > edgeKeys.length) {
+            long[] keys = edgeKeys;
+            int[] targets = edgeTargets;
+            edgeKeys = new long[keys.length * 2];
+            edgeTargets = new int[keys.length * 2];
+            Arrays.fill(edgeKeys, NO_EDGE);
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (keys[slot] != NO_EDGE) {
+                    insertEdge(keys[slot], targets[slot]);
+                }
+            }
+        }
+        insertEdge(edgeKey(node, c), target);
+        edges++;
+    }
+
+    private void insertEdge(long key, int target) {
+        int mask = edgeKeys.length - 1;
+        int slot = hash(key) & mask;
+        while (edgeKeys[slot] != NO_EDGE) {
+            slot = (slot + 1) & mask;
+        }
+        edgeKeys[slot] = key;
+        edgeTargets[slot] = target;
+    }
+
+    private static long edgeKey(int node, int c) {
+        return (long) node << CODE_POINT_BITS | c;
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32);
+    }
+}
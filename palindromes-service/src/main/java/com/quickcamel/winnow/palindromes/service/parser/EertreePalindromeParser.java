@@ -0,0 +1,88 @@
+package com.quickcamel.winnow.palindromes.service.parser;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Builds an {@link Eertree} of the text, which as well as the longest palindrome,
+ * gives every distinct palindrome and how often it occurs.
+ * The tree may be saved and restored, so a text appended to need only have its new characters added,
+ * though restoring and saving it again are linear in its nodes, and the distinct palindromes are sorted afresh,
+ * in O(k log k) for k nodes, on every resume.
+ */
+@Component("eertree")
+public class EertreePalindromeParser implements PalindromeParser, ResumablePalindromeParser {
+
+    @Override
+    public PalindromeSolution parse(String text) {
+        return longest(build(text));
+    }
+
+    @Override
+    public PalindromeSolution parse(String text, ParseOptions options) {
+        Eertree tree = new Eertree(text.length());
+        return solve(tree, extend(tree, text, options), options);
+    }
+
+    // a parse asked to stop saves the tree as far as it got, so it is extended from there when resumed
+    @Override
+    public PalindromeSolution parse(String text, byte[] state, ParseOptions options) {
+        Eertree tree = state != null ? Eertree.restore(state) : new Eertree(text.length());
+        return solve(tree, extend(tree, text, options), options).withState(tree.state());
+    }
+
+    // whether the whole text was added, reporting progress with the longest palindrome so far as the tree checks
+    // whether to stop
+    private boolean extend(Eertree tree, String text, ParseOptions options) {
+        return tree.extend(text, position -> {
+            if (options.shouldStop()) {
+                return true;
+            }
+            if (options.isProgressDue()) {
+                options.reportProgress((double) position / text.length(), longest(tree).withPartial(true));
+            }
+            return false;
+        });
+    }
+
+    private PalindromeSolution solve(Eertree tree, boolean complete, ParseOptions options) {
+        PalindromeSolution solution = longest(tree).withPartial(!complete);
+        if (options.getMode() == ParseOptions.Mode.DISTINCT) {
+            solution.withDistinctPalindromes(distinct(tree, options));
+        }
+        return solution;
+    }
+
+    private Eertree build(String text) {
+        Eertree tree = new Eertree(text.length());
+        tree.extend(text);
+        return tree;
+    }
+
+    private PalindromeSolution longest(Eertree tree) {
+        int longest = tree.longest();
+        if (longest == Eertree.EMPTY_ROOT) {
+            return new PalindromeSolution(0, "", 0L, 0L);
+        }
+        int end = tree.end(longest);
+        return new PalindromeSolution(tree.length(longest), tree.palindrome(longest),
+                (long) end - tree.length(longest), (long) end);
+    }
+
+    // the most frequent palindromes, longest first among those as frequent, then in order of first occurrence
+    private List<DistinctPalindrome> distinct(Eertree tree, ParseOptions options) {
+        int[] occurrences = tree.occurrences();
+        return IntStream.range(Eertree.EMPTY_ROOT + 1, tree.nodes())
+                .filter(node -> tree.length(node) >= options.getMinLength())
+                .boxed()
+                .sorted(Comparator.<Integer>comparingInt(node -> -occurrences[node])
+                        .thenComparingInt(node -> -tree.length(node)))
+                .limit(options.getLimit())
+                .map(node -> new DistinctPalindrome(tree.palindrome(node), occurrences[node]))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,13 @@
+package com.quickcamel.winnow.palindromes.service.parser;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Parses a file where it lies, rather than requiring its text to be read into memory first.
+ */
+@FunctionalInterface
+public interface FilePalindromeParser {
+
+    PalindromeSolution parse(Path file, ParseOptions options) throws IOException;
+}
@@ -0,0 +1,216 @@
+package com.quickcamel.winnow.palindromes.service.parser;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Splits the text into segments and runs Manacher over each on a {@link ForkJoinPool}.
+ * <p>
+ * Each segment resolves the palindromes centred within it, expanding against the whole text so those
+ * crossing a segment boundary are measured in full. Only palindromes starting within the segment feed
+ * Manacher's mirror, keeping every segment independent. Segment results are merged pairwise, keeping the
+ * longest palindrome and the earliest on a tie, so the result matches {@link ManacherPalindromeParser}.
+ * <p>
+ * Highly repetitive text, where palindromes are far longer than a segment, would make segments repeat each
+ * other's expansions, so once a segment exceeds its expansion budget the parse falls back to a single segment.
+ * A parse asked to stop returns the longest palindrome any segment found, abandoned or not, rather than falling back.
+ */
+@Component("forkjoin")
+public class ForkJoinPalindromeParser implements PalindromeParser, DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(ForkJoinPalindromeParser.class);
+
+    // expansion steps allowed per position in a segment, before it is considered degenerate
+    private static final int EXPANSION_BUDGET = 8;
+
+    private final ForkJoinPool pool;
+    private final int segmentPositions;
+
+    public ForkJoinPalindromeParser(@Value("${palindrome.service.forkjoin.parallelism:0}") int parallelism,
+                                    @Value("${palindrome.service.forkjoin.segment:65536}") int segmentLength) {
+        if (segmentLength <= 0) {
+            throw new IllegalArgumentException("Segment length must be positive : " + segmentLength);
+        }
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.segmentPositions = segmentLength * 2;
+    }
+
+    @Override
+    public PalindromeSolution parse(String text) {
+        return parse(text, new ParseOptions());
+    }
+
+    @Override
+    public PalindromeSolution parse(String text, ParseOptions options) {
+        // positions alternate separator, character, separator, ... as in CompactManacherPalindromeParser
+        int positions = text.length() * 2 + 1;
+        // each segment copies in the radii it finds, when they are to be kept
+        int[] radii = options.isRadii() && options.getNormalizations().isEmpty() ? new int[positions] : null;
+        AtomicBoolean abandoned = new AtomicBoolean();
+        Longest longest = pool.invoke(new SegmentTask(text, positions, 0, positions, abandoned, options,
+                new Progress(), radii));
+        if (longest.abandoned && !longest.partial) {
+            logger.debug("Palindromes too long to parse in parallel, falling back to a single segment");
+            Longest fallback = scan(text, positions, 0, positions, Long.MAX_VALUE, new AtomicBoolean(), options,
+                    new Progress(), radii);
+            // should the fallback be stopped too, the longest found in parallel may still be longer
+            longest = fallback.partial ? merge(fallback, longest) : fallback;
+        }
+        boolean partial = longest.partial || longest.abandoned;
+        PalindromeSolution solution = solution(text, longest.centre, longest.radius).withPartial(partial);
+        return radii != null && !partial ? solution.withRadii(radii) : solution;
+    }
+
+    private static PalindromeSolution solution(String text, int centre, int radius) {
+        int start = (centre - radius) / 2;
+        int end = start + radius;
+        return new PalindromeSolution(radius, text.substring(start, end).toLowerCase(), (long) start, (long) end);
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdown();
+    }
+
+    private class SegmentTask extends RecursiveTask<Longest> {
+
+        private final String text;
+        private final int positions;
+        private final int from;
+        private final int to;
+        private final AtomicBoolean abandoned;
+        private final ParseOptions options;
+        private final Progress progress;
+        private final int[] radii;
+
+        SegmentTask(String text, int positions, int from, int to, AtomicBoolean abandoned, ParseOptions options,
+                    Progress progress, int[] radii) {
+            this.text = text;
+            this.positions = positions;
+            this.from = from;
+            this.to = to;
+            this.abandoned = abandoned;
+            this.options = options;
+            this.progress = progress;
+            this.radii = radii;
+        }
+
+        @Override
+        protected Longest compute() {
+            if (to - from <= segmentPositions) {
+                return scan(text, positions, from, to, (long) EXPANSION_BUDGET * (to - from), abandoned, options,
+                        progress, radii);
+            }
+            int middle = (from + to) >>> 1;
+            SegmentTask left = new SegmentTask(text, positions, from, middle, abandoned, options, progress, radii);
+            left.fork();
+            Longest right = new SegmentTask(text, positions, middle, to, abandoned, options, progress, radii)
+                    .compute();
+            return merge(left.join(), right);
+        }
+    }
+
+    // the longer palindrome, or the earlier of two the same length, as found by a sequential scan,
+    // stopped or abandoned should either segment have been
+    private static Longest merge(Longest left, Longest right) {
+        Longest longest = right.radius > left.radius ? right : left;
+        return new Longest(longest.centre, longest.radius, left.partial || right.partial,
+                left.abandoned || right.abandoned);
+    }
+
+    // Manacher over the centres in [from, to), returning the longest so far, abandoned if the expansion budget
+    // is exhausted or partial if the parse is asked to stop, copying the radii found into radii unless null
+    private static Longest scan(String text, int positions, int from, int to, long budget, AtomicBoolean abandoned,
+                                ParseOptions options, Progress progress, int[] radii) {
+        int[] p = new int[to - from];
+        int center = from, right = -1;
+        int longestCentre = from, longestRadius = 0;
+        long expansions = 0;
+        for (int i = from; i < to; i++) {
+            if ((i - from & 0xFFF) == 0) {
+                if (options.shouldStop()) {
+                    return new Longest(longestCentre, longestRadius, true, false);
+                }
+                if (options.isProgressDue()) {
+                    progress.report(text, positions, i - from, longestCentre, longestRadius, options);
+                }
+            }
+            // the palindrome at center is tracked only as far as it lies within this segment,
+            // so the mirror is always a centre already scanned by this segment
+            int radius = right > i ? Math.min(right - i, p[2 * center - i - from]) : 0;
+
+            while (i - radius > 0 && i + radius < positions - 1) {
+                int next = i + radius + 1;
+                if ((next & 1) == 1
+                        && Character.toLowerCase(text.charAt(next >> 1)) != Character.toLowerCase(text.charAt((i - radius - 1) >> 1))) {
+                    break;
+                }
+                radius++;
+                expansions++;
+            }
+            p[i - from] = radius;
+
+            int tracked = Math.min(radius, i - from);
+            if (i + tracked > right) {
+                center = i;
+                right = i + tracked;
+            }
+            if (radius > longestRadius) {
+                longestCentre = i;
+                longestRadius = radius;
+            }
+            if (expansions > budget || (i & 0xFFF) == 0 && abandoned.get()) {
+                abandoned.set(true);
+                return new Longest(longestCentre, longestRadius, false, true);
+            }
+        }
+        if (radii != null) {
+            System.arraycopy(p, 0, radii, from, to - from);
+        }
+        progress.finished(to - from, longestCentre, longestRadius);
+        return new Longest(longestCentre, longestRadius, false, false);
+    }
+
+    // the positions scanned by the segments finished so far, and the longest palindrome among them, packed as its
+    // radius then centre, reported for the whole parse by whichever segment finds progress due
+    private static class Progress {
+
+        private final LongAdder scanned = new LongAdder();
+        private final AtomicLong longest = new AtomicLong();
+
+        void finished(int positions, int centre, int radius) {
+            scanned.add(positions);
+            longest.accumulateAndGet((long) radius << 32 | centre, Math::max);
+        }
+
+        void report(String text, int positions, int segmentScanned, int centre, int radius, ParseOptions options) {
+            long longestSoFar = Math.max(longest.get(), (long) radius << 32 | centre);
+            options.reportProgress((double) (scanned.sum() + segmentScanned) / positions,
+                    solution(text, (int) longestSoFar, (int) (longestSoFar >>> 32)).withPartial(true));
+        }
+    }
+
+    private static class Longest {
+
+        private final int centre;
+        private final int radius;
+        private final boolean partial;
+        // left unfinished as the palindromes were too long for segments, to be scanned again as one
+        private final boolean abandoned;
+
+        Longest(int centre, int radius, boolean partial, boolean abandoned) {
+            this.centre = centre;
+            this.radius = radius;
+            this.partial = partial;
+            this.abandoned = abandoned;
+        }
+    }
+}
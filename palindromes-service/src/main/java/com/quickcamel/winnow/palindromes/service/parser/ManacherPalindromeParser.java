@@ -2,79 +2,378 @@ package com.quickcamel.winnow.palindromes.service.parser;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
 
 /**
  * This algorithm is mostly lifted from:
  * https://algs4.cs.princeton.edu/53substring/Manacher.java.html
+ * <p>
+ * A single scan of the text chooses the narrowest units able to hold it, so Latin-1 text is parsed as bytes,
+ * text outside the Basic Multilingual Plane as code points rather than the surrogate pairs encoding them,
+ * and anything else as chars. Text to be normalized is first folded into a copy of its code points, with their
+ * offsets in the text, since Manacher compares units at any position and those ignored must be dropped beforehand.
  */
-@Component
-@Primary
+@Component("manacher")
 public class ManacherPalindromeParser implements PalindromeParser {
     private static final Logger logger = LoggerFactory.getLogger(ManacherPalindromeParser.class);
 
-    // Transform s into t.
-    // For example, if s = "abba", then t = "$#a#b#b#a#@"
-    // the # are interleaved to avoid even/odd-length palindromes uniformly
-    // $ and @ are prepended and appended to each end to avoid bounds checking
-    private char[] preprocess(String text) {
-        char[] t = new char[text.length() * 2 + 3];
-        t[0] = '$';
-        t[text.length() * 2 + 2] = '@';
+    // positions scanned between checks whether to stop, less one
+    private static final int STOP_CHECK_INTERVAL = 0xFFF;
+
+    // scratch arrays reused by each thread between the texts of a batch, grown to the longest text yet
+    private static final class Scratch {
+        private char[] s = new char[0];
+        private int[] p = new int[1];
+    }
+
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    private enum Units {
+        LATIN1,
+        CHARS,
+        CODE_POINTS
+    }
+
+    private static Units units(String text) {
+        Units units = Units.LATIN1;
         for (int i = 0; i < text.length(); i++) {
-            t[2 * i + 1] = '#';
-            t[2 * i + 2] = text.charAt(i);
+            char c = text.charAt(i);
+            if (Character.isSurrogate(c)) {
+                return Units.CODE_POINTS;
+            }
+            if (c > 0xFF) {
+                units = Units.CHARS;
+            }
+        }
+        return units;
+    }
+
+    // the original transforms s into t, for example if s = "abba", then t = "$#a#b#b#a#@"
+    // the # are interleaved to avoid even/odd-length palindromes uniformly
+    // here they are implied by position rather than materialised, so the unit at odd position i is s[i / 2],
+    // and the ends are checked rather than marked by $ and @
+    // p[i] = length of longest palindromic substring of s, centered at position i, for the first positions of p
+    // each scan returns the positions it reached, fewer than all when the parse is asked to stop,
+    // reporting its progress, when asked for, as it checks whether to stop
+
+    private int radii(Expansion expansion, int[] p, int positions, MaximalPalindromeHeap maximal,
+                      PalindromeStatistics statistics, ParseOptions options, IntConsumer progress) {
+        int center = 0, right = 0;
+        for (int i = 0; i < positions; i++) {
+            if ((i & STOP_CHECK_INTERVAL) == 0) {
+                if (options.shouldStop()) {
+                    return i;
+                }
+                if (progress != null && options.isProgressDue()) {
+                    progress.accept(i);
+                }
+            }
+            int mirror = 2 * center - i;
+
+            p[i] = expansion.expand(i, right > i ? Math.min(right - i, p[mirror]) : 0, positions);
+
+            center = expanded(i, p, maximal, statistics, options.getMinLength(), center, right);
+            right = Math.max(right, i + p[i]);
+        }
+        return positions;
+    }
+
+    // attempts to expand the palindrome centered at i beyond radius, as far as the units allow,
+    // one expansion per array of units so each compares its own without a call per unit
+    @FunctionalInterface
+    private interface Expansion {
+        int expand(int i, int radius, int positions);
+    }
+
+    // separators always match each other
+    private static Expansion expansion(byte[] s) {
+        return (i, radius, positions) -> {
+            while (i - radius > 0 && i + radius < positions - 1
+                    && (((i + radius) & 1) == 1 || s[(i + radius + 1) >> 1] == s[(i - radius - 1) >> 1]))
+                radius++;
+            return radius;
+        };
+    }
+
+    private static Expansion expansion(char[] s) {
+        return (i, radius, positions) -> {
+            while (i - radius > 0 && i + radius < positions - 1
+                    && (((i + radius) & 1) == 1 || s[(i + radius + 1) >> 1] == s[(i - radius - 1) >> 1]))
+                radius++;
+            return radius;
+        };
+    }
+
+    private static Expansion expansion(int[] s) {
+        return (i, radius, positions) -> {
+            while (i - radius > 0 && i + radius < positions - 1
+                    && (((i + radius) & 1) == 1 || s[(i + radius + 1) >> 1] == s[(i - radius - 1) >> 1]))
+                radius++;
+            return radius;
+        };
+    }
+
+    // collects the palindrome centered at i when maximal palindromes or statistics are asked for,
+    // and if it expands past right, adjusts center based on expanded palindrome
+    private static int expanded(int i, int[] p, MaximalPalindromeHeap maximal, PalindromeStatistics statistics,
+                                int minLength, int center, int right) {
+        if (maximal != null && p[i] >= minLength) {
+            maximal.offer(i, p[i]);
         }
-        t[text.length() * 2 + 1] = '#';
-        return t;
+        if (statistics != null) {
+            statistics.add(i, p[i]);
+        }
+        return i + p[i] > right ? i : center;
     }
 
-    // longest palindromic substring
-    private String longestPalindromicSubstring(String text, int[] centreIndexedPalindromeLengths) {
+    // the text folded to lower case once, rather than at each comparison, which measured nearly twice as slow,
+    // the copy taking at most a quarter of the radii's int for each of two positions per char
+    private static byte[] latin1(String text) {
+        byte[] s = new byte[text.length()];
+        for (int i = 0; i < s.length; i++) {
+            s[i] = (byte) Character.toLowerCase(text.charAt(i));
+        }
+        return s;
+    }
+
+    private static char[] chars(String text) {
+        char[] s = new char[text.length()];
+        for (int i = 0; i < s.length; i++) {
+            s[i] = Character.toLowerCase(text.charAt(i));
+        }
+        return s;
+    }
+
+    // the code points of the text, folded and leaving out those ignored,
+    // recording in offsets where each came from in the text
+    private static int codePoints(String text, CharFolding folding, int[] s, int[] offsets) {
+        int length = 0;
+        for (int i = 0; i < text.length(); i += Character.charCount(text.codePointAt(i))) {
+            int codePoint = text.codePointAt(i);
+            if (!folding.ignored(codePoint)) {
+                s[length] = folding.fold(codePoint);
+                offsets[length++] = i;
+            }
+        }
+        return length;
+    }
+
+    // maps offsets of units back to the text, where they may not be its chars one for one
+    private static int textStart(String text, int[] offsets, int start, int end) {
+        return offsets == null ? start : start == end ? 0 : offsets[start];
+    }
+
+    private static int textEnd(String text, int[] offsets, int start, int end) {
+        return offsets == null ? end
+                : start == end ? 0 : offsets[end - 1] + Character.charCount(text.codePointAt(offsets[end - 1]));
+    }
+
+    // longest palindromic substring, among the first positions scanned
+    private PalindromeSolution longestPalindromicSubstring(String text, int[] offsets, boolean lowerCase,
+                                                           int[] centreIndexedPalindromeLengths, int positions) {
         int length = 0;   // length of longest palindromic substring
         int center = 0;   // center of longest palindromic substring
-        for (int i = 1; i < centreIndexedPalindromeLengths.length - 1; i++) {
+        for (int i = 0; i < positions; i++) {
             if (centreIndexedPalindromeLengths[i] > length) {
                 length = centreIndexedPalindromeLengths[i];
                 center = i;
             }
         }
-        return text.substring((center - 1 - length) / 2, (center - 1 + length) / 2);
+        int start = (center - length) / 2;
+        int end = (center + length) / 2;
+        int textStart = textStart(text, offsets, start, end);
+        int textEnd = textEnd(text, offsets, start, end);
+        String palindrome = text.substring(textStart, textEnd);
+        return new PalindromeSolution(textEnd - textStart, lowerCase ? palindrome.toLowerCase() : palindrome,
+                (long) textStart, (long) textEnd);
+    }
+
+    // reports the positions scanned, with the longest palindrome among them, when the options ask for progress
+    private IntConsumer progress(String text, int[] offsets, boolean lowerCase, int[] p, ParseOptions options) {
+        if (options.getProgressListener() == null) {
+            return null;
+        }
+        return scanned -> options.reportProgress((double) scanned / p.length,
+                longestPalindromicSubstring(text, offsets, lowerCase, p, scanned).withPartial(true));
+    }
+
+    // the longest maximal palindromes, each centred where the palindrome at that centre cannot be extended,
+    // optionally choosing greedily, longest first, only those clear of palindromes already chosen
+    private List<MaximalPalindrome> maximalPalindromes(String text, int[] offsets, boolean lowerCase, int[] p,
+                                                       MaximalPalindromeHeap heap, ParseOptions options) {
+        List<MaximalPalindrome> palindromes = new ArrayList<>();
+        while (true) {
+            boolean exhaustive = !heap.isFull();
+            for (long key : heap.bestFirst()) {
+                MaximalPalindrome candidate = maximalPalindrome(text, offsets, lowerCase,
+                        MaximalPalindromeHeap.centre(key), MaximalPalindromeHeap.length(key));
+                if (!options.isNonOverlapping() || !overlapsAny(candidate, palindromes)) {
+                    palindromes.add(candidate);
+                    if (palindromes.size() == options.getLimit()) {
+                        return palindromes;
+                    }
+                }
+            }
+            if (!options.isNonOverlapping() || exhaustive) {
+                return palindromes;
+            }
+            // every candidate so far was chosen or overlaps one chosen, so look again at those clear of them
+            heap = new MaximalPalindromeHeap(options.getLimit() - palindromes.size());
+            for (int i = 0; i < p.length; i++) {
+                int start = (i - p[i]) / 2;
+                if (p[i] >= options.getMinLength() && !overlapsAny(textStart(text, offsets, start, start + p[i]),
+                        textEnd(text, offsets, start, start + p[i]), palindromes)) {
+                    heap.offer(i, p[i]);
+                }
+            }
+        }
+    }
+
+    private MaximalPalindrome maximalPalindrome(String text, int[] offsets, boolean lowerCase, int center, int length) {
+        int start = (center - length) / 2;
+        int textStart = textStart(text, offsets, start, start + length);
+        int textEnd = textEnd(text, offsets, start, start + length);
+        String palindrome = text.substring(textStart, textEnd);
+        return new MaximalPalindrome(lowerCase ? palindrome.toLowerCase() : palindrome, (long) textStart, (long) textEnd);
+    }
+
+    private boolean overlapsAny(MaximalPalindrome candidate, List<MaximalPalindrome> palindromes) {
+        return overlapsAny(candidate.getStart(), candidate.getEnd(), palindromes);
+    }
+
+    private boolean overlapsAny(long start, long end, List<MaximalPalindrome> palindromes) {
+        for (MaximalPalindrome palindrome : palindromes) {
+            if (start < palindrome.getEnd() && palindrome.getStart() < end) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The radius of the longest palindrome about each centre of the text, matching its chars ignoring case,
+     * where centres alternate between the gaps around chars and the chars themselves.
+     */
+    public int[] radii(String text) {
+        int[] p = new int[text.length() * 2 + 1];
+        radii(expansion(chars(text)), p, p.length, null, null, new ParseOptions(), null);
+        return p;
     }
 
     @Override
     public PalindromeSolution parse(String text) {
-        text = text.toLowerCase();
-        int[] p;  // p[i] = length of longest palindromic substring of t, centered at i
-        char[] t = preprocess(text);  // transformed string
-        p = new int[t.length];
+        return parse(text, new ParseOptions());
+    }
 
-        int center = 0, right = 0;
-        for (int i = 1; i < t.length - 1; i++) {
-            int mirror = 2 * center - i;
+    /**
+     * Scans each text in turn through the same scratch arrays, sized to the longest of them,
+     * collecting only where the longest palindrome of each lies.
+     * Texts outside the Basic Multilingual Plane are parsed alone, as code points.
+     */
+    @Override
+    public PalindromeBatch parseAll(List<? extends CharSequence> texts) {
+        PalindromeBatch batch = new PalindromeBatch(texts);
+        Scratch buffers = scratch.get();
+        int longest = texts.stream().mapToInt(CharSequence::length).max().orElse(0);
+        if (buffers.s.length < longest) {
+            buffers.s = new char[longest];
+            buffers.p = new int[longest * 2 + 1];
+        }
+        ParseOptions options = new ParseOptions();
+        for (int item = 0; item < texts.size(); item++) {
+            CharSequence text = texts.get(item);
+            if (!lowerCase(text, buffers.s)) {
+                PalindromeSolution solution = parse(text.toString(), options);
+                batch.set(item, solution.getStart().intValue(), solution.getEnd().intValue());
+                continue;
+            }
+            int positions = text.length() * 2 + 1;
+            radii(expansion(buffers.s), buffers.p, positions, null, null, options, null);
+            int length = 0, center = 0;
+            for (int i = 0; i < positions; i++) {
+                if (buffers.p[i] > length) {
+                    length = buffers.p[i];
+                    center = i;
+                }
+            }
+            batch.set(item, (center - length) / 2, (center + length) / 2);
+        }
+        return batch;
+    }
 
-            if (right > i)
-                p[i] = Math.min(right - i, p[mirror]);
+    // lower cases the text into s, unless it holds surrogates
+    private static boolean lowerCase(CharSequence text, char[] s) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isSurrogate(c)) {
+                return false;
+            }
+            s[i] = Character.toLowerCase(c);
+        }
+        return true;
+    }
 
-            // attempt to expand palindrome centered at i
-            while (t[i + (1 + p[i])] == t[i - (1 + p[i])])
-                p[i]++;
+    @Override
+    public PalindromeSolution parse(String text, ParseOptions options) {
+        // collects the longest maximal palindromes as the scan finds them, when asked for
+        MaximalPalindromeHeap maximal = options.getMode() == ParseOptions.Mode.MAXIMAL
+                ? new MaximalPalindromeHeap(Math.min(options.getLimit(), text.length() * 2 + 1))
+                : null;
 
-            // if palindrome centered at i expands past right,
-            // adjust center based on expanded palindrome.
-            if (i + p[i] > right) {
-                center = i;
-                right = i + p[i];
-            }
+        // without normalizations the text is matched and reported in lower case,
+        // otherwise it is folded into code points and their offsets before the scan,
+        // and palindromes are reported as they appear in it
+        boolean lowerCase = options.getNormalizations().isEmpty();
+        int[] offsets = null;  // where each unit came from in the text, unless units are its chars one for one
+        int[] p;
+        int scanned;
+        PalindromeStatistics statistics = null;
+        Units units = lowerCase ? units(text) : Units.CODE_POINTS;
+        logger.debug("Parsing {} chars as {}", text.length(), units);
+        switch (units) {
+            case LATIN1:
+                p = new int[text.length() * 2 + 1];
+                statistics = options.isStatistics() ? new PalindromeStatistics(text.length()) : null;
+                scanned = radii(expansion(latin1(text)), p, p.length, maximal, statistics, options,
+                        progress(text, null, lowerCase, p, options));
+                break;
+            case CHARS:
+                p = new int[text.length() * 2 + 1];
+                statistics = options.isStatistics() ? new PalindromeStatistics(text.length()) : null;
+                scanned = radii(expansion(chars(text)), p, p.length, maximal, statistics, options,
+                        progress(text, null, lowerCase, p, options));
+                break;
+            default:
+                int[] s = new int[text.length()];
+                offsets = new int[text.length()];
+                int length = codePoints(text, lowerCase ? CharFolding.LOWER_CASE
+                        : new CharFolding(options.getNormalizations()), s, offsets);
+                p = new int[length * 2 + 1];
+                statistics = options.isStatistics() ? new PalindromeStatistics(length) : null;
+                scanned = radii(expansion(s), p, p.length, maximal, statistics, options,
+                        progress(text, offsets, lowerCase, p, options));
+        }
+        if (scanned < p.length) {
+            logger.debug("Stopped parsing after {} of {} positions", scanned, p.length);
         }
         if (logger.isTraceEnabled()) {
-            logger.trace(Arrays.toString(t));
             logger.trace(Arrays.toString(p));
         }
-        String longestPalindrome = longestPalindromicSubstring(text, p);
-        return new PalindromeSolution(longestPalindrome.length(), longestPalindrome);
+        PalindromeSolution solution = longestPalindromicSubstring(text, offsets, lowerCase, p, p.length)
+                .withPartial(scanned < p.length)
+                .withStatistics(statistics);
+        if (maximal != null) {
+            solution.withMaximalPalindromes(maximalPalindromes(text, offsets, lowerCase, p, maximal, options));
+        }
+        // radii of code points, or of normalized text, would not line up with its chars
+        if (options.isRadii() && offsets == null && !solution.isPartial()) {
+            solution.withRadii(p);
+        }
+        return solution;
     }
-}
\ No newline at end of file
+}
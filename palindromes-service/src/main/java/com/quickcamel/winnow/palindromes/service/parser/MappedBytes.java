@@ -0,0 +1,72 @@
+package com.quickcamel.winnow.palindromes.service.parser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Bytes addressed by long offsets, held in regions of {@code 2^regionBits} bytes,
+ * as no single buffer may hold more than 2GB.
+ * The regions are mapped from a file, or wrap an array on the heap.
+ */
+class MappedBytes {
+
+    private final ByteBuffer[] regions;
+    private final int regionBits;
+    private final int regionMask;
+    private final long length;
+
+    private MappedBytes(ByteBuffer[] regions, int regionBits, long length) {
+        this.regions = regions;
+        this.regionBits = regionBits;
+        this.regionMask = (int) ((1L << regionBits) - 1);
+        this.length = length;
+    }
+
+    static MappedBytes map(FileChannel channel, FileChannel.MapMode mode, long length, int regionBits)
+            throws IOException {
+        long regionSize = 1L << regionBits;
+        ByteBuffer[] regions = new ByteBuffer[(int) ((length + regionSize - 1) >>> regionBits)];
+        for (int region = 0; region < regions.length; region++) {
+            long position = (long) region << regionBits;
+            regions[region] = channel.map(mode, position, Math.min(regionSize, length - position));
+        }
+        return new MappedBytes(regions, regionBits, length);
+    }
+
+    static MappedBytes wrap(byte[] bytes) {
+        return new MappedBytes(new ByteBuffer[]{ByteBuffer.wrap(bytes)}, 31, bytes.length);
+    }
+
+    long length() {
+        return length;
+    }
+
+    byte get(long index) {
+        return regions[(int) (index >>> regionBits)].get((int) index & regionMask);
+    }
+
+    // ints are aligned to their size, so never straddle regions of at least four bytes
+    int getInt(long index) {
+        return regions[(int) (index >>> regionBits)].getInt((int) index & regionMask);
+    }
+
+    void putInt(long index, int value) {
+        regions[(int) (index >>> regionBits)].putInt((int) index & regionMask, value);
+    }
+
+    // copies length bytes from index, across regions as needed
+    byte[] copy(long index, int length) {
+        byte[] bytes = new byte[length];
+        int copied = 0;
+        while (copied < length) {
+            long from = index + copied;
+            ByteBuffer region = regions[(int) (from >>> regionBits)].duplicate();
+            region.position((int) from & regionMask);
+            int count = Math.min(length - copied, region.remaining());
+            region.get(bytes, copied, count);
+            copied += count;
+        }
+        return bytes;
+    }
+}
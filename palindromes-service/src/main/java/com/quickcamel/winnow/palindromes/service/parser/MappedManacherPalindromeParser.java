@@ -0,0 +1,138 @@
+package com.quickcamel.winnow.palindromes.service.parser;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Manacher over text mapped from a file, keeping its radii in a temporary file mapped off the heap,
+ * indexed by longs, so texts of many gigabytes are parsed with a small and fixed heap.
+ * <p>
+ * Files are read a byte per char, as Latin-1, as genome assemblies and most archived text are.
+ * Offsets are long, but the palindrome itself is only copied onto the heap when no longer than
+ * {@code maxPalindrome}, being otherwise reported by its offsets alone.
+ * Texts given as strings outside Latin-1 are left to {@link ManacherPalindromeParser}.
+ */
+@Component("mapped")
+public class MappedManacherPalindromeParser implements PalindromeParser, FilePalindromeParser {
+    private static final Logger logger = LoggerFactory.getLogger(MappedManacherPalindromeParser.class);
+
+    // positions scanned between checks whether to stop, less one
+    private static final int STOP_CHECK_INTERVAL = 0xFFF;
+
+    // each byte as Latin-1, in lower case
+    private static final byte[] LOWER_CASE = new byte[256];
+
+    static {
+        for (int c = 0; c < LOWER_CASE.length; c++) {
+            LOWER_CASE[c] = (byte) Character.toLowerCase(c);
+        }
+    }
+
+    private final PalindromeParser fallback = new ManacherPalindromeParser();
+    private final Path directory;
+    private final int maxPalindrome;
+    private final int regionBits;
+
+    public MappedManacherPalindromeParser(
+            @Value("${palindrome.service.mapped.directory:${java.io.tmpdir}}") String directory,
+            @Value("${palindrome.service.mapped.max-palindrome:16777216}") int maxPalindrome,
+            @Value("${palindrome.service.mapped.region-bits:30}") int regionBits) {
+        if (regionBits < 2 || regionBits > 30) {
+            throw new IllegalArgumentException("Region bits must be from 2 to 30 : " + regionBits);
+        }
+        this.directory = Path.of(directory);
+        this.maxPalindrome = maxPalindrome;
+        this.regionBits = regionBits;
+    }
+
+    @Override
+    public PalindromeSolution parse(String text) {
+        return parse(text, new ParseOptions());
+    }
+
+    @Override
+    public PalindromeSolution parse(String text, ParseOptions options) {
+        byte[] bytes = new byte[text.length()];
+        for (int i = 0; i < bytes.length; i++) {
+            char c = text.charAt(i);
+            if (c > 0xFF) {
+                return fallback.parse(text, options);
+            }
+            bytes[i] = (byte) c;
+        }
+        try {
+            return parse(MappedBytes.wrap(bytes), options);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public PalindromeSolution parse(Path file, ParseOptions options) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            logger.debug("Mapping {} bytes of {}", channel.size(), file);
+            return parse(MappedBytes.map(channel, FileChannel.MapMode.READ_ONLY, channel.size(), regionBits),
+                    options);
+        }
+    }
+
+    // as ManacherPalindromeParser, with separators implied at even positions and each unit at odd position i
+    // being text[i / 2], but with long positions and radii read from and written to the mapped file
+    private PalindromeSolution parse(MappedBytes text, ParseOptions options) throws IOException {
+        long positions = text.length() * 2 + 1;
+        long scanned = positions;
+        long center = 0, right = 0;
+        long longestCentre = 0, longestRadius = 0;
+        try (MappedRadii p = new MappedRadii(directory, positions, regionBits)) {
+            for (long i = 0; i < positions; i++) {
+                if ((i & STOP_CHECK_INTERVAL) == 0 && options.shouldStop()) {
+                    scanned = i;
+                    break;
+                }
+                long radius = right > i ? Math.min(right - i, p.get(2 * center - i)) : 0;
+
+                // separators always match each other
+                while (i - radius > 0 && i + radius < positions - 1
+                        && (((i + radius) & 1) == 1 || LOWER_CASE[text.get((i + radius + 1) >> 1) & 0xFF]
+                        == LOWER_CASE[text.get((i - radius - 1) >> 1) & 0xFF]))
+                    radius++;
+                p.set(i, radius);
+
+                if (i + radius > right) {
+                    center = i;
+                    right = i + radius;
+                }
+                if (radius > longestRadius) {
+                    longestCentre = i;
+                    longestRadius = radius;
+                }
+            }
+        }
+        if (scanned < positions) {
+            logger.debug("Stopped parsing after {} of {} positions", scanned, positions);
+        }
+
+        long start = (longestCentre - longestRadius) / 2;
+        long end = start + longestRadius;
+        return new PalindromeSolution((int) Math.min(longestRadius, Integer.MAX_VALUE),
+                palindrome(text, start, end), start, end)
+                .withPartial(scanned < positions);
+    }
+
+    private String palindrome(MappedBytes text, long start, long end) {
+        if (end - start > maxPalindrome) {
+            logger.debug("Reporting the offsets alone of a palindrome of {} bytes", end - start);
+            return null;
+        }
+        return new String(text.copy(start, (int) (end - start)), StandardCharsets.ISO_8859_1).toLowerCase();
+    }
+}
@@ -0,0 +1,50 @@
+package com.quickcamel.winnow.palindromes.service.parser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.file.StandardOpenOption.DELETE_ON_CLOSE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Palindrome radii for a long range of positions, an int each, mapped from a temporary file off the heap.
+ * <p>
+ * Radii too long for an int are saturated, keeping their parity. A saturated radius read back about a mirrored centre
+ * is then only a lower bound, from which Manacher expands as it would from any other, so results are unaffected.
+ * The file is deleted once closed, though its space is only released when the mapping is collected.
+ */
+class MappedRadii implements Closeable {
+
+    private final FileChannel channel;
+    private final MappedBytes radii;
+
+    MappedRadii(Path directory, long positions, int regionBits) throws IOException {
+        Path file = Files.createTempFile(directory, "radii", ".bin");
+        channel = FileChannel.open(file, READ, WRITE, DELETE_ON_CLOSE);
+        try {
+            radii = MappedBytes.map(channel, FileChannel.MapMode.READ_WRITE, positions * Integer.BYTES,
+                    Math.max(regionBits, 2));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    long get(long position) {
+        return radii.getInt(position * Integer.BYTES);
+    }
+
+    void set(long position, long radius) {
+        radii.putInt(position * Integer.BYTES,
+                radius <= Integer.MAX_VALUE ? (int) radius : Integer.MAX_VALUE - (int) (~radius & 1));
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
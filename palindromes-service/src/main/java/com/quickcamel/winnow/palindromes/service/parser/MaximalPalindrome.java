@@ -0,0 +1,38 @@
+package com.quickcamel.winnow.palindromes.service.parser;
+
+/**
+ * A palindrome that cannot be extended further around its centre, with its offsets in the text, end exclusive.
+ */
+public class MaximalPalindrome {
+
+    private String palindrome;
+    private Long start;
+    private Long end;
+
+    public MaximalPalindrome(String palindrome, Long start, Long end) {
+        this.palindrome = palindrome;
+        this.start = start;
+        this.end = end;
+    }
+
+    public String getPalindrome() {
+        return palindrome;
+    }
+
+    public Long getStart() {
+        return start;
+    }
+
+    public Long getEnd() {
+        return end;
+    }
+
+    @Override
+    public String toString() {
+        return "MaximalPalindrome{" +
+                "palindrome='" + palindrome + '\'' +
+                ", start=" + start +
+                ", end=" + end +
+                '}';
+    }
+}
@@ -0,0 +1,85 @@
+package com.quickcamel.winnow.palindromes.service.parser;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the longest of the maximal palindromes offered to it, up to a fixed capacity.
+ * <p>
+ * Each palindrome is packed into a long, its length in the high bits and its inverted centre in the low,
+ * so comparing keys ranks longer palindromes first, then those with earlier centres.
+ * The keys form a min-heap, so the root is the palindrome to evict when a better one is offered.
+ */
+class MaximalPalindromeHeap {
+
+    private final long[] heap;
+    private int size;
+
+    MaximalPalindromeHeap(int capacity) {
+        this.heap = new long[capacity];
+    }
+
+    void offer(int centre, int length) {
+        long key = (long) length << 32 | (0xFFFFFFFFL - centre);
+        if (size < heap.length) {
+            heap[size] = key;
+            siftUp(size++);
+        } else if (size > 0 && key > heap[0]) {
+            heap[0] = key;
+            siftDown(0);
+        }
+    }
+
+    boolean isFull() {
+        return size == heap.length;
+    }
+
+    // the keys held, best first
+    long[] bestFirst() {
+        long[] keys = Arrays.copyOf(heap, size);
+        Arrays.sort(keys);
+        for (int i = 0, j = keys.length - 1; i < j; i++, j--) {
+            long key = keys[i];
+            keys[i] = keys[j];
+            keys[j] = key;
+        }
+        return keys;
+    }
+
+    static int centre(long key) {
+        return (int) (0xFFFFFFFFL - (key & 0xFFFFFFFFL));
+    }
+
+    static int length(long key) {
+        return (int) (key >>> 32);
+    }
+
+    private void siftUp(int index) {
+        long key = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent] <= key) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = key;
+    }
+
+    private void siftDown(int index) {
+        long key = heap[index];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            if (child + 1 < size && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (key <= heap[child]) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = key;
+    }
+}
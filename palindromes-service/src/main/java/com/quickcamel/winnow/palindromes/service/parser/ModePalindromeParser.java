@@ -0,0 +1,40 @@
+package com.quickcamel.winnow.palindromes.service.parser;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Routes each parse to the parser supporting the mode asked for,
+ * falling back to the deployment's chosen parser for the longest palindrome,
+ * or to the normalizing parser when the longest palindrome is asked for with normalizations or statistics.
+ */
+public class ModePalindromeParser implements PalindromeParser {
+
+    private final PalindromeParser longestParser;
+    private final PalindromeParser normalizingParser;
+    private final Map<ParseOptions.Mode, PalindromeParser> modeParsers;
+
+    public ModePalindromeParser(PalindromeParser longestParser, PalindromeParser normalizingParser,
+                                Map<ParseOptions.Mode, PalindromeParser> modeParsers) {
+        this.longestParser = longestParser;
+        this.normalizingParser = normalizingParser;
+        this.modeParsers = modeParsers;
+    }
+
+    @Override
+    public PalindromeSolution parse(String text) {
+        return longestParser.parse(text);
+    }
+
+    @Override
+    public PalindromeSolution parse(String text, ParseOptions options) {
+        PalindromeParser defaultParser = options.getNormalizations().isEmpty() && !options.isStatistics()
+                ? longestParser : normalizingParser;
+        return modeParsers.getOrDefault(options.getMode(), defaultParser).parse(text, options);
+    }
+
+    @Override
+    public PalindromeBatch parseAll(List<? extends CharSequence> texts) {
+        return longestParser.parseAll(texts);
+    }
+}
@@ -0,0 +1,51 @@
+package com.quickcamel.winnow.palindromes.service.parser;
+
+import java.util.List;
+
+/**
+ * The longest palindromes of a batch of texts, held as their offsets within each text,
+ * so a batch allocates only these arrays however many texts it holds.
+ * Each palindrome is only copied from its text when asked for.
+ */
+public class PalindromeBatch {
+
+    private final List<? extends CharSequence> texts;
+    private final int[] starts;
+    private final int[] ends;
+
+    PalindromeBatch(List<? extends CharSequence> texts) {
+        this.texts = texts;
+        this.starts = new int[texts.size()];
+        this.ends = new int[texts.size()];
+    }
+
+    void set(int item, int start, int end) {
+        starts[item] = start;
+        ends[item] = end;
+    }
+
+    public int size() {
+        return starts.length;
+    }
+
+    public int getStart(int item) {
+        return starts[item];
+    }
+
+    public int getEnd(int item) {
+        return ends[item];
+    }
+
+    public int getLength(int item) {
+        return ends[item] - starts[item];
+    }
+
+    // in lower case, as the longest palindrome is reported
+    public String getPalindrome(int item) {
+        return texts.get(item).subSequence(starts[item], ends[item]).toString().toLowerCase();
+    }
+
+    public PalindromeSolution getSolution(int item) {
+        return new PalindromeSolution(getLength(item), getPalindrome(item), (long) starts[item], (long) ends[item]);
+    }
+}
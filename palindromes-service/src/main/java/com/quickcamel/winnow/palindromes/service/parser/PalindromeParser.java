@@ -1,7 +1,25 @@
 package com.quickcamel.winnow.palindromes.service.parser;
 
+import java.util.List;
+
 @FunctionalInterface
 public interface PalindromeParser {
 
     PalindromeSolution parse(String text);
+
+    // parsers ignore options they do not support, solving for the longest palindrome
+    default PalindromeSolution parse(String text, ParseOptions options) {
+        return parse(text);
+    }
+
+    // the longest palindrome of each text, parsed one by one unless a parser can share its work between them
+    default PalindromeBatch parseAll(List<? extends CharSequence> texts) {
+        PalindromeBatch batch = new PalindromeBatch(texts);
+        for (int item = 0; item < texts.size(); item++) {
+            PalindromeSolution solution = parse(texts.get(item).toString());
+            int start = solution.getStart() != null ? solution.getStart().intValue() : 0;
+            batch.set(item, start, start + solution.getLargestPalindromeLength());
+        }
+        return batch;
+    }
 }
@@ -1,15 +1,37 @@
 package com.quickcamel.winnow.palindromes.service.parser;
 
+import java.util.List;
+
 public class PalindromeSolution {
 
     private Integer largestPalindromeLength;
     private String largestPalindrome;
+    // offsets of the largest palindrome within the parsed text, end exclusive
+    private Long start;
+    private Long end;
+    private List<DistinctPalindrome> distinctPalindromes;
+    private List<MaximalPalindrome> maximalPalindromes;
+    private PalindromeStatistics statistics;
+    // whether parsing stopped before the end of the text, so palindromes beyond it may have been missed
+    private boolean partial;
+    // the progress of a resumable parser, to resume from once the text is appended to
+    private byte[] state;
+    // the radius about every centre of the text, ignoring case, when asked for and the whole text was parsed,
+    // then packed for the text to be indexed, the packed radii alone being kept with a reused solution
+    private int[] radii;
+    private byte[] packedRadii;
 
     public PalindromeSolution(Integer largestPalindromeLength, String largestPalindrome) {
         this.largestPalindromeLength = largestPalindromeLength;
         this.largestPalindrome = largestPalindrome;
     }
 
+    public PalindromeSolution(Integer largestPalindromeLength, String largestPalindrome, Long start, Long end) {
+        this(largestPalindromeLength, largestPalindrome);
+        this.start = start;
+        this.end = end;
+    }
+
     public Integer getLargestPalindromeLength() {
         return largestPalindromeLength;
     }
@@ -17,4 +39,75 @@ public class PalindromeSolution {
     public String getLargestPalindrome() {
         return largestPalindrome;
     }
+
+    public Long getStart() {
+        return start;
+    }
+
+    public Long getEnd() {
+        return end;
+    }
+
+    public List<DistinctPalindrome> getDistinctPalindromes() {
+        return distinctPalindromes;
+    }
+
+    public List<MaximalPalindrome> getMaximalPalindromes() {
+        return maximalPalindromes;
+    }
+
+    public PalindromeStatistics getStatistics() {
+        return statistics;
+    }
+
+    public boolean isPartial() {
+        return partial;
+    }
+
+    public byte[] getState() {
+        return state;
+    }
+
+    public int[] getRadii() {
+        return radii;
+    }
+
+    public byte[] getPackedRadii() {
+        return packedRadii;
+    }
+
+    public PalindromeSolution withDistinctPalindromes(final List<DistinctPalindrome> distinctPalindromes) {
+        this.distinctPalindromes = distinctPalindromes;
+        return this;
+    }
+
+    public PalindromeSolution withMaximalPalindromes(final List<MaximalPalindrome> maximalPalindromes) {
+        this.maximalPalindromes = maximalPalindromes;
+        return this;
+    }
+
+    public PalindromeSolution withStatistics(final PalindromeStatistics statistics) {
+        this.statistics = statistics;
+        return this;
+    }
+
+    public PalindromeSolution withPartial(final boolean partial) {
+        this.partial = partial;
+        return this;
+    }
+
+    public PalindromeSolution withState(final byte[] state) {
+        this.state = state;
+        return this;
+    }
+
+    public PalindromeSolution withRadii(final int[] radii) {
+        this.radii = radii;
+        return this;
+    }
+
+    public PalindromeSolution withPackedRadii(final byte[] packedRadii) {
+        this.packedRadii = packedRadii;
+        return this;
+    }
 }
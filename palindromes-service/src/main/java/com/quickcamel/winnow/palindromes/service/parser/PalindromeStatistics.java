@@ -0,0 +1,85 @@
+package com.quickcamel.winnow.palindromes.service.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Aggregates of every palindromic substring of a text, counted from the radius of the longest palindrome
+ * about each centre as a parse finds it, so without another pass over the text.
+ * <p>
+ * Each centre with radius r holds the palindromes of lengths r, r - 2, ... down to one or two chars.
+ * These are counted in all, by length in power of two buckets, and, those of two or more chars,
+ * by the region of the text their centre lies in.
+ */
+public class PalindromeStatistics {
+
+    // regions the text is divided into, at most
+    private static final int REGIONS = 16;
+
+    private final int regionLength;
+    private long palindromes;
+    // histogram[k] counts palindromes of 2^k to 2^(k + 1) - 1 chars
+    private final long[] histogram = new long[32];
+    // palindromes of two or more chars centred in each region
+    private final long[] regions;
+    private final int length;
+
+    // for a text of the given length in units, centres at positions 0 to 2 * length
+    PalindromeStatistics(int length) {
+        this.length = length;
+        this.regionLength = Math.max(1, (length + REGIONS - 1) / REGIONS);
+        this.regions = new long[(length + regionLength - 1) / regionLength];
+    }
+
+    void add(int centre, int radius) {
+        if (radius == 0) {
+            return;
+        }
+        // lengths of the same parity as the radius, from the shortest up to the radius
+        palindromes += (radius + 1) / 2;
+        for (int k = 0; 1L << k <= radius; k++) {
+            histogram[k] += between(1L << k, Math.min((2L << k) - 1, radius), radius & 1);
+        }
+        if (radius >= 2) {
+            // the unit left of the centre holds a centre on a gap
+            regions[(centre - 1) / 2 / regionLength] += radius / 2;
+        }
+    }
+
+    // how many lengths from low to high have the given parity
+    private static long between(long low, long high, int parity) {
+        long first = (low & 1) == parity ? low : low + 1;
+        return first > high ? 0 : (high - first) / 2 + 1;
+    }
+
+    public long getPalindromes() {
+        return palindromes;
+    }
+
+    // counts by length, up to the bucket of the longest palindrome
+    public List<Long> getLengthHistogram() {
+        int buckets = histogram.length;
+        while (buckets > 0 && histogram[buckets - 1] == 0) {
+            buckets--;
+        }
+        List<Long> counts = new ArrayList<>(buckets);
+        for (int k = 0; k < buckets; k++) {
+            counts.add(histogram[k]);
+        }
+        return counts;
+    }
+
+    // palindromes of two or more chars centred in each region, per unit of the region
+    public List<Double> getDensities() {
+        List<Double> densities = new ArrayList<>(regions.length);
+        for (int region = 0; region < regions.length; region++) {
+            int units = Math.min(regionLength, length - region * regionLength);
+            densities.add((double) regions[region] / units);
+        }
+        return densities;
+    }
+
+    public int getRegionLength() {
+        return regionLength;
+    }
+}
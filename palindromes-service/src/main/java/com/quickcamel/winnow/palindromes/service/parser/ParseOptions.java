@@ -0,0 +1,180 @@
+package com.quickcamel.winnow.palindromes.service.parser;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * What a task asks of the parser, beyond its text.
+ */
+public class ParseOptions {
+
+    public enum Mode {
+        // the single longest palindrome
+        LONGEST,
+        // every distinct palindrome, with the number of times it occurs
+        DISTINCT,
+        // the longest palindromes that cannot be extended around their centres
+        MAXIMAL,
+        // the longest sequence of words reading the same forwards and backwards
+        WORDS
+    }
+
+    // differences between characters to disregard when matching them, reporting palindromes as they appear in the text
+    public enum Normalization {
+        CASE,
+        PUNCTUATION,
+        WHITESPACE,
+        DIACRITICS
+    }
+
+    private Mode mode = Mode.LONGEST;
+    private int minLength = 1;
+    private int limit = Integer.MAX_VALUE;
+    private boolean nonOverlapping;
+    private Set<Normalization> normalizations = EnumSet.noneOf(Normalization.class);
+    // when to stop parsing, in epoch milliseconds
+    private long deadline = Long.MAX_VALUE;
+    private CancellationToken cancellationToken;
+    // whether to count every palindromic substring as the text is parsed
+    private boolean statistics;
+    // whether to keep the radius about every centre on the solution, for the text to be indexed
+    private boolean radii;
+    // told of the parse's progress at most once every progressInterval milliseconds
+    private ProgressListener progressListener;
+    private long progressInterval;
+    // when progress is next due, in epoch milliseconds, claimed by one of the threads of a parallel parse
+    private final AtomicLong progressDue = new AtomicLong(Long.MAX_VALUE);
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public int getMinLength() {
+        return minLength;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public boolean isNonOverlapping() {
+        return nonOverlapping;
+    }
+
+    public Set<Normalization> getNormalizations() {
+        return normalizations;
+    }
+
+    public long getDeadline() {
+        return deadline;
+    }
+
+    public CancellationToken getCancellationToken() {
+        return cancellationToken;
+    }
+
+    public boolean isStatistics() {
+        return statistics;
+    }
+
+    public boolean isRadii() {
+        return radii;
+    }
+
+    public ProgressListener getProgressListener() {
+        return progressListener;
+    }
+
+    public long getProgressInterval() {
+        return progressInterval;
+    }
+
+    // whether the parse has passed its deadline or been cancelled, so should return the best palindrome so far
+    public boolean shouldStop() {
+        return cancellationToken != null && cancellationToken.isCancelled()
+                || deadline != Long.MAX_VALUE && System.currentTimeMillis() >= deadline;
+    }
+
+    // whether progress is due to be reported, checked along with shouldStop, claiming the report when it is
+    public boolean isProgressDue() {
+        if (progressListener == null) {
+            return false;
+        }
+        long due = progressDue.get();
+        long now = System.currentTimeMillis();
+        return now >= due && progressDue.compareAndSet(due, now + progressInterval);
+    }
+
+    public void reportProgress(double fraction, PalindromeSolution longestSoFar) {
+        progressListener.progressed(Math.min(fraction, 1.0), longestSoFar);
+    }
+
+    public ParseOptions withMode(final Mode mode) {
+        this.mode = mode;
+        return this;
+    }
+
+    public ParseOptions withMinLength(final int minLength) {
+        this.minLength = minLength;
+        return this;
+    }
+
+    public ParseOptions withLimit(final int limit) {
+        this.limit = limit;
+        return this;
+    }
+
+    public ParseOptions withNonOverlapping(final boolean nonOverlapping) {
+        this.nonOverlapping = nonOverlapping;
+        return this;
+    }
+
+    public ParseOptions withNormalizations(final Set<Normalization> normalizations) {
+        this.normalizations = normalizations;
+        return this;
+    }
+
+    public ParseOptions withDeadline(final long deadline) {
+        this.deadline = deadline;
+        return this;
+    }
+
+    public ParseOptions withCancellationToken(final CancellationToken cancellationToken) {
+        this.cancellationToken = cancellationToken;
+        return this;
+    }
+
+    public ParseOptions withStatistics(final boolean statistics) {
+        this.statistics = statistics;
+        return this;
+    }
+
+    public ParseOptions withRadii(final boolean radii) {
+        this.radii = radii;
+        return this;
+    }
+
+    // progress is first reported once the interval has passed, sparing parses shorter than that
+    public ParseOptions withProgressListener(final ProgressListener progressListener, final long progressInterval) {
+        this.progressListener = progressListener;
+        this.progressInterval = progressInterval;
+        this.progressDue.set(System.currentTimeMillis() + progressInterval);
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "ParseOptions{" +
+                "mode=" + mode +
+                ", minLength=" + minLength +
+                ", limit=" + limit +
+                ", nonOverlapping=" + nonOverlapping +
+                ", normalizations=" + normalizations +
+                ", deadline=" + deadline +
+                ", statistics=" + statistics +
+                ", radii=" + radii +
+                ", progressInterval=" + progressInterval +
+                '}';
+    }
+}
@@ -0,0 +1,10 @@
+package com.quickcamel.winnow.palindromes.service.parser;
+
+/**
+ * Told how far a parse has got, as the share of the text scanned, with the longest palindrome found so far.
+ */
+@FunctionalInterface
+public interface ProgressListener {
+
+    void progressed(double fraction, PalindromeSolution longestSoFar);
+}
@@ -0,0 +1,14 @@
+package com.quickcamel.winnow.palindromes.service.parser;
+
+/**
+ * A parser able to save its progress through a text, so the text may be appended to and parsed again
+ * without repeating the work for the characters already parsed.
+ */
+public interface ResumablePalindromeParser {
+
+    /**
+     * @param state the {@link PalindromeSolution#getState()} of a parse of text this text starts with,
+     *              or null to parse from the beginning
+     */
+    PalindromeSolution parse(String text, byte[] state, ParseOptions options);
+}
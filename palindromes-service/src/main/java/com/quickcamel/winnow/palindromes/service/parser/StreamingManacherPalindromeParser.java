@@ -0,0 +1,158 @@
+package com.quickcamel.winnow.palindromes.service.parser;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+
+/**
+ * Runs Manacher over a bounded window that slides across the text as it is read,
+ * so memory use depends on the window size rather than the size of the problem.
+ * <p>
+ * Consecutive windows share {@code overlap} characters, so any palindrome no longer than the overlap
+ * is always seen whole, and the result then matches {@link ManacherPalindromeParser}.
+ * A longer palindrome is only found whole if it fits within a single window. Should one reach the end of a window
+ * from before the start of the next, it is never seen whole, so the solution is marked partial, the longest
+ * palindrome reported possibly being a fragment of it or shorter than it.
+ * Windows are matched by code point, ignoring case, and never end within a surrogate pair.
+ */
+@Component("streaming")
+public class StreamingManacherPalindromeParser implements PalindromeParser, StreamingPalindromeParser {
+    private static final Logger logger = LoggerFactory.getLogger(StreamingManacherPalindromeParser.class);
+
+    private final int windowSize;
+    private final int overlap;
+
+    public StreamingManacherPalindromeParser(@Value("${palindrome.service.streaming.window:1048576}") int windowSize,
+                                             @Value("${palindrome.service.streaming.overlap:262144}") int overlap) {
+        // each window moves on at least two chars, so it still moves on when kept from ending within a pair
+        if (windowSize <= 0 || overlap < 0 || overlap > windowSize - 2) {
+            throw new IllegalArgumentException(
+                    "Window size must be at least two larger than the overlap : " + windowSize + ", " + overlap);
+        }
+        this.windowSize = windowSize;
+        this.overlap = overlap;
+    }
+
+    @Override
+    public PalindromeSolution parse(String text) {
+        try {
+            return parse(new StringReader(text));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public PalindromeSolution parse(Reader reader) throws IOException {
+        char[] window = new char[windowSize];
+        // the code points of the window folded to lower case, where each starts in the window, and its end after them,
+        // and the palindrome radius centred at each position, alternating between the gaps around code points and them
+        int[] units = new int[windowSize];
+        int[] offsets = new int[windowSize + 1];
+        int[] p = new int[windowSize * 2 + 1];
+
+        long windowStart = 0;
+        int filled = 0;
+        int windows = 0;
+        int bestLength = 0;
+        long bestStart = 0;
+        String best = "";
+        boolean exhausted = false;
+        boolean partial = false;
+        while (!exhausted) {
+            int read;
+            while (filled < windowSize && (read = reader.read(window, filled, windowSize - filled)) != -1) {
+                filled += read;
+            }
+            exhausted = filled < windowSize;
+
+            // a pair split by the end of the window is left whole to the next
+            int end = !exhausted && Character.isHighSurrogate(window[filled - 1]) ? filled - 1 : filled;
+            int length = codePoints(window, end, units, offsets);
+            int positions = length * 2 + 1;
+            int centre = longestPalindromeCentre(units, positions, p);
+            windows++;
+            int offset = offsets[(centre - p[centre]) / 2];
+            int palindromeEnd = offsets[(centre + p[centre]) / 2];
+            if (palindromeEnd - offset > bestLength) {
+                bestLength = palindromeEnd - offset;
+                bestStart = windowStart + offset;
+                best = new String(window, offset, bestLength).toLowerCase();
+            }
+            if (exhausted) {
+                break;
+            }
+
+            // slide the window, keeping the overlap so palindromes spanning the boundary are seen whole
+            int next = Math.min(end, filled - overlap);
+            if (next < filled && Character.isLowSurrogate(window[next]) && Character.isHighSurrogate(window[next - 1])) {
+                next--;
+            }
+            if (!partial && crossesInto(offsets, positions, p, next)) {
+                logger.debug("A palindrome longer than the overlap crosses into the window from {}", windowStart + next);
+                partial = true;
+            }
+            System.arraycopy(window, next, window, 0, filled - next);
+            windowStart += next;
+            filled -= next;
+        }
+        logger.debug("Parsed {} characters over {} windows", windowStart + filled, windows);
+        return new PalindromeSolution(bestLength, best, bestStart, bestStart + bestLength).withPartial(partial);
+    }
+
+    // the code points of the first chars of the window, folded to lower case, returning how many there are
+    private static int codePoints(char[] window, int end, int[] units, int[] offsets) {
+        int length = 0;
+        for (int i = 0; i < end; ) {
+            int codePoint = Character.codePointAt(window, i, end);
+            offsets[length] = i;
+            units[length++] = Character.toLowerCase(codePoint);
+            i += Character.charCount(codePoint);
+        }
+        offsets[length] = end;
+        return length;
+    }
+
+    // Manacher over the code points of the window, with separators implied by position and bounds checked,
+    // so the code point at odd position i is units[i / 2], and the longest palindrome centred at i
+    // runs from code point (i - p[i]) / 2 to (i + p[i]) / 2, exclusive
+    private static int longestPalindromeCentre(int[] units, int positions, int[] p) {
+        int center = 0, right = 0, longest = 0;
+        for (int i = 0; i < positions; i++) {
+            int mirror = 2 * center - i;
+            p[i] = right > i ? Math.min(right - i, p[mirror]) : 0;
+
+            // attempt to expand palindrome centered at i, separators always match each other
+            while (i - p[i] > 0 && i + p[i] < positions - 1
+                    && (((i + p[i]) & 1) == 1 || units[(i + p[i] + 1) >> 1] == units[(i - p[i] - 1) >> 1])) {
+                p[i]++;
+            }
+
+            if (i + p[i] > right) {
+                center = i;
+                right = i + p[i];
+            }
+            if (p[i] > p[longest]) {
+                longest = i;
+            }
+        }
+        return longest;
+    }
+
+    // whether a palindrome reaching the end of the window starts before the char the next window starts from,
+    // so may run on beyond the window without ever being seen whole
+    private static boolean crossesInto(int[] offsets, int positions, int[] p, int next) {
+        for (int i = 0; i < positions; i++) {
+            if (i + p[i] == positions - 1 && p[i] > 0 && offsets[(i - p[i]) / 2] < next) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,13 @@
+package com.quickcamel.winnow.palindromes.service.parser;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Parses text as it is read, rather than requiring the whole problem to be held in memory.
+ */
+@FunctionalInterface
+public interface StreamingPalindromeParser {
+
+    PalindromeSolution parse(Reader reader) throws IOException;
+}
@@ -0,0 +1,109 @@
+package com.quickcamel.winnow.palindromes.service.parser;
+
+import org.springframework.stereotype.Component;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * Manacher expanding each palindrome eight characters at a time.
+ * <p>
+ * Expanding around a centre compares the text running right with the text running left,
+ * which is the reversed text running right, so both are read as longs from the case folded text and a reversed copy.
+ * The first differing byte of two longs is found from the trailing zeros of their exclusive or.
+ * Only Latin-1 text packs a character per byte, anything else is left to {@link ManacherPalindromeParser}.
+ */
+@Component("swar")
+public class SwarManacherPalindromeParser implements PalindromeParser {
+
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    // positions scanned between checks whether to stop, less one
+    private static final int STOP_CHECK_INTERVAL = 0xFFF;
+
+    private final PalindromeParser fallback = new ManacherPalindromeParser();
+
+    @Override
+    public PalindromeSolution parse(String text) {
+        return parse(text, new ParseOptions());
+    }
+
+    @Override
+    public PalindromeSolution parse(String text, ParseOptions options) {
+        int n = text.length();
+        byte[] s = new byte[n];
+        byte[] reversed = new byte[n];
+        for (int i = 0; i < n; i++) {
+            char c = text.charAt(i);
+            if (c > 0xFF) {
+                return fallback.parse(text, options);
+            }
+            s[i] = (byte) Character.toLowerCase(c);
+            reversed[n - 1 - i] = s[i];
+        }
+
+        // positions alternate separator, character, separator, ... so the character at odd position i is s[i / 2],
+        // and every palindrome found both starts and ends on a separator
+        int[] p = new int[n * 2 + 1];
+        int center = 0, right = 0;
+        int longestCentre = 0, longestRadius = 0;
+        boolean partial = false;
+        for (int i = 0; i < p.length; i++) {
+            if ((i & STOP_CHECK_INTERVAL) == 0) {
+                if (options.shouldStop()) {
+                    partial = true;
+                    break;
+                }
+                if (options.isProgressDue()) {
+                    options.reportProgress((double) i / p.length,
+                            solution(text, longestCentre, longestRadius).withPartial(true));
+                }
+            }
+            // a character is a palindrome by itself, so expansion starts from the separators either side of it
+            int radius = right > i ? Math.min(right - i, p[2 * center - i]) : i & 1;
+
+            // characters either side of the palindrome, the left one read from the reversed text
+            int after = (i + radius) >> 1;
+            int before = (i - radius) >> 1;
+            radius += 2 * matching(s, after, reversed, n - before, Math.min(before, n - after));
+            p[i] = radius;
+
+            if (i + radius > right) {
+                center = i;
+                right = i + radius;
+            }
+            if (radius > longestRadius) {
+                longestCentre = i;
+                longestRadius = radius;
+            }
+        }
+
+        return solution(text, longestCentre, longestRadius).withPartial(partial);
+    }
+
+    private static PalindromeSolution solution(String text, int centre, int radius) {
+        int start = (centre - radius) / 2;
+        int end = start + radius;
+        return new PalindromeSolution(radius, text.substring(start, end).toLowerCase(), (long) start, (long) end);
+    }
+
+    // how many of the first limit bytes of a from aFrom and b from bFrom are equal
+    static int matching(byte[] a, int aFrom, byte[] b, int bFrom, int limit) {
+        // most expansions stop at once, so check the first byte before reading longs
+        if (limit == 0 || a[aFrom] != b[bFrom]) {
+            return 0;
+        }
+        int matched = 0;
+        while (matched + Long.BYTES <= limit) {
+            long difference = (long) LONGS.get(a, aFrom + matched) ^ (long) LONGS.get(b, bFrom + matched);
+            if (difference != 0) {
+                return matched + (Long.numberOfTrailingZeros(difference) >>> 3);
+            }
+            matched += Long.BYTES;
+        }
+        while (matched < limit && a[aFrom + matched] == b[bFrom + matched]) {
+            matched++;
+        }
+        return matched;
+    }
+}
@@ -0,0 +1,78 @@
+package com.quickcamel.winnow.palindromes.service.parser;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Finds the longest sequence of words reading the same forwards and backwards,
+ * such as "fall leaves after leaves fall".
+ * <p>
+ * The text is tokenized once into {@link WordTokens}, and Manacher runs over their ids,
+ * with separators implied by position as in {@link CompactManacherPalindromeParser}.
+ * The palindrome is returned as it appears in the text, from its first word to its last.
+ */
+@Component("words")
+public class WordPalindromeParser implements PalindromeParser {
+
+    // positions scanned between checks whether to stop, less one
+    private static final int STOP_CHECK_INTERVAL = 0xFFF;
+
+    @Override
+    public PalindromeSolution parse(String text) {
+        return parse(text, new ParseOptions());
+    }
+
+    @Override
+    public PalindromeSolution parse(String text, ParseOptions options) {
+        WordTokens tokens = WordTokens.tokenize(text);
+        // positions alternate separator, word, separator, ... so the word at odd position i is token i / 2
+        int positions = tokens.count() * 2 + 1;
+        int[] p = new int[positions];
+
+        int center = 0, right = 0;
+        int longestCentre = 0, longestRadius = 0;
+        boolean partial = false;
+        for (int i = 0; i < positions; i++) {
+            if ((i & STOP_CHECK_INTERVAL) == 0) {
+                if (options.shouldStop()) {
+                    partial = true;
+                    break;
+                }
+                if (options.isProgressDue()) {
+                    options.reportProgress((double) i / positions,
+                            solution(text, tokens, longestCentre, longestRadius).withPartial(true));
+                }
+            }
+            int radius = right > i ? Math.min(right - i, p[2 * center - i]) : 0;
+
+            // attempt to expand palindrome centered at i, separators always match each other
+            while (i - radius > 0 && i + radius < positions - 1) {
+                int next = i + radius + 1;
+                if ((next & 1) == 1 && tokens.id(next >> 1) != tokens.id((i - radius - 1) >> 1)) {
+                    break;
+                }
+                radius++;
+            }
+            p[i] = radius;
+
+            if (i + radius > right) {
+                center = i;
+                right = i + radius;
+            }
+            if (radius > longestRadius) {
+                longestCentre = i;
+                longestRadius = radius;
+            }
+        }
+
+        return solution(text, tokens, longestCentre, longestRadius).withPartial(partial);
+    }
+
+    private static PalindromeSolution solution(String text, WordTokens tokens, int centre, int radius) {
+        if (radius == 0) {
+            return new PalindromeSolution(0, "", 0L, 0L);
+        }
+        int start = tokens.start((centre - radius) / 2);
+        int end = tokens.end((centre + radius) / 2 - 1);
+        return new PalindromeSolution(end - start, text.substring(start, end), (long) start, (long) end);
+    }
+}
@@ -0,0 +1,147 @@
+package com.quickcamel.winnow.palindromes.service.parser;
+
+import java.util.Arrays;
+
+/**
+ * The words of a text, each a run of letters and digits, as interned ids alongside their offsets in the text.
+ * <p>
+ * Words equal ignoring case share an id. They are interned in an open addressing table of the offsets of each
+ * id's first occurrence, so tokenizing compares words in place rather than allocating a string per word.
+ * Tokens and table alike grow as words are found, rather than being sized for the most words the text could hold.
+ */
+final class WordTokens {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int[] ids;
+    private final int[] starts;
+    private final int[] ends;
+    private final int count;
+
+    private WordTokens(int[] ids, int[] starts, int[] ends, int count) {
+        this.ids = ids;
+        this.starts = starts;
+        this.ends = ends;
+        this.count = count;
+    }
+
+    static WordTokens tokenize(String text) {
+        int[] ids = new int[INITIAL_CAPACITY];
+        int[] starts = new int[INITIAL_CAPACITY];
+        int[] ends = new int[INITIAL_CAPACITY];
+        // table slots hold the index of the first token with an id, plus one, so its id and offsets
+        int[] table = new int[INITIAL_CAPACITY * 2];
+        int distinct = 0;
+        int count = 0;
+
+        int i = 0;
+        while (i < text.length()) {
+            if (!Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+                continue;
+            }
+            int start = i;
+            while (i < text.length() && Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, count * 2);
+                starts = Arrays.copyOf(starts, count * 2);
+                ends = Arrays.copyOf(ends, count * 2);
+            }
+            starts[count] = start;
+            ends[count] = i;
+            int first = intern(text, table, starts, ends, count);
+            if (first == count) {
+                ids[count] = distinct++;
+                // the table is kept at most half full
+                if (distinct * 2 > table.length) {
+                    table = rehash(text, table, starts, ends);
+                }
+            } else {
+                ids[count] = ids[first];
+            }
+            count++;
+        }
+        return new WordTokens(ids, starts, ends, count);
+    }
+
+    // the first token equal to the given one, ignoring case, entering the token as the first if there is none
+    private static int intern(String text, int[] table, int[] starts, int[] ends, int token) {
+        int mask = table.length - 1;
+        for (int slot = hash(text, starts[token], ends[token]) & mask; ; slot = (slot + 1) & mask) {
+            int first = table[slot] - 1;
+            if (first < 0) {
+                table[slot] = token + 1;
+                return token;
+            }
+            if (equal(text, starts[first], ends[first], starts[token], ends[token])) {
+                return first;
+            }
+        }
+    }
+
+    private static int[] rehash(String text, int[] table, int[] starts, int[] ends) {
+        int[] grown = new int[table.length * 2];
+        int mask = grown.length - 1;
+        for (int entry : table) {
+            if (entry > 0) {
+                int slot = hash(text, starts[entry - 1], ends[entry - 1]) & mask;
+                while (grown[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                grown[slot] = entry;
+            }
+        }
+        return grown;
+    }
+
+    private static boolean equal(String text, int start, int end, int otherStart, int otherEnd) {
+        if (end - start != otherEnd - otherStart) {
+            return false;
+        }
+        for (int i = 0; i < end - start; i++) {
+            if (fold(text.charAt(start + i)) != fold(text.charAt(otherStart + i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(String text, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + fold(text.charAt(i));
+        }
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    // folds case as String.regionMatches does, so chars such as 'ſ' and 's', equal in upper case, fold alike
+    private static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    int count() {
+        return count;
+    }
+
+    int id(int token) {
+        return ids[token];
+    }
+
+    int start(int token) {
+        return starts[token];
+    }
+
+    int end(int token) {
+        return ends[token];
+    }
+
+    @Override
+    public String toString() {
+        return "WordTokens{" +
+                "ids=" + Arrays.toString(Arrays.copyOf(ids, count)) +
+                '}';
+    }
+}
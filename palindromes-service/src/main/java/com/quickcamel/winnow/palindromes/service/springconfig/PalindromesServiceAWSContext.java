@@ -1,28 +1,41 @@
 package com.quickcamel.winnow.palindromes.service.springconfig;
 
 
+import com.amazonaws.ClientConfiguration;
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClientBuilder;
+import com.quickcamel.winnow.palindromes.service.task.VirtualThreads;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.aws.messaging.config.SimpleMessageListenerContainerFactory;
 import org.springframework.cloud.aws.messaging.config.annotation.EnableSqs;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.concurrent.ConcurrentTaskExecutor;
 
 @Profile("!local")
 @Configuration
 @EnableSqs
 public class PalindromesServiceAWSContext {
 
+    // connections are raised from the default of 50 when calls are made from many virtual threads at once
     @Bean
-    public AmazonDynamoDB amazonDynamoDB() {
-        return AmazonDynamoDBClientBuilder.defaultClient();
+    public AmazonDynamoDB amazonDynamoDB(@Value("${palindrome.service.dynamodb.max-connections:50}") int maxConnections) {
+        return AmazonDynamoDBClientBuilder.standard()
+                .withClientConfiguration(new ClientConfiguration().withMaxConnections(maxConnections))
+                .build();
     }
 
     @Bean
-    public SimpleMessageListenerContainerFactory simpleMessageListenerContainerFactory() {
+    public SimpleMessageListenerContainerFactory simpleMessageListenerContainerFactory(
+            @Value("${palindrome.service.queue.max-messages:1}") int maxMessages,
+            @Value("${palindrome.service.virtual-threads.enabled:false}") boolean virtualThreads) {
         SimpleMessageListenerContainerFactory simpleMessageListenerContainerFactory = new SimpleMessageListenerContainerFactory();
-        simpleMessageListenerContainerFactory.setMaxNumberOfMessages(1);
+        simpleMessageListenerContainerFactory.setMaxNumberOfMessages(maxMessages);
+        if (virtualThreads) {
+            simpleMessageListenerContainerFactory.setTaskExecutor(
+                    new ConcurrentTaskExecutor(VirtualThreads.newPerTaskExecutor()));
+        }
         return simpleMessageListenerContainerFactory;
     }
 }
@@ -1,12 +1,36 @@
 package com.quickcamel.winnow.palindromes.service.springconfig;
 
 
+import com.quickcamel.winnow.palindromes.service.parser.ModePalindromeParser;
+import com.quickcamel.winnow.palindromes.service.parser.ParseOptions;
+import com.quickcamel.winnow.palindromes.service.parser.PalindromeParser;
 import org.socialsignin.spring.data.dynamodb.repository.config.EnableDynamoDBRepositories;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.util.Map;
 
 @Configuration
 @EnableDynamoDBRepositories(basePackages = "com.quickcamel.winnow.palindromes.repositories")
 @EntityScan(basePackages = "com.quickcamel.winnow.palindromes.entities")
 public class PalindromesServiceContext {
+
+    // parsers are registered under their component names, allowing each deployment to choose one
+    // to find the longest palindrome, while other modes are solved by the parser supporting them
+    @Bean
+    @Primary
+    public PalindromeParser palindromeParser(@Value("${palindrome.service.parser:adaptive}") String parserName,
+                                             BeanFactory beanFactory) {
+        return new ModePalindromeParser(
+                beanFactory.getBean(parserName, PalindromeParser.class),
+                beanFactory.getBean("manacher", PalindromeParser.class),
+                Map.of(
+                        ParseOptions.Mode.DISTINCT, beanFactory.getBean("eertree", PalindromeParser.class),
+                        ParseOptions.Mode.MAXIMAL, beanFactory.getBean("manacher", PalindromeParser.class),
+                        ParseOptions.Mode.WORDS, beanFactory.getBean("words", PalindromeParser.class)));
+    }
 }
@@ -8,6 +8,7 @@ import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClientBuilder;
 import com.amazonaws.services.sqs.AmazonSQSAsync;
 import com.amazonaws.services.sqs.AmazonSQSAsyncClientBuilder;
+import com.quickcamel.winnow.palindromes.service.task.VirtualThreads;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -16,6 +17,7 @@ import org.springframework.cloud.aws.messaging.config.SimpleMessageListenerConta
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.concurrent.ConcurrentTaskExecutor;
 
 @Configuration
 @Profile("local")
@@ -24,11 +26,12 @@ public class PalindromesServiceLocalContext {
     private static final Logger logger = LoggerFactory.getLogger(PalindromesServiceLocalContext.class);
 
     @Bean
-    public AmazonDynamoDB amazonDynamoDB(@Value("${palindrome.localstack.dynamodb.endpoint:http://localhost:4569/}") String endpoint) {
+    public AmazonDynamoDB amazonDynamoDB(@Value("${palindrome.localstack.dynamodb.endpoint:http://localhost:4569/}") String endpoint,
+                                         @Value("${palindrome.service.dynamodb.max-connections:50}") int maxConnections) {
         return AmazonDynamoDBClientBuilder.standard()
                 .withEndpointConfiguration(new AwsClientBuilder.EndpointConfiguration(endpoint, "us-east-1"))
                 .withCredentials(new AWSStaticCredentialsProvider(new BasicAWSCredentials("accesskey", "secretkey")))
-                .withClientConfiguration(new ClientConfiguration().withSocketTimeout(2000))
+                .withClientConfiguration(new ClientConfiguration().withSocketTimeout(2000).withMaxConnections(maxConnections))
                 .build();
     }
 
@@ -67,10 +70,16 @@ public class PalindromesServiceLocalContext {
     }
 
     @Bean
-    public SimpleMessageListenerContainerFactory simpleMessageListenerContainerFactory() {
+    public SimpleMessageListenerContainerFactory simpleMessageListenerContainerFactory(
+            @Value("${palindrome.service.queue.max-messages:1}") int maxMessages,
+            @Value("${palindrome.service.virtual-threads.enabled:false}") boolean virtualThreads) {
         SimpleMessageListenerContainerFactory simpleMessageListenerContainerFactory = new SimpleMessageListenerContainerFactory();
         simpleMessageListenerContainerFactory.setWaitTimeOut(1);
-        simpleMessageListenerContainerFactory.setMaxNumberOfMessages(1);
+        simpleMessageListenerContainerFactory.setMaxNumberOfMessages(maxMessages);
+        if (virtualThreads) {
+            simpleMessageListenerContainerFactory.setTaskExecutor(
+                    new ConcurrentTaskExecutor(VirtualThreads.newPerTaskExecutor()));
+        }
         return simpleMessageListenerContainerFactory;
     }
 }
@@ -0,0 +1,61 @@
+package com.quickcamel.winnow.palindromes.service.state;
+
+import com.quickcamel.winnow.palindromes.entities.PalindromeStateEntity;
+import com.quickcamel.winnow.palindromes.entities.PalindromeTaskEntity;
+import com.quickcamel.winnow.palindromes.repositories.PalindromeStateRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Saves the state an appendable task's parse ends in, in an item of its own, to resume the parse from
+ * once the task is appended to.
+ * <p>
+ * The state grows with the text, so a state too large for an item is not saved, and any saved earlier removed,
+ * leaving the task's text to be parsed again in full when appended to.
+ */
+@Component
+public class PalindromeStateStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(PalindromeStateStore.class);
+
+    private final PalindromeStateRepository repository;
+    private final int maxBytes;
+
+    public PalindromeStateStore(PalindromeStateRepository repository,
+                                @Value("${palindrome.service.state.max-bytes:393216}") int maxBytes) {
+        this.repository = repository;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * The state saved for the task, or null to parse its text from the beginning.
+     */
+    public byte[] load(PalindromeTaskEntity entity) {
+        return repository.findById(entity.getTask())
+                // a state of more text than the task holds is not of its text
+                .filter(saved -> saved.getLength() != null && saved.getLength() <= entity.getText().length())
+                .map(PalindromeStateEntity::getState)
+                .orElse(null);
+    }
+
+    public void save(PalindromeTaskEntity entity, byte[] state) {
+        if (state == null) {
+            return;
+        }
+        // an item is limited to 400KB
+        if (state.length > maxBytes) {
+            logger.info("Not saving state of task {}, its {} bytes exceed {}, so it will be parsed again in full",
+                    entity.getTask(), state.length, maxBytes);
+            repository.delete(new PalindromeStateEntity().withTask(entity.getTask()));
+            return;
+        }
+        repository.save(new PalindromeStateEntity()
+                .withTask(entity.getTask())
+                .withCreated(System.currentTimeMillis())
+                .withLength(entity.getText().length())
+                .withState(state));
+        logger.debug("Saved state of task {} in {} bytes", entity.getTask(), state.length);
+    }
+}
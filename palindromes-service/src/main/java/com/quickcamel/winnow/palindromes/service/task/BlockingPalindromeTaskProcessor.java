@@ -2,72 +2,378 @@ package com.quickcamel.winnow.palindromes.service.task;
 
 import com.quickcamel.winnow.palindromes.entities.PalindromeTaskEntity;
 import com.quickcamel.winnow.palindromes.repositories.PalindromeTaskRepository;
+import com.quickcamel.winnow.palindromes.service.cache.SolutionCache;
+import com.quickcamel.winnow.palindromes.service.index.PalindromeIndexer;
+import com.quickcamel.winnow.palindromes.service.parser.CancellationToken;
+import com.quickcamel.winnow.palindromes.service.parser.PalindromeBatch;
+import com.quickcamel.winnow.palindromes.service.parser.ParseOptions;
 import com.quickcamel.winnow.palindromes.service.parser.PalindromeParser;
 import com.quickcamel.winnow.palindromes.service.parser.PalindromeSolution;
+import com.quickcamel.winnow.palindromes.service.parser.ResumablePalindromeParser;
+import com.quickcamel.winnow.palindromes.service.state.PalindromeStateStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 @Service
-public class BlockingPalindromeTaskProcessor implements PalindromeTaskProcessor {
+public class BlockingPalindromeTaskProcessor implements PalindromeTaskProcessor, DisposableBean {
 
     private static final Logger logger = LoggerFactory.getLogger(BlockingPalindromeTaskProcessor.class);
 
     private PalindromeParser parser;
+    private ResumablePalindromeParser resumableParser;
     private PalindromeTaskRepository repository;
+    private SolutionCache solutionCache;
+    private PalindromeIndexer palindromeIndexer;
+    private PalindromeStateStore palindromeStates;
+    private int defaultResultLimit;
+    private long timeLimit;
+    private int batchMaxLength;
+    private int startWriteMinLength;
+    private long progressInterval;
+    // parses in progress, cancelled on shutdown
+    private Set<CancellationToken> inProgress = ConcurrentHashMap.newKeySet();
 
-    public BlockingPalindromeTaskProcessor(PalindromeParser parser, PalindromeTaskRepository repository) {
+    public BlockingPalindromeTaskProcessor(PalindromeParser parser,
+                                           ResumablePalindromeParser resumableParser,
+                                           PalindromeTaskRepository repository,
+                                           SolutionCache solutionCache,
+                                           PalindromeIndexer palindromeIndexer,
+                                           PalindromeStateStore palindromeStates,
+                                           @Value("${palindrome.service.result.limit:100}") int defaultResultLimit,
+                                           @Value("${palindrome.service.task.time-limit:0}") long timeLimit,
+                                           @Value("${palindrome.service.batch.max-length:4096}") int batchMaxLength,
+                                           @Value("${palindrome.service.task.start-write-min-length:16384}")
+                                                   int startWriteMinLength,
+                                           @Value("${palindrome.service.task.progress-interval:10000}")
+                                                   long progressInterval) {
         this.parser = parser;
+        this.resumableParser = resumableParser;
         this.repository = repository;
+        this.solutionCache = solutionCache;
+        this.palindromeIndexer = palindromeIndexer;
+        this.palindromeStates = palindromeStates;
+        this.defaultResultLimit = defaultResultLimit;
+        this.timeLimit = timeLimit;
+        this.batchMaxLength = batchMaxLength;
+        this.startWriteMinLength = startWriteMinLength;
+        this.progressInterval = progressInterval;
     }
 
     @Override
     public void processPalindromeTask(String taskId) {
         logger.debug("Processing task {}", taskId);
+        startTask(taskId).map(this::parseTask).ifPresent(this::completeTask);
+    }
+
+    // tasks are loaded together, short texts asking only for their longest palindrome being parsed together
+    // and others one by one, returning those processed, or not found, to be acknowledged
+    @Override
+    public List<String> processPalindromeTasks(List<String> taskIds) {
+        logger.debug("Processing tasks {}", taskIds);
+        Map<String, PalindromeTaskEntity> found = findAll(taskIds);
+        List<String> processed = new ArrayList<>();
+        List<PalindromeTaskEntity> batch = new ArrayList<>();
+        for (String taskId : new LinkedHashSet<>(taskIds)) {
+            PalindromeTaskEntity entity = found.get(taskId);
+            if (entity == null) {
+                logger.error("Task details not found : {}", taskId);
+                processed.add(taskId);
+            } else if (batchable(entity)) {
+                batch.add(entity);
+            } else {
+                try {
+                    processEntity(entity);
+                    processed.add(taskId);
+                } catch (RuntimeException e) {
+                    logger.error("Task failed : {}", taskId, e);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            try {
+                processed.addAll(processBatch(batch));
+            } catch (RuntimeException e) {
+                logger.error("Batch of {} tasks failed", batch.size(), e);
+            }
+        }
+        return processed;
+    }
+
+    // the batch, already loaded together, is parsed together, each task being started and completed as one alone is,
+    // with conditional updates of the attributes that change, so no delivery overwrites another's
+    private List<String> processBatch(List<PalindromeTaskEntity> batch) {
+        List<String> processed = batch.stream().map(PalindromeTaskEntity::getTask).collect(Collectors.toList());
+        List<PalindromeTaskEntity> parsing = new ArrayList<>();
+        for (PalindromeTaskEntity entity : batch) {
+            try {
+                startTask(entity).ifPresent(parsing::add);
+            } catch (RuntimeException e) {
+                logger.error("Task failed : {}", entity.getTask(), e);
+                processed.remove(entity.getTask());
+            }
+        }
+        if (parsing.isEmpty()) {
+            return processed;
+        }
+
+        List<String> texts = new ArrayList<>(parsing.size());
+        parsing.forEach(entity -> texts.add(entity.getText()));
+        logger.debug("Parsing {} tasks together", parsing.size());
+        PalindromeBatch solutions = parser.parseAll(texts);
+        long completedTime = System.currentTimeMillis();
+
+        for (int item = 0; item < parsing.size(); item++) {
+            PalindromeTaskEntity entity = parsing.get(item);
+            try {
+                PalindromeSolution solution = solutions.getSolution(item);
+                completeTask(new ParsedTask(entity, solutionCache.key(entity.getText(), parseOptions(entity)),
+                        solution, palindromeIndexer.radii(entity, solution), completedTime));
+            } catch (RuntimeException e) {
+                logger.error("Task failed : {}", entity.getTask(), e);
+                processed.remove(entity.getTask());
+            }
+        }
+        return processed;
+    }
+
+    private Map<String, PalindromeTaskEntity> findAll(List<String> taskIds) {
+        Map<String, PalindromeTaskEntity> found = new HashMap<>();
+        repository.findAllById(taskIds).forEach(entity -> found.put(entity.getTask(), entity));
+        return found;
+    }
+
+    private boolean batchable(PalindromeTaskEntity entity) {
+        return entity.getText() != null
+                && entity.getText().length() <= batchMaxLength
+                && (entity.getMode() == null || entity.getMode() == PalindromeTaskEntity.Mode.LONGEST)
+                && entity.getNormalizations() == null
+                && !Boolean.TRUE.equals(entity.getStatistics())
+                && !Boolean.TRUE.equals(entity.getAppendable());
+    }
+
+    private void processEntity(PalindromeTaskEntity entity) {
+        startTask(entity).map(this::parseTask).ifPresent(this::completeTask);
+    }
+
+    // the stages of processing a task, run one after another here, or on pools of their own by PalindromeTaskPipeline
+
+    // loads and starts the task, returning it unless there is nothing left to parse
+    Optional<PalindromeTaskEntity> startTask(String taskId) {
         Optional<PalindromeTaskEntity> dbTask = repository.findById(taskId);
         if (dbTask.isEmpty()) {
             logger.error("Task details not found : {}", taskId);
-        } else {
-            PalindromeTaskEntity entity = dbTask.get();
-            logger.debug("Task details found : {}", entity);
-            processEntity(entity);
+            return Optional.empty();
         }
+        logger.debug("Task details found : {}", dbTask.get());
+        return startTask(dbTask.get());
     }
 
-    private void processEntity(PalindromeTaskEntity entity) {
-        String taskId = entity.getTask();
+    // the task returned holds the status it is stored with, for it to be completed only if that is unchanged
+    private Optional<PalindromeTaskEntity> startTask(PalindromeTaskEntity entity) {
         if (submittedButNotStarted(entity)) {
-            persistStartTask(entity);
-        }
-        if (startedButNotCompleted(entity)) {
-            logger.debug("Parsing task {}", taskId);
-            PalindromeSolution solution = parser.parse(entity.getText());
-            long completedTime = System.currentTimeMillis();
-            entity = repository.findById(taskId).orElseThrow();
-            if (startedButNotCompleted(entity)) {
-                persistTaskCompleted(entity, solution, completedTime);
+            long started = System.currentTimeMillis();
+            entity.setStarted(started);
+            // short tasks go straight from submitted to completed, parsed before their start would be seen
+            if (completedWithoutStart(entity)) {
+                return Optional.of(entity);
+            }
+            if (!repository.start(entity.getTask(), started)) {
+                logger.debug("Task {} no longer submitted", entity.getTask());
+                return Optional.empty();
             }
+            entity.setStatus(PalindromeTaskEntity.Status.STARTED);
         }
+        return startedButNotCompleted(entity) ? Optional.of(entity) : Optional.empty();
     }
 
-    private void persistStartTask(PalindromeTaskEntity entity) {
-        logger.debug("Starting task {}", entity.getTask());
-        entity.setStatus(PalindromeTaskEntity.Status.STARTED);
-        entity.setStarted(System.currentTimeMillis());
-        repository.save(entity);
+    // appendable tasks are always started, as their text may be appended to while they are parsed
+    private boolean completedWithoutStart(PalindromeTaskEntity entity) {
+        return entity.getText() != null
+                && entity.getText().length() < startWriteMinLength
+                && !Boolean.TRUE.equals(entity.getAppendable());
     }
 
-    private void persistTaskCompleted(PalindromeTaskEntity entity, PalindromeSolution solution, long completedTime) {
+    ParsedTask parseTask(PalindromeTaskEntity entity) {
+        String taskId = entity.getTask();
+        CancellationToken cancellationToken = new CancellationToken();
+        ParseOptions options = parseOptions(entity).withCancellationToken(cancellationToken)
+                .withRadii(palindromeIndexer.isEnabled());
+        if (progressInterval > 0) {
+            options.withProgressListener((fraction, longestSoFar) -> persistProgress(entity, fraction, longestSoFar),
+                    progressInterval);
+        }
+        logger.debug("Parsing task {} with {}", taskId, options);
+        SolutionCache.Key key = solutionCache.key(entity.getText(), options);
+        PalindromeSolution solution;
+        inProgress.add(cancellationToken);
+        try {
+            solution = parse(entity, key, options);
+        } finally {
+            inProgress.remove(cancellationToken);
+        }
+        // a partial result from a cancelled parse is discarded, leaving the task to be parsed in full on redelivery
+        if (cancellationToken.isCancelled()) {
+            throw new TaskCancelledException(taskId);
+        }
+        long completedTime = System.currentTimeMillis();
+        return new ParsedTask(entity, key, solution, palindromeIndexer.radii(entity, solution), completedTime);
+    }
+
+    // completes the task unless its status has changed since it was started, without reading it again
+    void completeTask(ParsedTask parsed) {
+        PalindromeTaskEntity entity = parsed.entity;
+        // indexed first, so any task seen completed can be queried, and its state saved before it may be appended to
+        palindromeIndexer.index(entity, parsed.radii);
+        palindromeStates.save(entity, parsed.solution.getState());
+        PalindromeTaskEntity completion = new PalindromeTaskEntity()
+                .withTask(entity.getTask())
+                .withStarted(entity.getStarted())
+                .withAppendable(entity.getAppendable());
+        markCompleted(completion, parsed.key, parsed.solution, parsed.completedTime);
+        if (!repository.complete(completion, entity.getStatus())) {
+            logger.debug("Task {} changed while parsed, leaving it as it is", entity.getTask());
+        }
+    }
+
+    // the share of the text scanned and the longest palindrome so far, written alone for clients to follow a long parse,
+    // a failure to write them being logged rather than failing the parse
+    private void persistProgress(PalindromeTaskEntity entity, double fraction, PalindromeSolution longestSoFar) {
+        PalindromeTaskEntity progress = new PalindromeTaskEntity()
+                .withTask(entity.getTask())
+                .withProgress(fraction)
+                .withProgressed(System.currentTimeMillis())
+                .withPartial(true);
+        if (longestSoFar.getLargestPalindromeLength() > 0) {
+            progress.withLargestPalindrome(longestSoFar.getLargestPalindrome())
+                    .withLargestPalindromeLength(longestSoFar.getLargestPalindromeLength())
+                    .withLargestPalindromeStart(longestSoFar.getStart())
+                    .withLargestPalindromeEnd(longestSoFar.getEnd());
+        }
+        try {
+            if (!repository.progress(progress, entity.getStatus())) {
+                logger.debug("Task {} changed while parsed, leaving its progress", entity.getTask());
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Progress of task {} not saved", entity.getTask(), e);
+        }
+    }
+
+    // a task parsed but not yet completed
+    static final class ParsedTask {
+        private final PalindromeTaskEntity entity;
+        private final SolutionCache.Key key;
+        private final PalindromeSolution solution;
+        // packed while parsing, so completing the task only writes them
+        private final byte[] radii;
+        private final long completedTime;
+
+        ParsedTask(PalindromeTaskEntity entity, SolutionCache.Key key, PalindromeSolution solution, byte[] radii,
+                   long completedTime) {
+            this.entity = entity;
+            this.key = key;
+            this.solution = solution;
+            this.radii = radii;
+            this.completedTime = completedTime;
+        }
+    }
+
+    // appendable tasks resume from the state saved when last parsed, so only text appended since is parsed,
+    // while others reuse any solution already found for the same text
+    private PalindromeSolution parse(PalindromeTaskEntity entity, SolutionCache.Key key, ParseOptions options) {
+        if (Boolean.TRUE.equals(entity.getAppendable())) {
+            return resumableParser.parse(entity.getText(), palindromeStates.load(entity), options);
+        }
+        return solutionCache.solve(key, entity.getText(), () -> {
+            PalindromeSolution solution = parser.parse(entity.getText(), options);
+            palindromeIndexer.pack(solution);
+            return solution;
+        });
+    }
+
+    private ParseOptions parseOptions(PalindromeTaskEntity entity) {
+        ParseOptions options = new ParseOptions()
+                .withLimit(entity.getResultLimit() != null ? entity.getResultLimit() : defaultResultLimit);
+        if (timeLimit > 0) {
+            options.withDeadline(System.currentTimeMillis() + timeLimit);
+        }
+        if (entity.getMode() != null) {
+            options.withMode(ParseOptions.Mode.valueOf(entity.getMode().name()));
+        }
+        if (entity.getMinLength() != null) {
+            options.withMinLength(entity.getMinLength());
+        }
+        if (entity.getNonOverlapping() != null) {
+            options.withNonOverlapping(entity.getNonOverlapping());
+        }
+        if (entity.getStatistics() != null) {
+            options.withStatistics(entity.getStatistics());
+        }
+        if (entity.getNormalizations() != null) {
+            options.withNormalizations(entity.getNormalizations().stream()
+                    .map(ParseOptions.Normalization::valueOf)
+                    .collect(Collectors.toCollection(() -> EnumSet.noneOf(ParseOptions.Normalization.class))));
+        }
+        return options;
+    }
+
+    private void markCompleted(PalindromeTaskEntity entity, SolutionCache.Key key, PalindromeSolution solution,
+                               long completedTime) {
         logger.debug("Completing task {}", entity.getTask());
         entity.setStatus(PalindromeTaskEntity.Status.COMPLETED);
         entity.setCompleted(completedTime);
+        entity.setPartial(solution.isPartial());
+        // solutions resumed from a saved state are not reused for other tasks, nor indexed to be found for them
+        if (!Boolean.TRUE.equals(entity.getAppendable()) && !solution.isPartial()) {
+            entity.setResultKey(key.getResultKey());
+            entity.setContentHash(key.getContentHash());
+        }
         if (solution.getLargestPalindromeLength() > 0) {
             entity.setLargestPalindrome(solution.getLargestPalindrome());
             entity.setLargestPalindromeLength(solution.getLargestPalindromeLength());
+            entity.setLargestPalindromeStart(solution.getStart());
+            entity.setLargestPalindromeEnd(solution.getEnd());
+        }
+        if (solution.getDistinctPalindromes() != null) {
+            entity.setDistinctPalindromes(solution.getDistinctPalindromes().stream()
+                    .map(distinct -> new PalindromeTaskEntity.DistinctPalindrome()
+                            .withPalindrome(distinct.getPalindrome())
+                            .withOccurrences(distinct.getOccurrences()))
+                    .collect(Collectors.toList()));
+        }
+        if (solution.getMaximalPalindromes() != null) {
+            entity.setMaximalPalindromes(solution.getMaximalPalindromes().stream()
+                    .map(maximal -> new PalindromeTaskEntity.MaximalPalindrome()
+                            .withPalindrome(maximal.getPalindrome())
+                            .withStart(maximal.getStart())
+                            .withEnd(maximal.getEnd()))
+                    .collect(Collectors.toList()));
         }
-        repository.save(entity);
+        if (solution.getStatistics() != null) {
+            entity.setPalindromeStatistics(new PalindromeTaskEntity.Statistics()
+                    .withPalindromes(solution.getStatistics().getPalindromes())
+                    .withLengthHistogram(solution.getStatistics().getLengthHistogram())
+                    .withRegionLength(solution.getStatistics().getRegionLength())
+                    .withDensities(solution.getStatistics().getDensities()));
+        }
+    }
+
+    @Override
+    public void destroy() {
+        inProgress.forEach(CancellationToken::cancel);
     }
 
     private boolean submittedButNotStarted(PalindromeTaskEntity entity) {
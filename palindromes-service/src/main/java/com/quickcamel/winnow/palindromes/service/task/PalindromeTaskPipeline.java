@@ -0,0 +1,121 @@
+package com.quickcamel.winnow.palindromes.service.task;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Processes tasks in three stages, each on a pool of its own, so tasks are loaded and saved while others are parsed.
+ * <p>
+ * Tasks are fetched and started, then completed, on a pool of {@code ioThreads}, and parsed in between on a pool
+ * sized to the processors. At most {@code capacity} tasks are in the pipeline at once, further submissions blocking
+ * until one leaves it, so a listener submitting tasks stops receiving more than can be served.
+ * With {@code virtualThreads}, tasks are loaded and saved on a virtual thread each instead, so many calls may be
+ * in flight without sizing a pool for them, while parsing stays on the bounded pool, sparing the virtual threads'
+ * carriers from it.
+ * The tasks in the pipeline, the depth of each pool's queue and the share of its threads busy are exported as gauges,
+ * and the time spent in each stage as a timer.
+ */
+@Component
+@ConditionalOnExpression("${palindrome.service.pipeline.enabled:false} or ${palindrome.service.virtual-threads.enabled:false}")
+public class PalindromeTaskPipeline implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(PalindromeTaskPipeline.class);
+
+    // tasks loaded or saved at once on virtual threads, where they cost no more than the calls they block on
+    private static final int VIRTUAL_IO_TASKS = 256;
+
+    private final BlockingPalindromeTaskProcessor processor;
+    private final ExecutorService io;
+    private final ThreadPoolExecutor cpu;
+    private final Semaphore capacity;
+    private final Timer fetchTimer;
+    private final Timer parseTimer;
+    private final Timer persistTimer;
+
+    public PalindromeTaskPipeline(BlockingPalindromeTaskProcessor processor,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${palindrome.service.pipeline.io-threads:8}") int ioThreads,
+                                  @Value("${palindrome.service.pipeline.capacity:0}") int capacity,
+                                  @Value("${palindrome.service.virtual-threads.enabled:false}") boolean virtualThreads) {
+        int processors = Runtime.getRuntime().availableProcessors();
+        this.processor = processor;
+        this.io = virtualThreads ? VirtualThreads.newPerTaskExecutor() : pool("palindrome-io-", ioThreads);
+        this.cpu = pool("palindrome-cpu-", processors);
+        // by default, enough for every parsing thread to have a task waiting, with others being loaded or saved
+        int loading = virtualThreads ? VIRTUAL_IO_TASKS : ioThreads;
+        int limit = capacity > 0 ? capacity : 2 * processors + loading;
+        this.capacity = new Semaphore(limit);
+        this.fetchTimer = meterRegistry.timer("palindrome.pipeline.stage", "stage", "fetch");
+        this.parseTimer = meterRegistry.timer("palindrome.pipeline.stage", "stage", "parse");
+        this.persistTimer = meterRegistry.timer("palindrome.pipeline.stage", "stage", "persist");
+        meterRegistry.gauge("palindrome.pipeline.tasks", this, pipeline -> limit - pipeline.capacity.availablePermits());
+        if (io instanceof ThreadPoolExecutor) {
+            gauges(meterRegistry, "io", (ThreadPoolExecutor) io);
+        }
+        gauges(meterRegistry, "cpu", cpu);
+        logger.info("Pipeline of {} tasks, over {} I/O and {} parsing threads", limit,
+                virtualThreads ? "virtual" : ioThreads, processors);
+    }
+
+    /**
+     * Processes the task through the pipeline, blocking while it is full, then running {@code onProcessed}
+     * once the task is processed, or not found. Tasks that fail are logged and left to be resubmitted.
+     */
+    public void submit(String taskId, Runnable onProcessed) throws InterruptedException {
+        capacity.acquire();
+        CompletableFuture.supplyAsync(() -> fetchTimer.record(() -> processor.startTask(taskId)), io)
+                .thenApplyAsync(started -> started.map(entity -> parseTimer.record(
+                        () -> processor.parseTask(entity))), cpu)
+                .thenAcceptAsync(parsed -> parsed.ifPresent(task -> persistTimer.record(
+                        () -> processor.completeTask(task))), io)
+                .whenComplete((ignored, failure) -> {
+                    capacity.release();
+                    if (failure == null) {
+                        onProcessed.run();
+                    } else {
+                        logger.error("Task failed : {}", taskId, failure.getCause() != null
+                                ? failure.getCause() : failure);
+                    }
+                });
+    }
+
+    @Override
+    public void destroy() {
+        // tasks left unacknowledged are redelivered, while parses in progress are cancelled by the processor
+        io.shutdownNow();
+        cpu.shutdownNow();
+    }
+
+    // the pipeline's capacity bounds the tasks queued, so the queues are left unbounded rather than rejecting any
+    private static ThreadPoolExecutor pool(String prefix, int threads) {
+        AtomicInteger count = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    private static void gauges(MeterRegistry meterRegistry, String pool, ThreadPoolExecutor executor) {
+        meterRegistry.gauge("palindrome.pipeline.queue", Tags.of("pool", pool), executor,
+                e -> e.getQueue().size());
+        meterRegistry.gauge("palindrome.pipeline.utilisation", Tags.of("pool", pool), executor,
+                e -> (double) e.getActiveCount() / e.getMaximumPoolSize());
+    }
+}
@@ -1,7 +1,26 @@
 package com.quickcamel.winnow.palindromes.service.task;
 
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
 @FunctionalInterface
 public interface PalindromeTaskProcessor {
 
     void processPalindromeTask(String taskId);
+
+    // the tasks processed, whose messages may be acknowledged, any that failed being left to be redelivered
+    default List<String> processPalindromeTasks(List<String> taskIds) {
+        List<String> processed = new ArrayList<>();
+        for (String taskId : taskIds) {
+            try {
+                processPalindromeTask(taskId);
+                processed.add(taskId);
+            } catch (RuntimeException e) {
+                LoggerFactory.getLogger(getClass()).error("Task failed : {}", taskId, e);
+            }
+        }
+        return processed;
+    }
 }
@@ -0,0 +1,8 @@
+package com.quickcamel.winnow.palindromes.service.task;
+
+public class TaskCancelledException extends RuntimeException {
+
+    public TaskCancelledException(String taskId) {
+        super("Processing cancelled before completing task " + taskId);
+    }
+}
@@ -0,0 +1,22 @@
+package com.quickcamel.winnow.palindromes.service.task;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Virtual threads, reached reflectively as the service is compiled for Java 11, where the JVM running it has them.
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    // an executor starting a virtual thread for each task, failing fast on JVMs before 21
+    public static ExecutorService newPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads need Java 21 or later, running on " + Runtime.version(), e);
+        }
+    }
+}
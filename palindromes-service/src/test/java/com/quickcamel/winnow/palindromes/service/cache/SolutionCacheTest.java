@@ -0,0 +1,188 @@
+package com.quickcamel.winnow.palindromes.service.cache;
+
+import com.quickcamel.winnow.palindromes.entities.ContentHash;
+import com.quickcamel.winnow.palindromes.entities.PalindromeTaskEntity;
+import com.quickcamel.winnow.palindromes.repositories.PalindromeTaskRepository;
+import com.quickcamel.winnow.palindromes.service.parser.ParseOptions;
+import com.quickcamel.winnow.palindromes.service.parser.PalindromeSolution;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SolutionCacheTest {
+
+    @Mock
+    private PalindromeTaskRepository repository;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger parses = new AtomicInteger();
+
+    private SolutionCache cache(long maxBytes, boolean persisted) {
+        return new SolutionCache(repository, meterRegistry, "manacher", "1", maxBytes, persisted);
+    }
+
+    private PalindromeSolution solve(SolutionCache cache, String text, ParseOptions options) {
+        return cache.solve(cache.key(text, options), text, () -> {
+            parses.incrementAndGet();
+            return new PalindromeSolution(text.length(), text);
+        });
+    }
+
+    @Test
+    void shouldReuseSolutionForSameTextAndOptions() {
+        SolutionCache cache = cache(1 << 20, false);
+
+        PalindromeSolution first = solve(cache, "abba", new ParseOptions());
+        PalindromeSolution second = solve(cache, "abba", new ParseOptions());
+
+        assertThat(second).isSameAs(first);
+        assertThat(parses).hasValue(1);
+        assertThat(meterRegistry.counter("palindrome.cache.requests", "result", "hit", "tier", "memory").count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void shouldParseAgainWithDifferentOptionsOrText() {
+        SolutionCache cache = cache(1 << 20, false);
+
+        solve(cache, "abba", new ParseOptions());
+        solve(cache, "abba", new ParseOptions().withMode(ParseOptions.Mode.DISTINCT));
+        solve(cache, "abbA", new ParseOptions());
+
+        assertThat(parses).hasValue(3);
+    }
+
+    @Test
+    void shouldNotKeepPartialSolutions() {
+        SolutionCache cache = cache(1 << 20, false);
+        SolutionCache.Key key = cache.key("abba", new ParseOptions());
+
+        cache.solve(key, "abba", () -> new PalindromeSolution(2, "bb").withPartial(true));
+        PalindromeSolution solution = cache.solve(key, "abba", () -> new PalindromeSolution(4, "abba"));
+
+        assertThat(solution.getLargestPalindrome()).isEqualTo("abba");
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedBeyondBudget() {
+        // room for two solutions of these sizes
+        SolutionCache cache = cache(400, false);
+
+        solve(cache, "abba", new ParseOptions());
+        solve(cache, "abcba", new ParseOptions());
+        solve(cache, "abba", new ParseOptions());
+        solve(cache, "racecar", new ParseOptions());
+        solve(cache, "abba", new ParseOptions());
+        solve(cache, "abcba", new ParseOptions());
+
+        assertThat(parses).hasValue(4);
+        assertThat(meterRegistry.get("palindrome.cache.entries").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldShareParseInFlight() throws Exception {
+        SolutionCache cache = cache(1 << 20, false);
+        SolutionCache.Key key = cache.key("abba", new ParseOptions());
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<PalindromeSolution> first = CompletableFuture.supplyAsync(() ->
+                cache.solve(key, "abba", () -> {
+                    parses.incrementAndGet();
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return new PalindromeSolution(4, "abba");
+                }));
+        started.await();
+        CompletableFuture<PalindromeSolution> second = CompletableFuture.supplyAsync(() -> solve(cache, "abba",
+                new ParseOptions()));
+        release.countDown();
+
+        assertThat(second.get()).isSameAs(first.get());
+        assertThat(parses).hasValue(1);
+    }
+
+    @Test
+    void shouldReuseSolutionOfCompletedTask() {
+        SolutionCache cache = cache(1 << 20, true);
+        SolutionCache.Key key = cache.key("abba", new ParseOptions());
+        when(repository.findByContentHash(eq(ContentHash.of("abba")), anyInt())).thenReturn(List.of(
+                new PalindromeTaskEntity()
+                        .withStatus(PalindromeTaskEntity.Status.COMPLETED)
+                        .withText("abba")
+                        .withResultKey(key.getResultKey())
+                        .withStarted(1L)
+                        .withCompleted(2L)
+                        .withLargestPalindromeLength(4)
+                        .withLargestPalindrome("abba")
+                        .withLargestPalindromeStart(0L)
+                        .withLargestPalindromeEnd(4L)));
+
+        PalindromeSolution solution = solve(cache, "abba", new ParseOptions());
+
+        assertThat(parses).hasValue(0);
+        assertThat(solution.getLargestPalindrome()).isEqualTo("abba");
+        assertThat(solution.getEnd()).isEqualTo(4L);
+        assertThat(meterRegistry.counter("palindrome.cache.requests", "result", "hit", "tier", "persisted").count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotReuseCompletedTaskParsedDifferently() {
+        SolutionCache cache = cache(1 << 20, true);
+        when(repository.findByContentHash(eq(ContentHash.of("abba")), anyInt())).thenReturn(List.of(
+                new PalindromeTaskEntity()
+                        .withStatus(PalindromeTaskEntity.Status.COMPLETED)
+                        .withText("abba")
+                        .withResultKey(cache.key("abba", new ParseOptions().withMinLength(2)).getResultKey())
+                        .withLargestPalindromeLength(4)
+                        .withLargestPalindrome("abba")));
+
+        solve(cache, "abba", new ParseOptions());
+
+        assertThat(parses).hasValue(1);
+    }
+
+    @Test
+    void shouldHashTextsDistinctly() {
+        assertThat(ContentHash.of("abba")).isEqualTo(ContentHash.of(new StringBuilder("abba")));
+        assertThat(ContentHash.of("abba")).isNotEqualTo(ContentHash.of("abbA"));
+        assertThat(ContentHash.of("")).isNotEqualTo(ContentHash.of("\0"));
+        assertThat(ContentHash.of("abcdefgh")).hasSize(32);
+        assertThat(cache(1 << 20, false).key("abba", new ParseOptions()).getContentHash())
+                .isEqualTo(ContentHash.of("abba"));
+    }
+
+    @Test
+    void shouldNotReuseTaskSharingAnotherTasksSolution() {
+        SolutionCache cache = cache(1 << 20, true);
+        when(repository.findByContentHash(eq(ContentHash.of("abba")), anyInt())).thenReturn(List.of(
+                new PalindromeTaskEntity()
+                        .withStatus(PalindromeTaskEntity.Status.COMPLETED)
+                        .withText("abba")
+                        .withResultKey(cache.key("abba", new ParseOptions()).getResultKey())
+                        .withSolutionTask("solved")));
+
+        solve(cache, "abba", new ParseOptions());
+
+        assertThat(parses).hasValue(1);
+    }
+}
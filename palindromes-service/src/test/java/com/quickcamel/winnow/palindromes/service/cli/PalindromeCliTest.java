@@ -0,0 +1,72 @@
+package com.quickcamel.winnow.palindromes.service.cli;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PalindromeCliTest {
+
+    private Path directory;
+    private ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+    @BeforeEach
+    void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("cli");
+        Files.createDirectory(directory.resolve("corpus"));
+        Files.writeString(directory.resolve("corpus/anna.txt"), "I am Anna");
+        Files.writeString(directory.resolve("corpus/quote.txt"), "She said \"abba\"");
+        Files.writeString(directory.resolve("corpus/notes.md"), "racecar");
+    }
+
+    @AfterEach
+    void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Test
+    void shouldWriteLineOfJsonForEachFileMatchingGlob() {
+        int status = run("--threads", "2", "--temp-dir", directory.toString(), directory + "/corpus/*.txt");
+
+        assertThat(status).isEqualTo(0);
+        assertThat(out.toString(StandardCharsets.UTF_8).lines()).hasSize(2)
+                .anySatisfy(line -> assertThat(line)
+                        .startsWith("{\"file\":\"" + directory.resolve("corpus/anna.txt") + "\"")
+                        .contains("\"length\":4,\"palindrome\":\"anna\",\"start\":5,\"end\":9,"))
+                .anySatisfy(line -> assertThat(line).contains("\"palindrome\":\"\\\"abba\\\"\","));
+    }
+
+    @Test
+    void shouldReportFilesThatCannotBeParsed() {
+        int status = run(directory.resolve("corpus/notes.md").toString(), directory.resolve("missing").toString());
+
+        assertThat(status).isEqualTo(1);
+        assertThat(out.toString(StandardCharsets.UTF_8).lines())
+                .anySatisfy(line -> assertThat(line).contains("\"palindrome\":\"racecar\""))
+                .anySatisfy(line -> assertThat(line).contains("missing\",\"error\":\"java.nio.file.NoSuchFileException"));
+    }
+
+    @Test
+    void shouldShowUsageWithoutFiles() {
+        assertThat(run("--threads")).isEqualTo(2);
+        assertThat(err.toString(StandardCharsets.UTF_8)).startsWith("Usage:");
+    }
+
+    private int run(String... args) {
+        return PalindromeCli.run(args, new PrintStream(out, true, StandardCharsets.UTF_8),
+                new PrintStream(err, true, StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,82 @@
+package com.quickcamel.winnow.palindromes.service.index;
+
+import com.quickcamel.winnow.palindromes.entities.PackedRadii;
+import com.quickcamel.winnow.palindromes.entities.PalindromeIndexEntity;
+import com.quickcamel.winnow.palindromes.entities.PalindromeTaskEntity;
+import com.quickcamel.winnow.palindromes.repositories.PalindromeIndexRepository;
+import com.quickcamel.winnow.palindromes.service.parser.ManacherPalindromeParser;
+import com.quickcamel.winnow.palindromes.service.parser.PalindromeSolution;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PalindromeIndexerTest {
+
+    @Mock
+    private PalindromeIndexRepository repository;
+    @Mock
+    private ManacherPalindromeParser manacher;
+
+    private PalindromeIndexer indexer;
+
+    @BeforeEach
+    void setup() {
+        indexer = new PalindromeIndexer(repository, manacher, true, 393216);
+    }
+
+    @Test
+    void shouldIndexRadiiKeptByParse() {
+        PalindromeTaskEntity entity = new PalindromeTaskEntity().withTask("task").withText("abba");
+        int[] radii = {0, 1, 0, 1, 4, 1, 0, 1, 0};
+        PalindromeSolution solution = new PalindromeSolution(4, "abba").withRadii(radii);
+
+        indexer.pack(solution);
+        byte[] packed = indexer.radii(entity, solution);
+        indexer.index(entity, packed);
+
+        assertThat(solution.getRadii()).isNull();
+        assertThat(PackedRadii.unpack(packed)).isEqualTo(radii);
+        verifyZeroInteractions(manacher);
+        verify(repository).save(argThat((PalindromeIndexEntity index) ->
+                index.getTask().equals("task") && index.getLength() == 4 && index.getRadii() == packed));
+    }
+
+    @Test
+    void shouldSkipReusedSolutionOfTaskAlreadyIndexed() {
+        PalindromeTaskEntity entity = new PalindromeTaskEntity().withTask("task").withText("abba");
+        when(repository.existsById("task")).thenReturn(true);
+
+        assertThat(indexer.radii(entity, new PalindromeSolution(4, "abba"))).isNull();
+        verifyZeroInteractions(manacher);
+    }
+
+    @Test
+    void shouldParseAgainOnlyWhenParseKeptNoRadii() {
+        PalindromeTaskEntity entity = new PalindromeTaskEntity().withTask("task").withText("abba");
+        int[] radii = {0, 1, 0, 1, 4, 1, 0, 1, 0};
+        when(manacher.radii("abba")).thenReturn(radii);
+
+        assertThat(PackedRadii.unpack(indexer.radii(entity, new PalindromeSolution(4, "abba")))).isEqualTo(radii);
+    }
+
+    @Test
+    void shouldNotIndexNormalizedOrPartialParses() {
+        PalindromeTaskEntity normalized = new PalindromeTaskEntity().withTask("task").withText("ab ba")
+                .withNormalizations(Set.of("WHITESPACE"));
+
+        assertThat(indexer.radii(normalized, new PalindromeSolution(5, "ab ba"))).isNull();
+        assertThat(indexer.radii(new PalindromeTaskEntity().withTask("task").withText("abba"),
+                new PalindromeSolution(2, "bb").withPartial(true))).isNull();
+        indexer.index(normalized, null);
+        verifyZeroInteractions(manacher, repository);
+    }
+}
@@ -0,0 +1,83 @@
+package com.quickcamel.winnow.palindromes.service.listener;
+
+import com.amazonaws.services.sqs.AmazonSQSAsync;
+import com.amazonaws.services.sqs.model.Message;
+import com.amazonaws.services.sqs.model.ReceiveMessageRequest;
+import com.amazonaws.services.sqs.model.ReceiveMessageResult;
+import com.quickcamel.winnow.palindromes.service.task.PalindromeTaskProcessor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.aws.core.env.ResourceIdResolver;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LaneSubmissionPollersTest {
+
+    private static final String QUEUE_URL = "http://localhost:4576/queue/palindrome-service-queue-large";
+
+    @Mock
+    private AmazonSQSAsync amazonSQS;
+    @Mock
+    private PalindromeTaskProcessor taskProcessor;
+    @Mock
+    private ObjectProvider<ResourceIdResolver> resourceIdResolver;
+
+    private LaneSubmissionPollers pollers;
+
+    @BeforeEach
+    void setup() {
+        pollers = new LaneSubmissionPollers(amazonSQS, taskProcessor, resourceIdResolver, new MockEnvironment()
+                .withProperty("palindrome.service.lanes", "small, large")
+                .withProperty("palindrome.service.lane.small.concurrency", "8")
+                .withProperty("palindrome.service.lane.large.visibility-timeout", "900")
+                .withProperty("palindrome.service.lane.large.queue", "large-texts"),
+                "palindrome-service-queue");
+    }
+
+    @Test
+    void shouldConfigureEachLane() {
+        assertThat(pollers.getLanes()).extracting(LaneSubmissionPollers.Lane::getName,
+                LaneSubmissionPollers.Lane::getQueue, LaneSubmissionPollers.Lane::getConcurrency,
+                LaneSubmissionPollers.Lane::getVisibilityTimeout)
+                .containsExactly(
+                        tuple("small", "palindrome-service-queue-small", 8, 0),
+                        tuple("large", "large-texts", 1, 900));
+    }
+
+    @Test
+    void shouldReceiveOneTaskAtATimeWithLaneVisibilityTimeout() {
+        when(amazonSQS.receiveMessage(any(ReceiveMessageRequest.class))).thenReturn(new ReceiveMessageResult()
+                .withMessages(new Message().withReceiptHandle("first")
+                        .withBody("{\"Type\":\"Notification\",\"Message\":\"task-1\"}")));
+
+        pollers.receive(pollers.getLanes().get(1), QUEUE_URL);
+
+        verify(amazonSQS).receiveMessage(argThat((ReceiveMessageRequest request) ->
+                request.getMaxNumberOfMessages() == 1 && request.getVisibilityTimeout() == 900));
+        verify(taskProcessor).processPalindromeTask("task-1");
+        verify(amazonSQS).deleteMessage(QUEUE_URL, "first");
+    }
+
+    @Test
+    void shouldLeaveFailedTaskToBeRedelivered() {
+        when(amazonSQS.receiveMessage(any(ReceiveMessageRequest.class))).thenReturn(new ReceiveMessageResult()
+                .withMessages(new Message().withReceiptHandle("first").withBody("task-1")));
+        doThrow(new IllegalStateException("parse failed")).when(taskProcessor).processPalindromeTask("task-1");
+
+        pollers.receive(pollers.getLanes().get(0), QUEUE_URL);
+
+        verify(amazonSQS).receiveMessage(argThat((ReceiveMessageRequest request) ->
+                request.getVisibilityTimeout() == null));
+        verify(amazonSQS, never()).deleteMessage(anyString(), anyString());
+    }
+}
@@ -0,0 +1,88 @@
+package com.quickcamel.winnow.palindromes.service.listener;
+
+import com.amazonaws.services.sqs.AmazonSQSAsync;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchResult;
+import com.amazonaws.services.sqs.model.Message;
+import com.amazonaws.services.sqs.model.ReceiveMessageRequest;
+import com.amazonaws.services.sqs.model.ReceiveMessageResult;
+import com.quickcamel.winnow.palindromes.service.task.PalindromeTaskProcessor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.aws.core.env.ResourceIdResolver;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PalindromeSubmissionPollerTest {
+
+    private static final String QUEUE_URL = "http://localhost:4576/queue/palindrome-service-queue";
+
+    @Mock
+    private AmazonSQSAsync amazonSQS;
+    @Mock
+    private PalindromeTaskProcessor taskProcessor;
+    @Mock
+    private ObjectProvider<ResourceIdResolver> resourceIdResolver;
+
+    private PalindromeSubmissionPoller poller;
+
+    @BeforeEach
+    void setup() {
+        poller = new PalindromeSubmissionPoller(amazonSQS, taskProcessor, resourceIdResolver,
+                "palindrome-service-queue", 20);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void shouldDeleteOnlyMessagesOfTasksProcessed() {
+        when(amazonSQS.receiveMessage(any(ReceiveMessageRequest.class))).thenReturn(new ReceiveMessageResult()
+                .withMessages(
+                        message("first", "{\"Type\":\"Notification\",\"Message\":\"task-1\"}"),
+                        message("second", "task-2"),
+                        message("third", "task-1")));
+        when(taskProcessor.processPalindromeTasks(List.of("task-1", "task-2"))).thenReturn(List.of("task-1"));
+        when(amazonSQS.deleteMessageBatch(anyString(), anyList())).thenReturn(new DeleteMessageBatchResult());
+
+        poller.receive(QUEUE_URL);
+
+        verify(amazonSQS).receiveMessage(argThat((ReceiveMessageRequest request) ->
+                request.getMaxNumberOfMessages() == 10 && request.getWaitTimeSeconds() == 20));
+        verify(amazonSQS).deleteMessageBatch(eq(QUEUE_URL), argThat((List<DeleteMessageBatchRequestEntry> entries) ->
+                entries.stream().map(DeleteMessageBatchRequestEntry::getReceiptHandle).collect(Collectors.toList())
+                        .equals(List.of("first", "third"))));
+    }
+
+    @Test
+    void shouldProcessNothingWhenNoMessagesReceived() {
+        when(amazonSQS.receiveMessage(any(ReceiveMessageRequest.class))).thenReturn(new ReceiveMessageResult());
+
+        poller.receive(QUEUE_URL);
+
+        verifyZeroInteractions(taskProcessor);
+        verify(amazonSQS, never()).deleteMessageBatch(anyString(), anyList());
+    }
+
+    @Test
+    void shouldReadTaskIdFromNotificationOrBody() {
+        assertThat(PalindromeSubmissionPoller.taskId("{\"Type\":\"Notification\",\"Message\":\"task-1\"}")).isEqualTo("task-1");
+        assertThat(PalindromeSubmissionPoller.taskId("de54b2bd-dfb3-43b9-9dc9-07b6326ff023"))
+                .isEqualTo("de54b2bd-dfb3-43b9-9dc9-07b6326ff023");
+        assertThat(PalindromeSubmissionPoller.taskId("123e4567-e89b-12d3-a456-426614174000"))
+                .isEqualTo("123e4567-e89b-12d3-a456-426614174000");
+    }
+
+    private static Message message(String receiptHandle, String body) {
+        return new Message().withReceiptHandle(receiptHandle).withBody(body);
+    }
+}
@@ -0,0 +1,63 @@
+package com.quickcamel.winnow.palindromes.service.parser;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptivePalindromeParserTest {
+
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private AdaptivePalindromeParser palindromeParser = new AdaptivePalindromeParser(
+            text -> new PalindromeSolution(0, "centre"),
+            text -> new PalindromeSolution(0, "manacher"),
+            text -> new PalindromeSolution(0, "compact"),
+            text -> new PalindromeSolution(0, "forkjoin"),
+            meterRegistry, 16, Integer.MAX_VALUE, 4);
+
+    @Test
+    void shouldExpandAroundCentresOfShortText() {
+        assertThat(palindromeParser.parse("I am Anna").getLargestPalindrome()).isEqualTo("centre");
+        assertThat(palindromeParser.parse("").getLargestPalindrome()).isEqualTo("centre");
+    }
+
+    @Test
+    void shouldParseTextOfFewLettersCompactly() {
+        assertThat(palindromeParser.parse("acgtacgtttgcaCGTAAAGT").getLargestPalindrome()).isEqualTo("compact");
+    }
+
+    @Test
+    void shouldParseOtherTextWithManacher() {
+        assertThat(palindromeParser.parse("Madam, in Eden I'm Adam").getLargestPalindrome()).isEqualTo("manacher");
+    }
+
+    @Test
+    void shouldParseTextOutsideBasicMultilingualPlaneWithManacher() {
+        assertThat(palindromeParser.parse("\uD83D\uDE00\uD83D\uDE01").getLargestPalindrome()).isEqualTo("manacher");
+        assertThat(palindromeParser.parse("\uD83D\uDE00".repeat(20)).getLargestPalindrome()).isEqualTo("manacher");
+        assertThat(palindromeParser.parse("\u4E00\u4E01".repeat(20)).getLargestPalindrome()).isEqualTo("manacher");
+    }
+
+    @Test
+    void shouldNotSplitSurrogatePairs() {
+        AdaptivePalindromeParser parser = new AdaptivePalindromeParser(new CentreExpansionPalindromeParser(),
+                new ManacherPalindromeParser(), new CompactManacherPalindromeParser(64),
+                text -> new PalindromeSolution(0, "forkjoin"), meterRegistry, 16, Integer.MAX_VALUE, 4);
+
+        assertThat(parser.parse("\uD83D\uDE00\uD83D\uDE01").getLargestPalindrome()).isEqualTo("\uD83D\uDE00");
+        assertThat(parser.parse("x\uD83D\uDE00\uD83D\uDE01\uD83D\uDE00x").getLargestPalindrome())
+                .isEqualTo("x\uD83D\uDE00\uD83D\uDE01\uD83D\uDE00x");
+    }
+
+    @Test
+    void shouldTimeParsesByEngine() {
+        palindromeParser.parse("I am Anna");
+        palindromeParser.parse("Madam, in Eden I'm Adam");
+        palindromeParser.parse("Step on no pets, said Anna");
+
+        assertThat(meterRegistry.get("palindrome.parse").tag("engine", "centre").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("palindrome.parse").tag("engine", "manacher").timer().count()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,59 @@
+package com.quickcamel.winnow.palindromes.service.parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CentreExpansionPalindromeParserTest {
+
+    private PalindromeParser palindromeParser = new CentreExpansionPalindromeParser();
+
+    @Test
+    void shouldFindAnna() {
+        PalindromeSolution solution = palindromeParser.parse("I am Anna");
+        assertThat(solution.getLargestPalindrome()).isEqualTo("anna");
+        assertThat(solution.getLargestPalindromeLength()).isEqualTo(4);
+        assertThat(solution.getStart()).isEqualTo(5);
+        assertThat(solution.getEnd()).isEqualTo(9);
+    }
+
+    @Test
+    void shouldFindNothingInEmptyText() {
+        PalindromeSolution solution = palindromeParser.parse("");
+        assertThat(solution.getLargestPalindromeLength()).isEqualTo(0);
+        assertThat(solution.getLargestPalindrome()).isEmpty();
+    }
+
+    @Test
+    void shouldMatchManacher() {
+        PalindromeParser manacher = new ManacherPalindromeParser();
+        Random random = new Random(5);
+        for (int run = 0; run < 500; run++) {
+            StringBuilder text = new StringBuilder();
+            int length = random.nextInt(200);
+            for (int i = 0; i < length; i++) {
+                text.append("abAB".charAt(random.nextInt(run % 2 == 0 ? 2 : 4)));
+            }
+            PalindromeSolution expected = manacher.parse(text.toString());
+
+            PalindromeSolution solution = palindromeParser.parse(text.toString());
+
+            assertThat(solution.getLargestPalindrome()).isEqualTo(expected.getLargestPalindrome());
+            assertThat(solution.getStart()).isEqualTo(expected.getStart());
+        }
+    }
+
+    @Test
+    void shouldStopWhenCancelled() {
+        CancellationToken cancellationToken = new CancellationToken();
+        cancellationToken.cancel();
+
+        PalindromeSolution solution = palindromeParser.parse("I am Anna",
+                new ParseOptions().withCancellationToken(cancellationToken));
+
+        assertThat(solution.isPartial()).isTrue();
+        assertThat(palindromeParser.parse("I am Anna", new ParseOptions()).isPartial()).isFalse();
+    }
+}
@@ -0,0 +1,98 @@
+package com.quickcamel.winnow.palindromes.service.parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompactManacherPalindromeParserTest {
+
+    private PalindromeParser palindromeParser = new CompactManacherPalindromeParser(64);
+
+    @Test
+    void shouldFindAnna() {
+        PalindromeSolution solution = palindromeParser.parse("I am Anna");
+        assertThat(solution.getLargestPalindrome()).isEqualTo("anna");
+        assertThat(solution.getLargestPalindromeLength()).isEqualTo(4);
+        assertThat(solution.getStart()).isEqualTo(5);
+    }
+
+    @Test
+    void shouldFindNonAlphabetPalindromes() {
+        PalindromeSolution solution = palindromeParser.parse("Ma'am, I am Annabelle!");
+        assertThat(solution.getLargestPalindrome()).isEqualTo("ma'am");
+    }
+
+    @Test
+    void shouldFindNothingInEmptyText() {
+        PalindromeSolution solution = palindromeParser.parse("");
+        assertThat(solution.getLargestPalindromeLength()).isEqualTo(0);
+    }
+
+    @Test
+    void shouldFindPalindromesLongerThanAByte() {
+        String half = "Abcdefghij".repeat(40);
+        String text = "xy" + half + new StringBuilder(half).reverse() + "z";
+
+        PalindromeSolution solution = palindromeParser.parse(text);
+
+        assertThat(solution.getLargestPalindromeLength()).isEqualTo(800);
+        assertThat(solution.getStart()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldMatchManacherAcrossReusedBuffers() {
+        PalindromeParser manacher = new ManacherPalindromeParser();
+        Random random = new Random(42);
+        for (int run = 0; run < 200; run++) {
+            StringBuilder text = new StringBuilder();
+            int length = random.nextInt(run % 10 == 0 ? 2000 : 100);
+            for (int i = 0; i < length; i++) {
+                text.append("aAb".charAt(random.nextInt(3)));
+            }
+            PalindromeSolution expected = manacher.parse(text.toString());
+
+            PalindromeSolution solution = palindromeParser.parse(text.toString());
+
+            assertThat(solution.getLargestPalindrome()).isEqualTo(expected.getLargestPalindrome());
+            assertThat(solution.getStart()).isEqualTo(expected.getStart());
+        }
+    }
+
+    @Test
+    void shouldWidenRadiiOfRepetitiveText() {
+        String text = "ab".repeat(3000);
+        ManacherPalindromeParser manacher = new ManacherPalindromeParser();
+
+        PalindromeSolution solution = palindromeParser.parse(text, new ParseOptions().withRadii(true));
+
+        assertThat(solution.getLargestPalindromeLength()).isEqualTo(5999);
+        assertThat(solution.getRadii()).isEqualTo(manacher.radii(text));
+        String shorter = "xy" + "Abcdefghij".repeat(40) + "jihgfedcbA".repeat(40) + "z";
+        assertThat(palindromeParser.parse(shorter, new ParseOptions().withRadii(true)).getRadii())
+                .isEqualTo(manacher.radii(shorter));
+    }
+
+    @Test
+    void shouldStopWhenCancelled() {
+        CancellationToken cancellationToken = new CancellationToken();
+        cancellationToken.cancel();
+
+        PalindromeSolution solution = palindromeParser.parse("I am Anna",
+                new ParseOptions().withCancellationToken(cancellationToken));
+
+        assertThat(solution.isPartial()).isTrue();
+        assertThat(solution.getLargestPalindromeLength()).isEqualTo(0);
+        assertThat(palindromeParser.parse("I am Anna", new ParseOptions()).isPartial()).isFalse();
+    }
+
+    @Test
+    void shouldKeepRadiiWhenAsked() {
+        String text = "xy" + "Abcdefghij".repeat(40) + "jihgfedcbA".repeat(40) + "z";
+
+        PalindromeSolution solution = palindromeParser.parse(text, new ParseOptions().withRadii(true));
+
+        assertThat(solution.getRadii()).isEqualTo(new ManacherPalindromeParser().radii(text));
+    }
+}
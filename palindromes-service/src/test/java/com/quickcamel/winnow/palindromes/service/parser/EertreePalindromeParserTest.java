@@ -0,0 +1,167 @@
+package com.quickcamel.winnow.palindromes.service.parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class EertreePalindromeParserTest {
+
+    private PalindromeParser palindromeParser = new EertreePalindromeParser();
+
+    @Test
+    void shouldFindAnna() {
+        PalindromeSolution solution = palindromeParser.parse("I am Anna");
+        assertThat(solution.getLargestPalindrome()).isEqualTo("anna");
+        assertThat(solution.getStart()).isEqualTo(5);
+        assertThat(solution.getDistinctPalindromes()).isNull();
+    }
+
+    @Test
+    void shouldCountDistinctPalindromes() {
+        PalindromeSolution solution = palindromeParser.parse("abaaba",
+                new ParseOptions().withMode(ParseOptions.Mode.DISTINCT));
+
+        assertThat(solution.getDistinctPalindromes())
+                .extracting(DistinctPalindrome::getPalindrome, DistinctPalindrome::getOccurrences)
+                .containsExactly(
+                        tuple("a", 4),
+                        tuple("aba", 2),
+                        tuple("b", 2),
+                        tuple("abaaba", 1),
+                        tuple("baab", 1),
+                        tuple("aa", 1));
+    }
+
+    @Test
+    void shouldFilterAndLimitDistinctPalindromes() {
+        PalindromeSolution solution = palindromeParser.parse("Madam, I'm Adam",
+                new ParseOptions().withMode(ParseOptions.Mode.DISTINCT).withMinLength(3).withLimit(2));
+
+        assertThat(solution.getDistinctPalindromes())
+                .extracting(DistinctPalindrome::getPalindrome, DistinctPalindrome::getOccurrences)
+                .containsExactly(
+                        tuple("ada", 2),
+                        tuple("madam", 1));
+    }
+
+    @Test
+    void shouldNotSplitSurrogatePairsInDistinctPalindromes() {
+        String grin = "\uD83D\uDE00";
+        PalindromeSolution solution = palindromeParser.parse(grin + "a" + grin,
+                new ParseOptions().withMode(ParseOptions.Mode.DISTINCT));
+
+        assertThat(solution.getLargestPalindrome()).isEqualTo(grin + "a" + grin);
+        assertThat(solution.getLargestPalindromeLength()).isEqualTo(5);
+        assertThat(solution.getDistinctPalindromes())
+                .extracting(DistinctPalindrome::getPalindrome, DistinctPalindrome::getOccurrences)
+                .containsExactly(
+                        tuple(grin, 2),
+                        tuple(grin + "a" + grin, 1),
+                        tuple("a", 1));
+    }
+
+    @Test
+    void shouldResumeTextOutsideBasicMultilingualPlane() {
+        EertreePalindromeParser parser = new EertreePalindromeParser();
+        String grin = "\uD83D\uDE00";
+        ParseOptions options = new ParseOptions().withMode(ParseOptions.Mode.DISTINCT);
+        PalindromeSolution solution = parser.parse(grin + "a", null, options);
+
+        solution = parser.parse(grin + "a" + grin + grin, solution.getState(), options);
+
+        assertThat(solution.getLargestPalindrome()).isEqualTo(grin + "a" + grin);
+        assertThat(solution.getDistinctPalindromes())
+                .extracting(DistinctPalindrome::getPalindrome, DistinctPalindrome::getOccurrences)
+                .containsExactly(
+                        tuple(grin, 3),
+                        tuple(grin + "a" + grin, 1),
+                        tuple(grin + grin, 1),
+                        tuple("a", 1));
+    }
+
+    @Test
+    void shouldFindNothingInEmptyText() {
+        PalindromeSolution solution = palindromeParser.parse("", new ParseOptions().withMode(ParseOptions.Mode.DISTINCT));
+        assertThat(solution.getLargestPalindromeLength()).isEqualTo(0);
+        assertThat(solution.getDistinctPalindromes()).isEmpty();
+    }
+
+    @Test
+    void shouldMatchManacher() {
+        PalindromeParser manacher = new ManacherPalindromeParser();
+        Random random = new Random(3);
+        for (int run = 0; run < 200; run++) {
+            StringBuilder text = new StringBuilder();
+            int length = random.nextInt(300);
+            for (int i = 0; i < length; i++) {
+                text.append("abcA".charAt(random.nextInt(run % 2 == 0 ? 2 : 4)));
+            }
+            PalindromeSolution expected = manacher.parse(text.toString());
+
+            PalindromeSolution solution = palindromeParser.parse(text.toString());
+
+            assertThat(solution.getLargestPalindrome()).isEqualTo(expected.getLargestPalindrome());
+            assertThat(solution.getStart()).isEqualTo(expected.getStart());
+        }
+    }
+
+    @Test
+    void shouldResumeFromStateWhenTextIsAppended() {
+        EertreePalindromeParser parser = new EertreePalindromeParser();
+        ParseOptions options = new ParseOptions().withMode(ParseOptions.Mode.DISTINCT);
+        Random random = new Random(11);
+        for (int run = 0; run < 50; run++) {
+            StringBuilder text = new StringBuilder();
+            byte[] state = null;
+            for (int append = 0; append < 10; append++) {
+                int length = random.nextInt(append == 0 ? 5 : 80);
+                for (int i = 0; i < length; i++) {
+                    text.append("abcA".charAt(random.nextInt(run % 2 == 0 ? 2 : 4)));
+                }
+                PalindromeSolution expected = parser.parse(text.toString(), options);
+
+                PalindromeSolution solution = parser.parse(text.toString(), state, options);
+                state = solution.getState();
+
+                assertThat(solution.getLargestPalindrome()).isEqualTo(expected.getLargestPalindrome());
+                assertThat(solution.getStart()).isEqualTo(expected.getStart());
+                assertThat(solution.getDistinctPalindromes())
+                        .extracting(DistinctPalindrome::getPalindrome, DistinctPalindrome::getOccurrences)
+                        .containsExactlyElementsOf(expected.getDistinctPalindromes().stream()
+                                .map(distinct -> tuple(distinct.getPalindrome(), distinct.getOccurrences()))
+                                .collect(Collectors.toList()));
+            }
+        }
+    }
+
+    @Test
+    void shouldFindPalindromeSpanningAppendedText() {
+        EertreePalindromeParser parser = new EertreePalindromeParser();
+        PalindromeSolution solution = parser.parse("Racec", null, new ParseOptions());
+        assertThat(solution.getLargestPalindrome()).isEqualTo("cec");
+
+        solution = parser.parse("Racecar", solution.getState(), new ParseOptions());
+        assertThat(solution.getLargestPalindrome()).isEqualTo("racecar");
+        assertThat(solution.getState()).isNotNull();
+    }
+
+    @Test
+    void shouldSaveTreeAsFarAsItGotWhenCancelled() {
+        EertreePalindromeParser parser = new EertreePalindromeParser();
+        CancellationToken cancellationToken = new CancellationToken();
+        cancellationToken.cancel();
+
+        PalindromeSolution solution = parser.parse("Racecar", null,
+                new ParseOptions().withCancellationToken(cancellationToken));
+        assertThat(solution.isPartial()).isTrue();
+        assertThat(solution.getLargestPalindromeLength()).isEqualTo(0);
+
+        solution = parser.parse("Racecar", solution.getState(), new ParseOptions());
+        assertThat(solution.isPartial()).isFalse();
+        assertThat(solution.getLargestPalindrome()).isEqualTo("racecar");
+    }
+}
@@ -0,0 +1,122 @@
+package com.quickcamel.winnow.palindromes.service.parser;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ForkJoinPalindromeParserTest {
+
+    private ForkJoinPalindromeParser palindromeParser = new ForkJoinPalindromeParser(4, 8);
+
+    @AfterEach
+    void tearDown() {
+        palindromeParser.destroy();
+    }
+
+    @Test
+    void shouldFindAnna() {
+        PalindromeSolution solution = palindromeParser.parse("I am Anna");
+        assertThat(solution.getLargestPalindrome()).isEqualTo("anna");
+        assertThat(solution.getStart()).isEqualTo(5);
+    }
+
+    @Test
+    void shouldFindPalindromeCrossingSegments() {
+        PalindromeSolution solution = palindromeParser.parse("Sadly, I am Madam Anna, in Eden I'm Adam.");
+        assertThat(solution.getLargestPalindrome()).isEqualTo(" madam ");
+    }
+
+    @Test
+    void shouldFallBackForPalindromesFarLongerThanSegments() {
+        String text = "b" + "a".repeat(5000) + "c";
+
+        PalindromeSolution solution = palindromeParser.parse(text);
+
+        assertThat(solution.getLargestPalindromeLength()).isEqualTo(5000);
+        assertThat(solution.getStart()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldMatchManacher() {
+        PalindromeParser manacher = new ManacherPalindromeParser();
+        Random random = new Random(7);
+        for (int run = 0; run < 200; run++) {
+            StringBuilder text = new StringBuilder();
+            int length = random.nextInt(500);
+            for (int i = 0; i < length; i++) {
+                text.append("abAB".charAt(random.nextInt(run % 2 == 0 ? 2 : 4)));
+            }
+            PalindromeSolution expected = manacher.parse(text.toString());
+
+            PalindromeSolution solution = palindromeParser.parse(text.toString());
+
+            assertThat(solution.getLargestPalindrome()).isEqualTo(expected.getLargestPalindrome());
+            assertThat(solution.getStart()).isEqualTo(expected.getStart());
+        }
+    }
+
+    @Test
+    void shouldStopWhenCancelled() {
+        CancellationToken cancellationToken = new CancellationToken();
+        cancellationToken.cancel();
+
+        PalindromeSolution solution = palindromeParser.parse("I am Anna",
+                new ParseOptions().withCancellationToken(cancellationToken));
+
+        assertThat(solution.isPartial()).isTrue();
+        assertThat(solution.getLargestPalindromeLength()).isEqualTo(0);
+        assertThat(palindromeParser.parse("I am Anna", new ParseOptions()).isPartial()).isFalse();
+    }
+
+    @Test
+    void shouldReportProgressFromSegments() {
+        List<Double> fractions = Collections.synchronizedList(new ArrayList<>());
+        List<String> longestSoFar = Collections.synchronizedList(new ArrayList<>());
+
+        PalindromeSolution solution = palindromeParser.parse("Sadly, I am Madam Anna, in Eden I'm Adam.",
+                new ParseOptions().withProgressListener((fraction, longest) -> {
+                    fractions.add(fraction);
+                    longestSoFar.add(longest.getLargestPalindrome());
+                }, 0));
+
+        assertThat(solution.getLargestPalindrome()).isEqualTo(" madam ");
+        assertThat(fractions).isNotEmpty().allMatch(fraction -> fraction >= 0 && fraction < 1);
+        assertThat(longestSoFar).allMatch(palindrome -> palindrome.length() <= " madam ".length());
+    }
+
+    @Test
+    void shouldKeepRadiiFromEverySegmentWhenAsked() {
+        String text = "Sadly, I am Madam Anna, in Eden I'm Adam.";
+
+        assertThat(palindromeParser.parse(text, new ParseOptions().withRadii(true)).getRadii())
+                .isEqualTo(new ManacherPalindromeParser().radii(text));
+        assertThat(palindromeParser.parse(text).getRadii()).isNull();
+    }
+
+    @Test
+    void shouldKeepLongestFoundWhenStoppedWhileSegmentsAreAbandoned() {
+        String text = "b" + "a".repeat(5000) + "c";
+        CancellationToken cancellationToken = new CancellationToken();
+        AtomicInteger reports = new AtomicInteger();
+
+        // stopped once segments have started, and been abandoned, well into the text
+        PalindromeSolution solution = palindromeParser.parse(text, new ParseOptions()
+                .withCancellationToken(cancellationToken)
+                .withProgressListener((fraction, longest) -> {
+                    if (reports.incrementAndGet() == 20) {
+                        cancellationToken.cancel();
+                    }
+                }, 0));
+
+        assertThat(solution.isPartial()).isTrue();
+        assertThat(solution.getLargestPalindromeLength()).isPositive();
+        assertThat(solution.getLargestPalindrome()).matches("a+");
+    }
+}
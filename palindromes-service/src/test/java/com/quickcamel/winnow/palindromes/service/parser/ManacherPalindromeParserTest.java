@@ -2,7 +2,14 @@ package com.quickcamel.winnow.palindromes.service.parser;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.assertj.core.api.Assertions.within;
 
 class ManacherPalindromeParserTest {
 
@@ -14,6 +21,8 @@ class ManacherPalindromeParserTest {
         // example shows lower case
         assertThat(solution.getLargestPalindrome()).isEqualTo("anna");
         assertThat(solution.getLargestPalindromeLength()).isEqualTo(4);
+        assertThat(solution.getStart()).isEqualTo(5);
+        assertThat(solution.getEnd()).isEqualTo(9);
     }
 
     @Test
@@ -37,4 +46,285 @@ class ManacherPalindromeParserTest {
         assertThat(solution.getLargestPalindrome()).isEqualTo("ma'am");
         assertThat(solution.getLargestPalindromeLength()).isEqualTo(5);
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldFindLongestMaximalPalindromes() {
+        PalindromeSolution solution = palindromeParser.parse("abacabad",
+                new ParseOptions().withMode(ParseOptions.Mode.MAXIMAL).withMinLength(3).withLimit(3));
+
+        assertThat(solution.getMaximalPalindromes())
+                .extracting(MaximalPalindrome::getPalindrome, MaximalPalindrome::getStart, MaximalPalindrome::getEnd)
+                .containsExactly(
+                        tuple("abacaba", 0L, 7L),
+                        tuple("aba", 0L, 3L),
+                        tuple("aba", 4L, 7L));
+    }
+
+    @Test
+    void shouldFindNonOverlappingMaximalPalindromes() {
+        PalindromeSolution solution = palindromeParser.parse("abacabad",
+                new ParseOptions().withMode(ParseOptions.Mode.MAXIMAL).withLimit(2).withNonOverlapping(true));
+
+        assertThat(solution.getMaximalPalindromes())
+                .extracting(MaximalPalindrome::getPalindrome, MaximalPalindrome::getStart, MaximalPalindrome::getEnd)
+                .containsExactly(
+                        tuple("abacaba", 0L, 7L),
+                        tuple("d", 7L, 8L));
+    }
+
+    @Test
+    void shouldNotFindMaximalPalindromesUnlessAsked() {
+        PalindromeSolution solution = palindromeParser.parse("abacabad");
+        assertThat(solution.getMaximalPalindromes()).isNull();
+    }
+
+    @Test
+    void shouldFindLatin1Palindromes() {
+        PalindromeSolution solution = palindromeParser.parse("Où, À été à!");
+        assertThat(solution.getLargestPalindrome()).isEqualTo("à été à");
+        assertThat(solution.getStart()).isEqualTo(4);
+        assertThat(solution.getEnd()).isEqualTo(11);
+    }
+
+    @Test
+    void shouldFindBasicMultilingualPalindromes() {
+        PalindromeSolution solution = palindromeParser.parse("上海自来水来自海上。");
+        assertThat(solution.getLargestPalindrome()).isEqualTo("上海自来水来自海上");
+    }
+
+    @Test
+    void shouldNotSplitSurrogatePairs() {
+        PalindromeSolution solution = palindromeParser.parse("😀😁");
+        assertThat(solution.getLargestPalindrome()).isEqualTo("😀");
+        assertThat(solution.getLargestPalindromeLength()).isEqualTo(2);
+
+        solution = palindromeParser.parse("A x😀Y😀x!");
+        assertThat(solution.getLargestPalindrome()).isEqualTo("x😀y😀x");
+        assertThat(solution.getStart()).isEqualTo(2);
+        assertThat(solution.getEnd()).isEqualTo(9);
+    }
+
+    @Test
+    void shouldFindPalindromesOfSeparatorCharacters() {
+        PalindromeSolution solution = palindromeParser.parse("a$#$@");
+        assertThat(solution.getLargestPalindrome()).isEqualTo("$#$");
+    }
+
+    @Test
+    void shouldFindMaximalPalindromesOutsideBasicMultilingualPlane() {
+        PalindromeSolution solution = palindromeParser.parse("😀a😀b", new ParseOptions()
+                .withMode(ParseOptions.Mode.MAXIMAL).withLimit(2));
+
+        assertThat(solution.getMaximalPalindromes())
+                .extracting(MaximalPalindrome::getPalindrome, MaximalPalindrome::getStart, MaximalPalindrome::getEnd)
+                .containsExactly(
+                        tuple("😀a😀", 0L, 5L),
+                        tuple("😀", 0L, 2L));
+    }
+
+    @Test
+    void shouldFindPanamaInOriginalText() {
+        String text = "He said \"A man, a plan, a canal: Panama!\"";
+        PalindromeSolution solution = palindromeParser.parse(text,
+                new ParseOptions().withNormalizations(EnumSet.allOf(ParseOptions.Normalization.class)));
+        assertThat(solution.getLargestPalindrome()).isEqualTo("A man, a plan, a canal: Panama");
+        assertThat(solution.getLargestPalindromeLength()).isEqualTo(30);
+        assertThat(text.substring(solution.getStart().intValue(), solution.getEnd().intValue()))
+                .isEqualTo(solution.getLargestPalindrome());
+    }
+
+    @Test
+    void shouldIgnoreDiacritics() {
+        PalindromeSolution solution = palindromeParser.parse("Ésope reste ici et se repose",
+                new ParseOptions().withNormalizations(EnumSet.allOf(ParseOptions.Normalization.class)));
+        assertThat(solution.getLargestPalindrome()).isEqualTo("Ésope reste ici et se repose");
+    }
+
+    @Test
+    void shouldOnlyApplyNormalizationsAsked() {
+        PalindromeSolution solution = palindromeParser.parse("Never odd or even",
+                new ParseOptions().withNormalizations(EnumSet.of(ParseOptions.Normalization.WHITESPACE)));
+        assertThat(solution.getLargestPalindrome()).isEqualTo("ever odd or eve");
+
+        solution = palindromeParser.parse("Never odd or even", new ParseOptions()
+                .withNormalizations(EnumSet.of(ParseOptions.Normalization.WHITESPACE, ParseOptions.Normalization.CASE)));
+        assertThat(solution.getLargestPalindrome()).isEqualTo("Never odd or even");
+    }
+
+    @Test
+    void shouldFindNothingWhenEverythingIsIgnored() {
+        PalindromeSolution solution = palindromeParser.parse(" , ",
+                new ParseOptions().withNormalizations(EnumSet.allOf(ParseOptions.Normalization.class)));
+        assertThat(solution.getLargestPalindromeLength()).isEqualTo(0);
+        assertThat(solution.getLargestPalindrome()).isEmpty();
+    }
+
+    @Test
+    void shouldMapMaximalPalindromesToOriginalText() {
+        PalindromeSolution solution = palindromeParser.parse("Aba, ca-BA!d", new ParseOptions()
+                .withMode(ParseOptions.Mode.MAXIMAL).withMinLength(3).withLimit(1)
+                .withNormalizations(EnumSet.allOf(ParseOptions.Normalization.class)));
+
+        assertThat(solution.getMaximalPalindromes())
+                .extracting(MaximalPalindrome::getPalindrome, MaximalPalindrome::getStart, MaximalPalindrome::getEnd)
+                .containsExactly(tuple("Aba, ca-BA", 0L, 10L));
+    }
+
+    @Test
+    void shouldReturnBestSoFarWhenStopped() {
+        // cancelled when checked for the second time, after the first 4096 positions
+        CancellationToken cancellationToken = new CancellationToken() {
+            private int checks;
+
+            @Override
+            public boolean isCancelled() {
+                return ++checks > 1;
+            }
+        };
+        String text = "abcba" + "0123456789".repeat(500) + "racecar";
+
+        PalindromeSolution solution = palindromeParser.parse(text, new ParseOptions().withCancellationToken(cancellationToken));
+
+        assertThat(solution.isPartial()).isTrue();
+        assertThat(solution.getLargestPalindrome()).isEqualTo("abcba");
+    }
+
+    @Test
+    void shouldStopAtDeadline() {
+        PalindromeSolution solution = palindromeParser.parse("I am Anna",
+                new ParseOptions().withDeadline(System.currentTimeMillis() - 1));
+        assertThat(solution.isPartial()).isTrue();
+        assertThat(solution.getLargestPalindromeLength()).isEqualTo(0);
+
+        solution = palindromeParser.parse("I am Anna",
+                new ParseOptions().withDeadline(System.currentTimeMillis() + 60000));
+        assertThat(solution.isPartial()).isFalse();
+        assertThat(solution.getLargestPalindrome()).isEqualTo("anna");
+    }
+
+    @Test
+    void shouldReportProgressWithLongestPalindromeSoFar() {
+        StringBuilder text = new StringBuilder("abcba");
+        for (int i = 0; i < 1000; i++) {
+            text.append("0123456789");
+        }
+        List<Double> fractions = new ArrayList<>();
+        List<String> longestSoFar = new ArrayList<>();
+
+        PalindromeSolution solution = palindromeParser.parse(text.toString(), new ParseOptions()
+                .withProgressListener((fraction, longest) -> {
+                    fractions.add(fraction);
+                    longestSoFar.add(longest.getLargestPalindrome());
+                    assertThat(longest.isPartial()).isTrue();
+                }, 0));
+
+        assertThat(solution.isPartial()).isFalse();
+        assertThat(fractions).hasSize(5).isSorted().allMatch(fraction -> fraction < 1);
+        assertThat(fractions.get(0)).isEqualTo(0);
+        assertThat(longestSoFar).startsWith("").endsWith("abcba");
+    }
+
+    @Test
+    void shouldFindRadiiAboutEveryCentre() {
+        // centres alternate between gaps and chars: |a|B|b|a|c|
+        assertThat(new ManacherPalindromeParser().radii("aBbac"))
+                .containsExactly(0, 1, 0, 1, 4, 1, 0, 1, 0, 1, 0);
+    }
+
+    @Test
+    void shouldCountPalindromesAsParsed() {
+        PalindromeStatistics statistics = new ManacherPalindromeParser()
+                .parse("aBba", new ParseOptions().withStatistics(true))
+                .getStatistics();
+
+        // a, b, b, a, bb and abba
+        assertThat(statistics.getPalindromes()).isEqualTo(6);
+        assertThat(statistics.getLengthHistogram()).containsExactly(4L, 1L, 1L);
+        // bb and abba are centred between the middle b's
+        assertThat(statistics.getRegionLength()).isEqualTo(1);
+        assertThat(statistics.getDensities()).containsExactly(0.0, 2.0, 0.0, 0.0);
+    }
+
+    @Test
+    void shouldCountEveryPalindromicSubstring() {
+        Random random = new Random(16);
+        for (int run = 0; run < 50; run++) {
+            StringBuilder text = new StringBuilder();
+            for (int i = random.nextInt(200); i > 0; i--) {
+                text.append("abc".charAt(random.nextInt(run % 2 == 0 ? 2 : 3)));
+            }
+            String s = text.toString();
+            long palindromes = 0;
+            long[] histogram = new long[32];
+            for (int start = 0; start < s.length(); start++) {
+                for (int end = start + 1; end <= s.length(); end++) {
+                    if (new StringBuilder(s.substring(start, end)).reverse().toString().equals(s.substring(start, end))) {
+                        palindromes++;
+                        histogram[31 - Integer.numberOfLeadingZeros(end - start)]++;
+                    }
+                }
+            }
+
+            PalindromeStatistics statistics = new ManacherPalindromeParser()
+                    .parse(s, new ParseOptions().withStatistics(true))
+                    .getStatistics();
+
+            assertThat(statistics.getPalindromes()).as(s).isEqualTo(palindromes);
+            for (int k = 0; k < statistics.getLengthHistogram().size(); k++) {
+                assertThat(statistics.getLengthHistogram().get(k)).as(s).isEqualTo(histogram[k]);
+            }
+            double centred = 0;
+            for (int region = 0; region < statistics.getDensities().size(); region++) {
+                int regionStart = region * statistics.getRegionLength();
+                centred += statistics.getDensities().get(region)
+                        * Math.min(statistics.getRegionLength(), s.length() - regionStart);
+            }
+            // every palindrome of two or more chars is centred in some region
+            assertThat(centred).isCloseTo(palindromes - s.length(), within(1e-6));
+        }
+    }
+
+    @Test
+    void shouldNotCountPalindromesUnlessAsked() {
+        assertThat(new ManacherPalindromeParser().parse("abba", new ParseOptions()).getStatistics()).isNull();
+    }
+
+    @Test
+    void shouldParseBatchAsEachTextAlone() {
+        ManacherPalindromeParser parser = new ManacherPalindromeParser();
+        Random random = new Random(17);
+        List<String> texts = new ArrayList<>();
+        // long texts first, leaving stale radii in the scratch arrays for the shorter ones after
+        for (int length = 200; length >= 0; length -= random.nextInt(10) + 1) {
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < length; i++) {
+                text.append("aAbé".charAt(random.nextInt(4)));
+            }
+            texts.add(text.toString());
+        }
+        texts.add("\uD83D\uDE00xAx\uD83D\uDE00");
+
+        PalindromeBatch batch = parser.parseAll(texts);
+        PalindromeBatch again = parser.parseAll(List.of("abcba", "z"));
+
+        assertThat(batch.size()).isEqualTo(texts.size());
+        for (int item = 0; item < texts.size(); item++) {
+            PalindromeSolution solution = parser.parse(texts.get(item));
+            assertThat(batch.getPalindrome(item)).as(texts.get(item)).isEqualTo(solution.getLargestPalindrome());
+            assertThat((long) batch.getStart(item)).isEqualTo(solution.getStart());
+            assertThat(batch.getLength(item)).isEqualTo(solution.getLargestPalindromeLength());
+        }
+        assertThat(again.getPalindrome(0)).isEqualTo("abcba");
+        assertThat(again.getPalindrome(1)).isEqualTo("z");
+    }
+
+    @Test
+    void shouldKeepRadiiOfCharsOnlyWhenAsked() {
+        ManacherPalindromeParser manacher = new ManacherPalindromeParser();
+
+        assertThat(manacher.parse("Madam Anna", new ParseOptions().withRadii(true)).getRadii())
+                .isEqualTo(manacher.radii("Madam Anna"));
+        assertThat(manacher.parse("Madam Anna", new ParseOptions().withRadii(true)
+                .withNormalizations(EnumSet.of(ParseOptions.Normalization.WHITESPACE))).getRadii()).isNull();
+    }
+}
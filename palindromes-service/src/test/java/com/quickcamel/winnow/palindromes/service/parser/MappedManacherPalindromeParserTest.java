@@ -0,0 +1,125 @@
+package com.quickcamel.winnow.palindromes.service.parser;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MappedManacherPalindromeParserTest {
+
+    private Path directory;
+
+    @BeforeEach
+    void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("mapped");
+    }
+
+    @AfterEach
+    void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    // regions of 16 bytes, so palindromes and radii span many of them
+    private MappedManacherPalindromeParser parser() {
+        return new MappedManacherPalindromeParser(directory.toString(), 1024, 4);
+    }
+
+    @Test
+    void shouldFindAnna() {
+        PalindromeSolution solution = parser().parse("I am Anna");
+        assertThat(solution.getLargestPalindrome()).isEqualTo("anna");
+        assertThat(solution.getLargestPalindromeLength()).isEqualTo(4);
+        assertThat(solution.getStart()).isEqualTo(5);
+        assertThat(solution.getEnd()).isEqualTo(9);
+    }
+
+    @Test
+    void shouldFindNothingInEmptyText() {
+        PalindromeSolution solution = parser().parse("");
+        assertThat(solution.getLargestPalindromeLength()).isEqualTo(0);
+        assertThat(solution.getLargestPalindrome()).isEmpty();
+    }
+
+    @Test
+    void shouldMatchManacherAcrossRegions() {
+        PalindromeParser manacher = new ManacherPalindromeParser();
+        Random random = new Random(18);
+        for (int length = 1; length < 300; length += 7) {
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < length; i++) {
+                text.append("abAé".charAt(random.nextInt(4)));
+            }
+            PalindromeSolution expected = manacher.parse(text.toString());
+            PalindromeSolution solution = parser().parse(text.toString());
+            assertThat(solution.getLargestPalindrome()).as(text.toString()).isEqualTo(expected.getLargestPalindrome());
+            assertThat(solution.getStart()).isEqualTo(expected.getStart());
+            assertThat(solution.getEnd()).isEqualTo(expected.getEnd());
+        }
+    }
+
+    @Test
+    void shouldParseFile() throws IOException {
+        Path file = directory.resolve("assembly.txt");
+        Files.write(file, "GATTACA, Step on no pets!".getBytes(StandardCharsets.ISO_8859_1));
+
+        PalindromeSolution solution = parser().parse(file, new ParseOptions());
+
+        assertThat(solution.getLargestPalindrome()).isEqualTo("step on no pets");
+        assertThat(solution.getStart()).isEqualTo(9);
+        assertThat(solution.getEnd()).isEqualTo(24);
+        assertThat(solution.isPartial()).isFalse();
+        // only the file parsed remains, the radii having been deleted
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files).containsExactly(file);
+        }
+    }
+
+    @Test
+    void shouldReportOffsetsAloneOfLongPalindromes() {
+        PalindromeSolution solution = new MappedManacherPalindromeParser(directory.toString(), 4, 4)
+                .parse("Racecar!");
+        assertThat(solution.getLargestPalindrome()).isNull();
+        assertThat(solution.getLargestPalindromeLength()).isEqualTo(7);
+        assertThat(solution.getStart()).isEqualTo(0);
+        assertThat(solution.getEnd()).isEqualTo(7);
+    }
+
+    @Test
+    void shouldLeaveTextBeyondLatin1ToManacher() {
+        PalindromeSolution solution = parser().parse("Ωmadamω");
+        assertThat(solution.getLargestPalindrome()).isEqualTo("ωmadamω");
+    }
+
+    @Test
+    void shouldStopWhenCancelled() {
+        CancellationToken cancellationToken = new CancellationToken();
+        cancellationToken.cancel();
+
+        PalindromeSolution solution = parser().parse("xracecarx",
+                new ParseOptions().withCancellationToken(cancellationToken));
+
+        assertThat(solution.isPartial()).isTrue();
+        assertThat(solution.getLargestPalindromeLength()).isEqualTo(0);
+    }
+
+    @Test
+    void shouldSaturateRadiiKeepingTheirParity() throws IOException {
+        try (MappedRadii radii = new MappedRadii(directory, 2, 4)) {
+            radii.set(0, Integer.MAX_VALUE + 1L);
+            radii.set(1, Integer.MAX_VALUE + 2L);
+            assertThat(radii.get(0)).isEqualTo(Integer.MAX_VALUE - 1);
+            assertThat(radii.get(1)).isEqualTo(Integer.MAX_VALUE);
+        }
+    }
+}
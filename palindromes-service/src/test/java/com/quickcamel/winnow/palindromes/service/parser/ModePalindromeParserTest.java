@@ -0,0 +1,43 @@
+package com.quickcamel.winnow.palindromes.service.parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ModePalindromeParserTest {
+
+    private PalindromeParser palindromeParser = new ModePalindromeParser(
+            text -> new PalindromeSolution(0, "longest"),
+            text -> new PalindromeSolution(0, "normalizing"),
+            Map.of(ParseOptions.Mode.DISTINCT, text -> new PalindromeSolution(0, "distinct")));
+
+    @Test
+    void shouldRouteModeToItsParser() {
+        PalindromeSolution solution = palindromeParser.parse("test",
+                new ParseOptions().withMode(ParseOptions.Mode.DISTINCT));
+        assertThat(solution.getLargestPalindrome()).isEqualTo("distinct");
+    }
+
+    @Test
+    void shouldFallBackToLongestParser() {
+        assertThat(palindromeParser.parse("test", new ParseOptions().withMode(ParseOptions.Mode.MAXIMAL))
+                .getLargestPalindrome()).isEqualTo("longest");
+        assertThat(palindromeParser.parse("test").getLargestPalindrome()).isEqualTo("longest");
+    }
+
+    @Test
+    void shouldRouteNormalizedLongestToNormalizingParser() {
+        PalindromeSolution solution = palindromeParser.parse("test",
+                new ParseOptions().withNormalizations(EnumSet.of(ParseOptions.Normalization.CASE)));
+        assertThat(solution.getLargestPalindrome()).isEqualTo("normalizing");
+    }
+
+    @Test
+    void shouldRouteLongestWithStatisticsToNormalizingParser() {
+        PalindromeSolution solution = palindromeParser.parse("test", new ParseOptions().withStatistics(true));
+        assertThat(solution.getLargestPalindrome()).isEqualTo("normalizing");
+    }
+}
@@ -0,0 +1,92 @@
+package com.quickcamel.winnow.palindromes.service.parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StreamingManacherPalindromeParserTest {
+
+    private PalindromeParser palindromeParser = new StreamingManacherPalindromeParser(1024, 256);
+
+    @Test
+    void shouldFindAnna() {
+        PalindromeSolution solution = palindromeParser.parse("I am Anna");
+        assertThat(solution.getLargestPalindrome()).isEqualTo("anna");
+        assertThat(solution.getLargestPalindromeLength()).isEqualTo(4);
+        assertThat(solution.getStart()).isEqualTo(5);
+        assertThat(solution.getEnd()).isEqualTo(9);
+    }
+
+    @Test
+    void shouldFindLongest() {
+        PalindromeSolution solution = palindromeParser.parse("Madam Anna");
+        assertThat(solution.getLargestPalindrome()).isEqualTo("madam");
+        assertThat(solution.getLargestPalindromeLength()).isEqualTo(5);
+    }
+
+    @Test
+    void shouldFindNothingInEmptyText() {
+        PalindromeSolution solution = palindromeParser.parse("");
+        assertThat(solution.getLargestPalindromeLength()).isEqualTo(0);
+    }
+
+    @Test
+    void shouldFindPalindromeSpanningWindows() throws IOException {
+        StreamingPalindromeParser streamingParser = new StreamingManacherPalindromeParser(8, 6);
+
+        PalindromeSolution solution = streamingParser.parse(new StringReader("xyzzy I am Madam Anna"));
+
+        assertThat(solution.getLargestPalindrome()).isEqualTo(" madam ");
+        assertThat(solution.getStart()).isEqualTo(10);
+        assertThat(solution.getEnd()).isEqualTo(17);
+    }
+
+    @Test
+    void shouldMatchManacherWhenLongestFitsOverlap() throws IOException {
+        String text = "Was it a car or a cat I saw? Step on no pets, racecar level rotor, Ma'am I am Annabelle!";
+        StreamingPalindromeParser streamingParser = new StreamingManacherPalindromeParser(24, 16);
+
+        PalindromeSolution expected = new ManacherPalindromeParser().parse(text);
+        PalindromeSolution solution = streamingParser.parse(new StringReader(text));
+
+        assertThat(solution.getLargestPalindrome()).isEqualTo(expected.getLargestPalindrome());
+        assertThat(solution.getStart()).isEqualTo(expected.getStart());
+    }
+
+    @Test
+    void shouldMarkPartialWhenPalindromeLongerThanOverlapCrossesWindows() throws IOException {
+        StreamingPalindromeParser streamingParser = new StreamingManacherPalindromeParser(12, 2);
+
+        PalindromeSolution crossing = streamingParser.parse(new StringReader("uvwxyzracecarzyxwvu"));
+        PalindromeSolution within = streamingParser.parse(new StringReader("abcd level efghijklmnop"));
+
+        assertThat(crossing.isPartial()).isTrue();
+        assertThat(crossing.getLargestPalindromeLength()).isLessThan(19);
+        assertThat(within.isPartial()).isFalse();
+        assertThat(within.getLargestPalindrome()).isEqualTo(" level ");
+    }
+
+    @Test
+    void shouldNotSplitSurrogatePairs() throws IOException {
+        String text = "ab\uD83D\uDE00\uD83D\uDE01\uD83D\uDE00cd\uD83D\uDE00\uD83D\uDE01";
+        StreamingPalindromeParser streamingParser = new StreamingManacherPalindromeParser(8, 6);
+
+        PalindromeSolution solution = streamingParser.parse(new StringReader(text));
+
+        assertThat(solution.getLargestPalindrome()).isEqualTo("\uD83D\uDE00\uD83D\uDE01\uD83D\uDE00");
+        assertThat(solution.getStart()).isEqualTo(2);
+        assertThat(solution.getEnd()).isEqualTo(8);
+        assertThat(solution.isPartial()).isFalse();
+        assertThat(palindromeParser.parse("\uD83D\uDE00\uD83D\uDE01").getLargestPalindrome()).isEqualTo("\uD83D\uDE00");
+    }
+
+    @Test
+    void shouldRejectOverlapFillingWindow() {
+        assertThrows(IllegalArgumentException.class, () -> new StreamingManacherPalindromeParser(8, 8));
+        assertThrows(IllegalArgumentException.class, () -> new StreamingManacherPalindromeParser(8, 7));
+    }
+}
@@ -0,0 +1,92 @@
+package com.quickcamel.winnow.palindromes.service.parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SwarManacherPalindromeParserTest {
+
+    private PalindromeParser palindromeParser = new SwarManacherPalindromeParser();
+
+    @Test
+    void shouldFindAnna() {
+        PalindromeSolution solution = palindromeParser.parse("I am Anna");
+        assertThat(solution.getLargestPalindrome()).isEqualTo("anna");
+        assertThat(solution.getLargestPalindromeLength()).isEqualTo(4);
+        assertThat(solution.getStart()).isEqualTo(5);
+    }
+
+    @Test
+    void shouldFindNothingInEmptyText() {
+        PalindromeSolution solution = palindromeParser.parse("");
+        assertThat(solution.getLargestPalindromeLength()).isEqualTo(0);
+    }
+
+    @Test
+    void shouldFindMismatchWithinAndAfterLongs() {
+        byte[] a = "abcdefghijklmnopq".getBytes();
+        byte[] b = "abcdefghijkXmnopq".getBytes();
+        assertThat(SwarManacherPalindromeParser.matching(a, 0, b, 0, 17)).isEqualTo(11);
+        assertThat(SwarManacherPalindromeParser.matching(a, 0, b, 0, 5)).isEqualTo(5);
+        assertThat(SwarManacherPalindromeParser.matching(a, 12, b, 12, 5)).isEqualTo(5);
+        assertThat(SwarManacherPalindromeParser.matching(a, 1, b, 0, 17 - 1)).isEqualTo(0);
+    }
+
+    @Test
+    void shouldLeaveTextBeyondLatin1ToManacher() {
+        PalindromeSolution solution = palindromeParser.parse("😀😁");
+        assertThat(solution.getLargestPalindrome()).isEqualTo("😀");
+    }
+
+    @Test
+    void shouldMatchManacher() {
+        PalindromeParser manacher = new ManacherPalindromeParser();
+        Random random = new Random(9);
+        for (int run = 0; run < 300; run++) {
+            StringBuilder text = new StringBuilder();
+            int length = random.nextInt(run % 10 == 0 ? 3000 : 100);
+            // few letters, so runs and long palindromes span many longs
+            String alphabet = run % 3 == 0 ? "aA" : run % 3 == 1 ? "ab" : "acgt";
+            for (int i = 0; i < length; i++) {
+                text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            PalindromeSolution expected = manacher.parse(text.toString());
+
+            PalindromeSolution solution = palindromeParser.parse(text.toString());
+
+            assertThat(solution.getLargestPalindrome()).isEqualTo(expected.getLargestPalindrome());
+            assertThat(solution.getStart()).isEqualTo(expected.getStart());
+        }
+    }
+
+    @Test
+    void shouldStopWhenCancelled() {
+        CancellationToken cancellationToken = new CancellationToken();
+        cancellationToken.cancel();
+
+        PalindromeSolution solution = palindromeParser.parse("I am Anna",
+                new ParseOptions().withCancellationToken(cancellationToken));
+
+        assertThat(solution.isPartial()).isTrue();
+        assertThat(solution.getLargestPalindromeLength()).isEqualTo(0);
+    }
+
+    @Test
+    void shouldReportProgressWithLongestSoFar() {
+        List<Double> fractions = new ArrayList<>();
+        String text = "I am Anna. " + "x".repeat(10000) + " Madam";
+
+        PalindromeSolution solution = palindromeParser.parse(text,
+                new ParseOptions().withProgressListener((fraction, longest) -> {
+                    fractions.add(fraction);
+                    assertThat(longest.isPartial()).isTrue();
+                }, 0));
+
+        assertThat(solution.getLargestPalindrome()).isEqualTo(" " + "x".repeat(10000) + " ");
+        assertThat(fractions).isNotEmpty().isSorted().allMatch(fraction -> fraction < 1);
+    }
+}
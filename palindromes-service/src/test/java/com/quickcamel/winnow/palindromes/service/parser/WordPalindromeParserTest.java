@@ -0,0 +1,91 @@
+package com.quickcamel.winnow.palindromes.service.parser;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WordPalindromeParserTest {
+
+    private PalindromeParser palindromeParser = new WordPalindromeParser();
+
+    @Test
+    void shouldFindWordPalindrome() {
+        String text = "In autumn, fall leaves after leaves fall.";
+        PalindromeSolution solution = palindromeParser.parse(text);
+        assertThat(solution.getLargestPalindrome()).isEqualTo("fall leaves after leaves fall");
+        assertThat(solution.getStart()).isEqualTo(11);
+        assertThat(solution.getEnd()).isEqualTo(40);
+        assertThat(solution.getLargestPalindromeLength()).isEqualTo(29);
+    }
+
+    @Test
+    void shouldMatchWordsIgnoringCaseAndPunctuation() {
+        PalindromeSolution solution = palindromeParser.parse("King, are you glad you are king?");
+        assertThat(solution.getLargestPalindrome()).isEqualTo("King, are you glad you are king");
+    }
+
+    @Test
+    void shouldFindEvenWordPalindrome() {
+        PalindromeSolution solution = palindromeParser.parse("so patient a doctor to doctor a patient so");
+        assertThat(solution.getLargestPalindrome()).isEqualTo("so patient a doctor to doctor a patient so");
+
+        solution = palindromeParser.parse("one two two three");
+        assertThat(solution.getLargestPalindrome()).isEqualTo("two two");
+    }
+
+    @Test
+    void shouldMatchWordsEqualInUpperCase() {
+        PalindromeSolution solution = palindromeParser.parse("then \u017Fo it so");
+        assertThat(solution.getLargestPalindrome()).isEqualTo("\u017Fo it so");
+    }
+
+    @Test
+    void shouldMatchWordsBeyondFirstTableSize() {
+        StringBuilder text = new StringBuilder("start");
+        for (int word = 0; word < 1000; word++) {
+            text.append(" w").append(word);
+        }
+        text.append(" middle");
+        for (int word = 999; word >= 0; word--) {
+            text.append(" W").append(word);
+        }
+        text.append(" end");
+
+        PalindromeSolution solution = palindromeParser.parse(text.toString());
+
+        assertThat(solution.getLargestPalindrome()).startsWith("w0 w1 w2 ").endsWith(" W2 W1 W0");
+        assertThat(solution.getLargestPalindromeLength()).isEqualTo(text.length() - "start  end".length());
+    }
+
+    @Test
+    void shouldNotMatchPartsOfWords() {
+        PalindromeSolution solution = palindromeParser.parse("cat at cat, at");
+        assertThat(solution.getLargestPalindrome()).isEqualTo("cat at cat");
+    }
+
+    @Test
+    void shouldFindFirstWordWhenNoLongerPalindrome() {
+        PalindromeSolution solution = palindromeParser.parse("  one two three");
+        assertThat(solution.getLargestPalindrome()).isEqualTo("one");
+        assertThat(solution.getStart()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldFindNothingWithoutWords() {
+        PalindromeSolution solution = palindromeParser.parse(" ,.! ");
+        assertThat(solution.getLargestPalindromeLength()).isEqualTo(0);
+        assertThat(solution.getLargestPalindrome()).isEmpty();
+    }
+
+    @Test
+    void shouldStopWhenCancelled() {
+        CancellationToken cancellationToken = new CancellationToken();
+        cancellationToken.cancel();
+
+        PalindromeSolution solution = palindromeParser.parse("fall leaves after leaves fall",
+                new ParseOptions().withCancellationToken(cancellationToken));
+
+        assertThat(solution.isPartial()).isTrue();
+        assertThat(solution.getLargestPalindromeLength()).isEqualTo(0);
+    }
+}
@@ -0,0 +1,75 @@
+package com.quickcamel.winnow.palindromes.service.state;
+
+import com.quickcamel.winnow.palindromes.entities.PalindromeStateEntity;
+import com.quickcamel.winnow.palindromes.entities.PalindromeTaskEntity;
+import com.quickcamel.winnow.palindromes.repositories.PalindromeStateRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PalindromeStateStoreTest {
+
+    @Mock
+    private PalindromeStateRepository repository;
+
+    private PalindromeStateStore store;
+
+    @BeforeEach
+    void setup() {
+        store = new PalindromeStateStore(repository, 8);
+    }
+
+    @Test
+    void shouldSaveStateApartFromTask() {
+        byte[] state = {1, 2, 3};
+
+        store.save(new PalindromeTaskEntity().withTask("task").withText("abba"), state);
+
+        verify(repository).save(argThat((PalindromeStateEntity saved) ->
+                saved.getTask().equals("task") && saved.getLength() == 4 && saved.getState() == state));
+    }
+
+    @Test
+    void shouldRemoveStateTooLargeForItem() {
+        store.save(new PalindromeTaskEntity().withTask("task").withText("abba"), new byte[9]);
+
+        verify(repository, never()).save(any());
+        verify(repository).delete(argThat((PalindromeStateEntity removed) -> removed.getTask().equals("task")));
+    }
+
+    @Test
+    void shouldNotSaveWithoutState() {
+        store.save(new PalindromeTaskEntity().withTask("task").withText("abba"), null);
+
+        verifyZeroInteractions(repository);
+    }
+
+    @Test
+    void shouldLoadStateOfTextTaskStartsWith() {
+        byte[] state = {1, 2, 3};
+        when(repository.findById("task")).thenReturn(Optional.of(new PalindromeStateEntity()
+                .withTask("task")
+                .withLength(4)
+                .withState(state)));
+
+        assertThat(store.load(new PalindromeTaskEntity().withTask("task").withText("abba, appended")))
+                .isSameAs(state);
+        assertThat(store.load(new PalindromeTaskEntity().withTask("task").withText("abb"))).isNull();
+    }
+
+    @Test
+    void shouldParseInFullWithoutState() {
+        when(repository.findById("task")).thenReturn(Optional.empty());
+
+        assertThat(store.load(new PalindromeTaskEntity().withTask("task").withText("abba"))).isNull();
+    }
+}
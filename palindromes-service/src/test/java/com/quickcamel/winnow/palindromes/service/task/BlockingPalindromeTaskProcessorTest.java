@@ -2,8 +2,17 @@ package com.quickcamel.winnow.palindromes.service.task;
 
 import com.quickcamel.winnow.palindromes.entities.PalindromeTaskEntity;
 import com.quickcamel.winnow.palindromes.repositories.PalindromeTaskRepository;
+import com.quickcamel.winnow.palindromes.service.cache.SolutionCache;
+import com.quickcamel.winnow.palindromes.service.index.PalindromeIndexer;
+import com.quickcamel.winnow.palindromes.service.parser.DistinctPalindrome;
+import com.quickcamel.winnow.palindromes.service.parser.ManacherPalindromeParser;
+import com.quickcamel.winnow.palindromes.service.parser.MaximalPalindrome;
+import com.quickcamel.winnow.palindromes.service.parser.ParseOptions;
 import com.quickcamel.winnow.palindromes.service.parser.PalindromeParser;
 import com.quickcamel.winnow.palindromes.service.parser.PalindromeSolution;
+import com.quickcamel.winnow.palindromes.service.parser.ResumablePalindromeParser;
+import com.quickcamel.winnow.palindromes.service.state.PalindromeStateStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -11,10 +20,17 @@ import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -23,13 +39,22 @@ class BlockingPalindromeTaskProcessorTest {
     @Mock
     private PalindromeParser parser;
     @Mock
+    private ResumablePalindromeParser resumableParser;
+    @Mock
     private PalindromeTaskRepository repository;
+    @Mock
+    private PalindromeIndexer palindromeIndexer;
+    @Mock
+    private PalindromeStateStore palindromeStates;
 
+    private SolutionCache solutionCache;
     private BlockingPalindromeTaskProcessor blockingProcessor;
 
     @BeforeEach
     void setup() {
-        blockingProcessor = new BlockingPalindromeTaskProcessor(parser, repository);
+        solutionCache = new SolutionCache(repository, new SimpleMeterRegistry(), "manacher", "1", 1 << 20, false);
+        blockingProcessor = new BlockingPalindromeTaskProcessor(parser, resumableParser, repository, solutionCache,
+                palindromeIndexer, palindromeStates, 100, 0, 4096, 0, 0);
     }
 
     @Test
@@ -38,10 +63,10 @@ class BlockingPalindromeTaskProcessorTest {
 
         blockingProcessor.processPalindromeTask("de54b2bd-dfb3-43b9-9dc9-07b6326ff023");
 
-        verify(repository, never()).save(any());
+        verify(repository, never()).start(anyString(), anyLong());
+        verify(repository, never()).complete(any(), any());
     }
 
-    @SuppressWarnings("unchecked")
     @Test
     void shouldProgressSubmittedTaskToStartedBeforeParsing() {
         String taskId = "de54b2bd-dfb3-43b9-9dc9-07b6326ff023";
@@ -50,55 +75,87 @@ class BlockingPalindromeTaskProcessorTest {
                         .withTask(taskId)
                         .withStatus(PalindromeTaskEntity.Status.SUBMITTED)
                         .withSubmitted(1L)
-                        .withText("test")),
+                        .withText("test"))
+        );
+        when(repository.start(eq(taskId), anyLong())).thenReturn(true);
+
+        when(parser.parse(anyString(), any()))
+                .thenReturn(new PalindromeSolution(0, null));
+
+        blockingProcessor.processPalindromeTask(taskId);
+
+        InOrder inOrder = inOrder(repository, parser);
+        inOrder.verify(repository).start(eq(taskId), anyLong());
+        inOrder.verify(parser).parse(anyString(), any());
+    }
+
+    @Test
+    void shouldProgressStartedTaskToCompletedAfterParsing() {
+        String taskId = "de54b2bd-dfb3-43b9-9dc9-07b6326ff023";
+        when(repository.findById(anyString())).thenReturn(
                 Optional.of(new PalindromeTaskEntity()
                         .withTask(taskId)
-                        .withStatus(PalindromeTaskEntity.Status.STARTED)
+                        .withStatus(PalindromeTaskEntity.Status.SUBMITTED)
                         .withSubmitted(1L)
-                        .withStarted(2L)
                         .withText("test"))
         );
+        when(repository.start(eq(taskId), anyLong())).thenReturn(true);
 
-        when(parser.parse(anyString()))
+        when(parser.parse(anyString(), any()))
                 .thenReturn(new PalindromeSolution(0, null));
 
         blockingProcessor.processPalindromeTask(taskId);
 
         InOrder inOrder = inOrder(repository, parser);
-        inOrder.verify(repository).save(argThat(argument ->
-                argument.getStatus().equals(PalindromeTaskEntity.Status.STARTED)
-                        && argument.getStarted() != null));
-        inOrder.verify(parser).parse(anyString());
+        inOrder.verify(parser).parse(anyString(), any());
+        inOrder.verify(repository).complete(argThat(argument ->
+                argument.getTask().equals(taskId)
+                        && argument.getStarted() != null
+                        && argument.getCompleted() != null
+                        && argument.getText() == null), eq(PalindromeTaskEntity.Status.STARTED));
+        verify(repository, times(1)).findById(anyString());
+        verify(repository, never()).save(any());
     }
 
-    @SuppressWarnings("unchecked")
     @Test
-    void shouldProgressStartedTaskToCompletedAfterParsing() {
+    void shouldNotParseTaskStartedElsewhere() {
         String taskId = "de54b2bd-dfb3-43b9-9dc9-07b6326ff023";
         when(repository.findById(anyString())).thenReturn(
                 Optional.of(new PalindromeTaskEntity()
                         .withTask(taskId)
                         .withStatus(PalindromeTaskEntity.Status.SUBMITTED)
                         .withSubmitted(1L)
-                        .withText("test")),
+                        .withText("test"))
+        );
+        when(repository.start(eq(taskId), anyLong())).thenReturn(false);
+
+        blockingProcessor.processPalindromeTask(taskId);
+
+        verify(parser, never()).parse(any(), any());
+        verify(repository, never()).complete(any(), any());
+    }
+
+    @Test
+    void shouldCompleteShortTaskStraightFromSubmitted() {
+        blockingProcessor = new BlockingPalindromeTaskProcessor(parser, resumableParser, repository, solutionCache,
+                palindromeIndexer, palindromeStates, 100, 0, 4096, 16384, 0);
+        String taskId = "de54b2bd-dfb3-43b9-9dc9-07b6326ff023";
+        when(repository.findById(anyString())).thenReturn(
                 Optional.of(new PalindromeTaskEntity()
                         .withTask(taskId)
-                        .withStatus(PalindromeTaskEntity.Status.STARTED)
+                        .withStatus(PalindromeTaskEntity.Status.SUBMITTED)
                         .withSubmitted(1L)
-                        .withStarted(2L)
                         .withText("test"))
         );
-
-        when(parser.parse(anyString()))
-                .thenReturn(new PalindromeSolution(0, null));
+        when(parser.parse(anyString(), any())).thenReturn(new PalindromeSolution(3, "tst", 0L, 3L));
 
         blockingProcessor.processPalindromeTask(taskId);
 
-        InOrder inOrder = inOrder(repository, parser);
-        inOrder.verify(parser).parse(anyString());
-        inOrder.verify(repository).save(argThat(argument ->
+        verify(repository, never()).start(anyString(), anyLong());
+        verify(repository).complete(argThat(argument ->
                 argument.getStatus().equals(PalindromeTaskEntity.Status.COMPLETED)
-                        && argument.getCompleted() != null));
+                        && argument.getStarted() != null
+                        && argument.getLargestPalindrome().equals("tst")), eq(PalindromeTaskEntity.Status.SUBMITTED));
     }
 
     @Test
@@ -113,10 +170,9 @@ class BlockingPalindromeTaskProcessorTest {
 
         blockingProcessor.processPalindromeTask(taskId);
 
-        verify(parser, never()).parse(any());
+        verify(parser, never()).parse(any(), any());
     }
 
-    @SuppressWarnings("unchecked")
     @Test
     void shouldNotOverwriteResultOfTaskCompletedMidParsing() {
         String taskId = "de54b2bd-dfb3-43b9-9dc9-07b6326ff023";
@@ -125,16 +181,332 @@ class BlockingPalindromeTaskProcessorTest {
                         .withTask(taskId)
                         .withStatus(PalindromeTaskEntity.Status.STARTED)
                         .withStarted(1L)
-                        .withText("test")),
+                        .withText("test"))
+        );
+        // completed elsewhere while parsed, failing the condition on its status
+        when(repository.complete(any(), eq(PalindromeTaskEntity.Status.STARTED))).thenReturn(false);
+        when(parser.parse(anyString(), any())).thenReturn(new PalindromeSolution(0, null));
+
+        blockingProcessor.processPalindromeTask(taskId);
+
+        verify(repository, times(1)).findById(anyString());
+        verify(repository, never()).save(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void shouldParseDistinctPalindromesWithTaskOptions() {
+        String taskId = "de54b2bd-dfb3-43b9-9dc9-07b6326ff023";
+        when(repository.findById(anyString())).thenReturn(
                 Optional.of(new PalindromeTaskEntity()
                         .withTask(taskId)
-                        .withStatus(PalindromeTaskEntity.Status.COMPLETED)
-                        .withCompleted(1L)
-                        .withLargestPalindromeLength(0))
+                        .withStatus(PalindromeTaskEntity.Status.STARTED)
+                        .withStarted(1L)
+                        .withText("test")
+                        .withMode(PalindromeTaskEntity.Mode.DISTINCT)
+                        .withMinLength(2))
         );
+        when(parser.parse(anyString(), any()))
+                .thenReturn(new PalindromeSolution(3, "tst")
+                        .withDistinctPalindromes(List.of(new DistinctPalindrome("tst", 1))));
 
         blockingProcessor.processPalindromeTask(taskId);
 
-        verify(repository, never()).save(any());
+        verify(parser).parse(anyString(), argThat((ParseOptions options) ->
+                options.getMode() == ParseOptions.Mode.DISTINCT
+                        && options.getMinLength() == 2
+                        && options.getLimit() == 100));
+        verify(repository).complete(argThat(argument ->
+                argument.getDistinctPalindromes().size() == 1
+                        && argument.getDistinctPalindromes().get(0).getOccurrences() == 1), any());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void shouldParseMaximalPalindromesWithTaskOptions() {
+        String taskId = "de54b2bd-dfb3-43b9-9dc9-07b6326ff023";
+        when(repository.findById(anyString())).thenReturn(
+                Optional.of(new PalindromeTaskEntity()
+                        .withTask(taskId)
+                        .withStatus(PalindromeTaskEntity.Status.STARTED)
+                        .withStarted(1L)
+                        .withText("test")
+                        .withMode(PalindromeTaskEntity.Mode.MAXIMAL)
+                        .withResultLimit(5)
+                        .withNonOverlapping(true))
+        );
+        when(parser.parse(anyString(), any()))
+                .thenReturn(new PalindromeSolution(3, "tst", 1L, 4L)
+                        .withMaximalPalindromes(List.of(new MaximalPalindrome("tst", 1L, 4L))));
+
+        blockingProcessor.processPalindromeTask(taskId);
+
+        verify(parser).parse(anyString(), argThat((ParseOptions options) ->
+                options.getMode() == ParseOptions.Mode.MAXIMAL
+                        && options.getLimit() == 5
+                        && options.isNonOverlapping()));
+        verify(repository).complete(argThat(argument ->
+                argument.getMaximalPalindromes().size() == 1
+                        && argument.getMaximalPalindromes().get(0).getStart() == 1L
+                        && argument.getMaximalPalindromes().get(0).getEnd() == 4L), any());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void shouldCompletePartiallyParsedTaskAtTimeLimit() {
+        blockingProcessor = new BlockingPalindromeTaskProcessor(parser, resumableParser, repository, solutionCache,
+                palindromeIndexer, palindromeStates, 100, 60000, 4096, 0, 0);
+        String taskId = "de54b2bd-dfb3-43b9-9dc9-07b6326ff023";
+        when(repository.findById(anyString())).thenReturn(
+                Optional.of(new PalindromeTaskEntity()
+                        .withTask(taskId)
+                        .withStatus(PalindromeTaskEntity.Status.STARTED)
+                        .withStarted(1L)
+                        .withText("test"))
+        );
+        when(parser.parse(anyString(), any()))
+                .thenReturn(new PalindromeSolution(1, "t", 0L, 1L).withPartial(true));
+
+        blockingProcessor.processPalindromeTask(taskId);
+
+        verify(parser).parse(anyString(), argThat((ParseOptions options) ->
+                options.getDeadline() > System.currentTimeMillis()
+                        && options.getDeadline() <= System.currentTimeMillis() + 60000));
+        verify(repository).complete(argThat(argument ->
+                argument.getStatus().equals(PalindromeTaskEntity.Status.COMPLETED)
+                        && argument.getPartial()), any());
+    }
+
+    @Test
+    void shouldCancelParsingOnShutdownWithoutCompletingTask() {
+        String taskId = "de54b2bd-dfb3-43b9-9dc9-07b6326ff023";
+        when(repository.findById(anyString())).thenReturn(
+                Optional.of(new PalindromeTaskEntity()
+                        .withTask(taskId)
+                        .withStatus(PalindromeTaskEntity.Status.STARTED)
+                        .withStarted(1L)
+                        .withText("test"))
+        );
+        when(parser.parse(anyString(), any())).thenAnswer(invocation -> {
+            blockingProcessor.destroy();
+            ParseOptions options = invocation.getArgument(1);
+            return new PalindromeSolution(0, "").withPartial(options.shouldStop());
+        });
+
+        assertThrows(TaskCancelledException.class, () -> blockingProcessor.processPalindromeTask(taskId));
+
+        verify(repository, never()).complete(any(), any());
+    }
+
+    @Test
+    void shouldPersistProgressOfLongParse() {
+        blockingProcessor = new BlockingPalindromeTaskProcessor(parser, resumableParser, repository, solutionCache,
+                palindromeIndexer, palindromeStates, 100, 0, 4096, 0, 1);
+        String taskId = "de54b2bd-dfb3-43b9-9dc9-07b6326ff023";
+        when(repository.findById(anyString())).thenReturn(
+                Optional.of(new PalindromeTaskEntity()
+                        .withTask(taskId)
+                        .withStatus(PalindromeTaskEntity.Status.STARTED)
+                        .withStarted(1L)
+                        .withText("test"))
+        );
+        when(repository.progress(any(), any())).thenReturn(true);
+        when(parser.parse(anyString(), any())).thenAnswer(invocation -> {
+            ParseOptions options = invocation.getArgument(1);
+            Thread.sleep(2);
+            assertThat(options.isProgressDue()).isTrue();
+            options.reportProgress(0.5, new PalindromeSolution(1, "t", 0L, 1L).withPartial(true));
+            return new PalindromeSolution(3, "tst", 0L, 3L);
+        });
+
+        blockingProcessor.processPalindromeTask(taskId);
+
+        InOrder inOrder = inOrder(repository);
+        inOrder.verify(repository).progress(argThat(argument -> argument.getTask().equals(taskId)
+                && argument.getProgress() == 0.5
+                && argument.getProgressed() != null
+                && argument.getLargestPalindrome().equals("t")
+                && argument.getPartial()
+                && argument.getText() == null), eq(PalindromeTaskEntity.Status.STARTED));
+        inOrder.verify(repository).complete(argThat(argument -> argument.getLargestPalindrome().equals("tst")
+                && !argument.getPartial()), eq(PalindromeTaskEntity.Status.STARTED));
+    }
+
+    @Test
+    void shouldResumeAppendableTaskFromSavedState() {
+        String taskId = "de54b2bd-dfb3-43b9-9dc9-07b6326ff023";
+        byte[] savedState = {1, 2, 3};
+        byte[] newState = {4, 5, 6};
+        when(repository.findById(anyString())).thenReturn(
+                Optional.of(new PalindromeTaskEntity()
+                        .withTask(taskId)
+                        .withStatus(PalindromeTaskEntity.Status.STARTED)
+                        .withStarted(1L)
+                        .withText("test, appended")
+                        .withAppendable(true))
+        );
+        when(palindromeStates.load(argThat(argument -> argument.getTask().equals(taskId)))).thenReturn(savedState);
+        when(resumableParser.parse(anyString(), any(), any()))
+                .thenReturn(new PalindromeSolution(3, "tst", 0L, 3L).withState(newState));
+
+        blockingProcessor.processPalindromeTask(taskId);
+
+        verify(parser, never()).parse(any(), any());
+        verify(resumableParser).parse(eq("test, appended"), eq(savedState), any());
+        InOrder inOrder = inOrder(palindromeStates, repository);
+        inOrder.verify(palindromeStates).save(argThat(argument -> argument.getTask().equals(taskId)), eq(newState));
+        inOrder.verify(repository).complete(argThat(argument -> argument.getContentHash() == null), any());
+    }
+
+    @Test
+    void shouldReuseSolutionForTaskWithSameText() {
+        when(repository.findById(anyString())).thenAnswer(invocation -> Optional.of(new PalindromeTaskEntity()
+                .withTask(invocation.getArgument(0))
+                .withStatus(PalindromeTaskEntity.Status.STARTED)
+                .withStarted(1L)
+                .withText("test")));
+        when(parser.parse(anyString(), any())).thenReturn(new PalindromeSolution(3, "tst", 0L, 3L));
+
+        blockingProcessor.processPalindromeTask("de54b2bd-dfb3-43b9-9dc9-07b6326ff023");
+        blockingProcessor.processPalindromeTask("4d2a59a6-3c7c-4bb8-a0b0-62bc7e1cb4f1");
+
+        verify(parser, times(1)).parse(anyString(), any());
+        verify(repository, times(2)).complete(argThat(argument -> argument.getLargestPalindrome().equals("tst")
+                && argument.getContentHash() != null
+                && argument.getResultKey() != null), any());
+    }
+
+    @Test
+    void shouldIndexTaskBeforeCompletingIt() {
+        String taskId = "de54b2bd-dfb3-43b9-9dc9-07b6326ff023";
+        when(repository.findById(anyString())).thenReturn(Optional.of(new PalindromeTaskEntity()
+                .withTask(taskId)
+                .withStatus(PalindromeTaskEntity.Status.STARTED)
+                .withStarted(1L)
+                .withText("test")));
+        PalindromeSolution solution = new PalindromeSolution(3, "tst", 0L, 3L);
+        when(parser.parse(anyString(), any())).thenReturn(solution);
+        byte[] radii = {1, 2, 3};
+        when(palindromeIndexer.radii(any(), eq(solution))).thenReturn(radii);
+
+        blockingProcessor.processPalindromeTask(taskId);
+
+        verify(palindromeIndexer).pack(solution);
+        InOrder inOrder = inOrder(palindromeIndexer, repository);
+        inOrder.verify(palindromeIndexer).index(argThat(argument -> argument.getTask().equals(taskId)), eq(radii));
+        inOrder.verify(repository).complete(argThat(argument ->
+                argument.getStatus().equals(PalindromeTaskEntity.Status.COMPLETED)), any());
+    }
+
+    @Test
+    void shouldPersistStatisticsWhenAsked() {
+        String taskId = "de54b2bd-dfb3-43b9-9dc9-07b6326ff023";
+        when(repository.findById(anyString())).thenReturn(Optional.of(new PalindromeTaskEntity()
+                .withTask(taskId)
+                .withStatus(PalindromeTaskEntity.Status.STARTED)
+                .withStarted(1L)
+                .withText("abba")
+                .withStatistics(true)));
+        when(parser.parse(anyString(), argThat(ParseOptions::isStatistics)))
+                .thenAnswer(invocation -> new ManacherPalindromeParser()
+                        .parse(invocation.getArgument(0), invocation.getArgument(1)));
+
+        blockingProcessor.processPalindromeTask(taskId);
+
+        verify(repository).complete(argThat(argument -> argument.getPalindromeStatistics() != null
+                && argument.getPalindromeStatistics().getPalindromes() == 6L
+                && argument.getPalindromeStatistics().getLengthHistogram().equals(List.of(4L, 1L, 1L))), any());
+    }
+
+    @Test
+    void shouldParseShortLongestTasksTogether() {
+        when(repository.findAllById(anyList())).thenAnswer(invocation -> {
+            List<String> taskIds = invocation.getArgument(0);
+            return taskIds.stream().map(taskId -> new PalindromeTaskEntity()
+                    .withTask(taskId)
+                    .withStatus(PalindromeTaskEntity.Status.STARTED)
+                    .withStarted(1L)
+                    .withText(taskId.equals("distinct") ? "abba" : taskId)
+                    .withMode(taskId.equals("distinct") ? PalindromeTaskEntity.Mode.DISTINCT : null))
+                    .collect(Collectors.toList());
+        });
+        when(parser.parseAll(anyList())).thenAnswer(invocation -> new ManacherPalindromeParser()
+                .parseAll(invocation.getArgument(0)));
+        when(parser.parse(anyString(), any())).thenReturn(new PalindromeSolution(1, "a", 0L, 1L));
+
+        List<String> processed = blockingProcessor.processPalindromeTasks(List.of("xabay", "distinct", "Racecar!"));
+
+        assertThat(processed).containsExactlyInAnyOrder("xabay", "distinct", "Racecar!");
+        verify(parser).parseAll(List.of("xabay", "Racecar!"));
+        verify(parser).parse(eq("abba"), any());
+        verify(repository, times(1)).findAllById(anyList());
+        verify(repository).complete(argThat(argument -> argument.getTask().equals("xabay")
+                && argument.getLargestPalindrome().equals("aba")
+                && argument.getLargestPalindromeStart() == 1L
+                && argument.getText() == null), eq(PalindromeTaskEntity.Status.STARTED));
+        verify(repository).complete(argThat(argument -> argument.getTask().equals("Racecar!")
+                && argument.getLargestPalindrome().equals("racecar")
+                && argument.getStatus() == PalindromeTaskEntity.Status.COMPLETED),
+                eq(PalindromeTaskEntity.Status.STARTED));
+        verify(repository, never()).saveAll(anyList());
+        verify(repository).complete(argThat(argument -> argument.getTask().equals("distinct")),
+                eq(PalindromeTaskEntity.Status.STARTED));
+    }
+
+    @Test
+    void shouldLeaveOnlyFailedTasksUnprocessedInBatch() {
+        when(repository.findAllById(anyList())).thenAnswer(invocation -> {
+            List<String> taskIds = invocation.getArgument(0);
+            return taskIds.stream()
+                    .filter(taskId -> !taskId.equals("missing"))
+                    .map(taskId -> new PalindromeTaskEntity()
+                            .withTask(taskId)
+                            .withStatus(PalindromeTaskEntity.Status.SUBMITTED)
+                            .withSubmitted(1L)
+                            .withText(taskId)
+                            .withMode(taskId.equals("broken") ? PalindromeTaskEntity.Mode.MAXIMAL : null))
+                    .map(entity -> taskIds.size() == 1 ? entity
+                            .withStatus(PalindromeTaskEntity.Status.STARTED)
+                            .withStarted(2L) : entity)
+                    .collect(Collectors.toList());
+        });
+        when(parser.parseAll(anyList())).thenAnswer(invocation -> new ManacherPalindromeParser()
+                .parseAll(invocation.getArgument(0)));
+        when(repository.start(anyString(), anyLong())).thenReturn(true);
+        when(parser.parse(eq("broken"), any())).thenThrow(new IllegalStateException("parse failed"));
+
+        List<String> processed = blockingProcessor.processPalindromeTasks(List.of("missing", "broken", "level"));
+
+        assertThat(processed).containsExactly("missing", "level");
+        InOrder inOrder = inOrder(repository);
+        inOrder.verify(repository).start(eq("level"), anyLong());
+        inOrder.verify(repository).complete(argThat(argument -> argument.getLargestPalindrome().equals("level")),
+                eq(PalindromeTaskEntity.Status.STARTED));
+        verify(repository, never()).complete(argThat(argument -> argument.getTask().equals("broken")), any());
+    }
+
+    @Test
+    void shouldCompleteShortBatchedTasksStraightFromSubmitted() {
+        blockingProcessor = new BlockingPalindromeTaskProcessor(parser, resumableParser, repository, solutionCache,
+                palindromeIndexer, palindromeStates, 100, 0, 4096, 16384, 0);
+        when(repository.findAllById(anyList())).thenAnswer(invocation -> {
+            List<String> taskIds = invocation.getArgument(0);
+            return taskIds.stream().map(taskId -> new PalindromeTaskEntity()
+                    .withTask(taskId)
+                    .withStatus(PalindromeTaskEntity.Status.SUBMITTED)
+                    .withSubmitted(1L)
+                    .withText(taskId))
+                    .collect(Collectors.toList());
+        });
+        when(parser.parseAll(anyList())).thenAnswer(invocation -> new ManacherPalindromeParser()
+                .parseAll(invocation.getArgument(0)));
+        when(repository.complete(any(), any())).thenReturn(true);
+
+        List<String> processed = blockingProcessor.processPalindromeTasks(List.of("xabay", "level"));
+
+        assertThat(processed).containsExactly("xabay", "level");
+        verify(repository, never()).start(anyString(), anyLong());
+        verify(repository, times(2)).complete(argThat(argument -> argument.getStarted() != null),
+                eq(PalindromeTaskEntity.Status.SUBMITTED));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,137 @@
+package com.quickcamel.winnow.palindromes.service.task;
+
+import com.quickcamel.winnow.palindromes.entities.PalindromeTaskEntity;
+import com.quickcamel.winnow.palindromes.service.parser.PalindromeSolution;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PalindromeTaskPipelineTest {
+
+    @Mock
+    private BlockingPalindromeTaskProcessor processor;
+
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PalindromeTaskPipeline pipeline;
+
+    @BeforeEach
+    void setup() {
+        pipeline = new PalindromeTaskPipeline(processor, meterRegistry, 2, 1, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.destroy();
+    }
+
+    @Test
+    void shouldStartParseAndCompleteTaskBeforeAcknowledging() throws InterruptedException {
+        PalindromeTaskEntity entity = new PalindromeTaskEntity().withTask("task");
+        BlockingPalindromeTaskProcessor.ParsedTask parsed = new BlockingPalindromeTaskProcessor.ParsedTask(
+                entity, null, new PalindromeSolution(0, ""), null, 1L);
+        when(processor.startTask("task")).thenReturn(Optional.of(entity));
+        when(processor.parseTask(entity)).thenReturn(parsed);
+        CountDownLatch acknowledged = new CountDownLatch(1);
+
+        pipeline.submit("task", acknowledged::countDown);
+
+        assertThat(acknowledged.await(5, TimeUnit.SECONDS)).isTrue();
+        verify(processor).completeTask(parsed);
+        assertThat(meterRegistry.get("palindrome.pipeline.stage").tag("stage", "parse").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void shouldAcknowledgeTaskWithNothingToParse() throws InterruptedException {
+        when(processor.startTask("missing")).thenReturn(Optional.empty());
+        CountDownLatch acknowledged = new CountDownLatch(1);
+
+        pipeline.submit("missing", acknowledged::countDown);
+
+        assertThat(acknowledged.await(5, TimeUnit.SECONDS)).isTrue();
+        verify(processor, never()).parseTask(any());
+    }
+
+    @Test
+    void shouldLeaveFailedTaskUnacknowledgedAndFreeItsPlace() throws InterruptedException {
+        PalindromeTaskEntity entity = new PalindromeTaskEntity().withTask("failing");
+        when(processor.startTask("failing")).thenReturn(Optional.of(entity));
+        when(processor.parseTask(entity)).thenThrow(new TaskCancelledException("failing"));
+        when(processor.startTask("next")).thenReturn(Optional.empty());
+        AtomicBoolean failedAcknowledged = new AtomicBoolean();
+        CountDownLatch nextAcknowledged = new CountDownLatch(1);
+
+        pipeline.submit("failing", () -> failedAcknowledged.set(true));
+        // admitted only once the failed task has left the pipeline
+        pipeline.submit("next", nextAcknowledged::countDown);
+
+        assertThat(nextAcknowledged.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(failedAcknowledged).isFalse();
+        verify(processor, never()).completeTask(any());
+    }
+
+    @Test
+    void shouldBlockSubmissionsWhileFull() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        when(processor.startTask(any())).thenAnswer(invocation -> {
+            release.await();
+            return Optional.empty();
+        });
+        AtomicInteger acknowledged = new AtomicInteger();
+        pipeline.submit("first", acknowledged::incrementAndGet);
+        Thread second = new Thread(() -> {
+            try {
+                pipeline.submit("second", acknowledged::incrementAndGet);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        second.start();
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> second.getState() == Thread.State.WAITING);
+        assertThat(acknowledged.get()).isEqualTo(0);
+        assertThat(meterRegistry.get("palindrome.pipeline.tasks").gauge().value()).isEqualTo(1.0);
+
+        release.countDown();
+        await().atMost(5, TimeUnit.SECONDS).until(() -> acknowledged.get() == 2);
+    }
+
+    @Test
+    void shouldLoadTasksOnVirtualThreadsWhereAvailable() throws InterruptedException {
+        if (Runtime.version().feature() < 21) {
+            assertThrows(IllegalStateException.class,
+                    () -> new PalindromeTaskPipeline(processor, meterRegistry, 2, 0, true));
+            return;
+        }
+        PalindromeTaskPipeline virtualPipeline = new PalindromeTaskPipeline(processor, meterRegistry, 2, 0, true);
+        AtomicBoolean virtual = new AtomicBoolean();
+        when(processor.startTask("task")).thenAnswer(invocation -> {
+            virtual.set((Boolean) Thread.class.getMethod("isVirtual").invoke(Thread.currentThread()));
+            return Optional.empty();
+        });
+        CountDownLatch acknowledged = new CountDownLatch(1);
+
+        virtualPipeline.submit("task", acknowledged::countDown);
+
+        assertThat(acknowledged.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(virtual).isTrue();
+        virtualPipeline.destroy();
+    }
+}